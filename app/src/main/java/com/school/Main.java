@@ -1,7 +1,9 @@
 package com.school;
 
+import com.school.dao.JournalReplay;
 import com.school.ui.LoginFrame;
 import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
 import javax.swing.*;
 
 public class Main {
@@ -12,6 +14,9 @@ public class Main {
             
             // Initialize database
             DatabaseInitializer.initialize();
+            // A database that predates its change journal is journaled as it is
+            new JournalReplay().seedIfEmpty();
+            Runtime.getRuntime().addShutdownHook(new Thread(HibernateUtil::shutdown));
             
             // Start application
             SwingUtilities.invokeLater(() -> {
@@ -0,0 +1,328 @@
+package com.school.analytics;
+
+import com.school.dto.AttendanceRate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory attendance of every student in every subject, for early-warning
+ * queries such as "who is below 75% in any subject this term". Each
+ * student/subject pair keeps two bitmaps with one bit per calendar day, the
+ * days a roll was called and the days the student was present, plus running
+ * totals of both. A year takes six words per bitmap, so a date range is
+ * counted with a few popcounts and all-time rates come from the totals.
+ * <p>
+ * Like {@link com.school.search.TextIndex}, the index is filled by the loader
+ * on first use and kept current by the DAO through {@link #record} and
+ * {@link #remove}; changes made before the first load are ignored. Thread-safe.
+ */
+public class AttendanceIndex {
+    public static final Comparator<AttendanceRate> WORST_FIRST = Comparator
+        .comparingDouble(AttendanceRate::rate)
+        .thenComparing(Comparator.comparingInt(AttendanceRate::absences).reversed())
+        .thenComparing(AttendanceRate::studentId)
+        .thenComparing(AttendanceRate::subjectId);
+
+    private final Consumer<AttendanceIndex> loader;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // subject id -> student id -> presence
+    private final Map<Long, Map<Long, Presence>> subjects = new HashMap<>();
+    private volatile boolean loaded;
+    // Set while the loader runs, which holds the write lock
+    private Thread loadingThread;
+
+    /**
+     * @param loader fills an empty index, typically by {@link #record}ing every row
+     */
+    public AttendanceIndex(Consumer<AttendanceIndex> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Adds or replaces the roll-call entry of a student in a subject on a day.
+     */
+    public void record(Long studentId, Long subjectId, LocalDate date, boolean present) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded && loadingThread != Thread.currentThread()) {
+                return;
+            }
+            subjects.computeIfAbsent(subjectId, id -> new HashMap<>())
+                .computeIfAbsent(studentId, id -> new Presence())
+                .set(date.toEpochDay(), present);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long studentId, Long subjectId, LocalDate date) {
+        lock.writeLock().lock();
+        try {
+            Map<Long, Presence> students = subjects.get(subjectId);
+            Presence presence = students == null ? null : students.get(studentId);
+            if (presence != null && presence.clear(date.toEpochDay()) && presence.recordedCount == 0) {
+                students.remove(studentId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops everything; the next query reloads the index. For writes that
+     * bypass the DAO, such as bulk loads.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            subjects.clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the index now unless it already is, so the first query does not
+     * pay for it.
+     */
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                loadingThread = Thread.currentThread();
+                try {
+                    loader.accept(this);
+                    loaded = true;
+                } finally {
+                    loadingThread = null;
+                    if (!loaded) {
+                        subjects.clear();
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param from first day counted, or null for no lower bound
+     * @param to   last day counted, or null for no upper bound
+     * @return the student's attendance in the subject, with zero days if no
+     *         roll was called in the range
+     */
+    public AttendanceRate rate(Long studentId, Long subjectId, LocalDate from, LocalDate to) {
+        load();
+        lock.readLock().lock();
+        try {
+            Map<Long, Presence> students = subjects.get(subjectId);
+            Presence presence = students == null ? null : students.get(studentId);
+            return presence == null ? new AttendanceRate(studentId, subjectId, 0, 0)
+                : presence.rate(studentId, subjectId, epochDay(from, Long.MIN_VALUE), epochDay(to, Long.MAX_VALUE));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every student/subject pair whose attendance in the range is below
+     * {@code threshold}, worst first. Pairs without a roll call in the range
+     * are left out.
+     *
+     * @param threshold fraction of days present, e.g. 0.75
+     * @param subjectId null for all subjects
+     */
+    public List<AttendanceRate> below(double threshold, Long subjectId, LocalDate from, LocalDate to) {
+        List<AttendanceRate> rates = new ArrayList<>();
+        scan(subjectId, from, to, rate -> {
+            if (rate.rate() < threshold) {
+                rates.add(rate);
+            }
+        });
+        rates.sort(WORST_FIRST);
+        return rates;
+    }
+
+    /**
+     * The {@code limit} student/subject pairs with the lowest attendance in
+     * the range, worst first.
+     *
+     * @param subjectId null for all subjects
+     */
+    public List<AttendanceRate> lowest(int limit, Long subjectId, LocalDate from, LocalDate to) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        // Max-heap on the worst-first order: its head is the best of the worst kept so far
+        PriorityQueue<AttendanceRate> worst = new PriorityQueue<>(limit + 1, WORST_FIRST.reversed());
+        scan(subjectId, from, to, rate -> {
+            if (worst.size() < limit) {
+                worst.add(rate);
+            } else if (WORST_FIRST.compare(rate, worst.peek()) < 0) {
+                worst.poll();
+                worst.add(rate);
+            }
+        });
+        List<AttendanceRate> rates = new ArrayList<>(worst);
+        rates.sort(WORST_FIRST);
+        return rates;
+    }
+
+    /**
+     * Number of student/subject pairs with at least one roll call.
+     */
+    public int size() {
+        load();
+        lock.readLock().lock();
+        try {
+            return subjects.values().stream().mapToInt(Map::size).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scan(Long subjectId, LocalDate from, LocalDate to, Consumer<AttendanceRate> consumer) {
+        long first = epochDay(from, Long.MIN_VALUE);
+        long last = epochDay(to, Long.MAX_VALUE);
+        load();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, Map<Long, Presence>> subject : subjects.entrySet()) {
+                if (subjectId != null && !subjectId.equals(subject.getKey())) {
+                    continue;
+                }
+                for (Map.Entry<Long, Presence> student : subject.getValue().entrySet()) {
+                    AttendanceRate rate = student.getValue().rate(student.getKey(), subject.getKey(), first, last);
+                    if (rate.days() > 0) {
+                        consumer.accept(rate);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long epochDay(LocalDate date, long unbounded) {
+        return date == null ? unbounded : date.toEpochDay();
+    }
+
+    /**
+     * Two bitmaps over consecutive days, starting at word {@code firstWord}
+     * (epoch day / 64), grown in either direction as days are recorded.
+     */
+    private static final class Presence {
+        private long firstWord;
+        private long[] recorded = new long[0];
+        private long[] present = new long[0];
+        int recordedCount;
+        int presentCount;
+
+        void set(long day, boolean value) {
+            int index = wordIndex(day);
+            long bit = 1L << day;
+            if ((recorded[index] & bit) == 0) {
+                recorded[index] |= bit;
+                recordedCount++;
+            } else if ((present[index] & bit) != 0) {
+                present[index] &= ~bit;
+                presentCount--;
+            }
+            if (value) {
+                present[index] |= bit;
+                presentCount++;
+            }
+        }
+
+        /**
+         * @return whether the day had been recorded
+         */
+        boolean clear(long day) {
+            long word = day >> 6;
+            if (word < firstWord || word >= firstWord + recorded.length) {
+                return false;
+            }
+            int index = (int) (word - firstWord);
+            long bit = 1L << day;
+            if ((recorded[index] & bit) == 0) {
+                return false;
+            }
+            recorded[index] &= ~bit;
+            recordedCount--;
+            if ((present[index] & bit) != 0) {
+                present[index] &= ~bit;
+                presentCount--;
+            }
+            return true;
+        }
+
+        AttendanceRate rate(Long studentId, Long subjectId, long first, long last) {
+            long start = firstWord << 6;
+            long end = ((firstWord + recorded.length) << 6) - 1;
+            if (first <= start && last >= end) {
+                return new AttendanceRate(studentId, subjectId, presentCount, recordedCount);
+            }
+            return new AttendanceRate(studentId, subjectId,
+                count(present, Math.max(first, start), Math.min(last, end)),
+                count(recorded, Math.max(first, start), Math.min(last, end)));
+        }
+
+        private int count(long[] bits, long first, long last) {
+            if (first > last) {
+                return 0;
+            }
+            int firstIndex = (int) ((first >> 6) - firstWord);
+            int lastIndex = (int) ((last >> 6) - firstWord);
+            // Shifts use the low six bits, i.e. the day within its word
+            long firstMask = -1L << first;
+            long lastMask = -1L >>> (63 - (last & 63));
+            if (firstIndex == lastIndex) {
+                return Long.bitCount(bits[firstIndex] & firstMask & lastMask);
+            }
+            int count = Long.bitCount(bits[firstIndex] & firstMask) + Long.bitCount(bits[lastIndex] & lastMask);
+            for (int i = firstIndex + 1; i < lastIndex; i++) {
+                count += Long.bitCount(bits[i]);
+            }
+            return count;
+        }
+
+        private int wordIndex(long day) {
+            long word = day >> 6;
+            if (recorded.length == 0) {
+                firstWord = word;
+                recorded = new long[1];
+                present = new long[1];
+            } else if (word < firstWord) {
+                int shift = (int) (firstWord - word);
+                recorded = prepend(recorded, shift);
+                present = prepend(present, shift);
+                firstWord = word;
+            } else if (word >= firstWord + recorded.length) {
+                // Rolls are mostly called in date order, so leave room for the next weeks
+                int length = Math.max((int) (word - firstWord) + 1, recorded.length + 2);
+                recorded = Arrays.copyOf(recorded, length);
+                present = Arrays.copyOf(present, length);
+            }
+            return (int) (word - firstWord);
+        }
+
+        private static long[] prepend(long[] words, int count) {
+            long[] grown = new long[words.length + count];
+            System.arraycopy(words, 0, grown, count, words.length);
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.school.dao;
+
+import com.school.analytics.AttendanceIndex;
+import com.school.dto.AttendanceExportRow;
+import com.school.dto.AttendanceRate;
+import com.school.metrics.DaoMetrics;
+import com.school.model.Attendance;
+import com.school.model.Student;
+import com.school.model.Subject;
+import com.school.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class AttendanceDAO extends Repository<Attendance> {
+    /**
+     * Attendance layout: "rows" (default), one attendance row per student,
+     * subject and day, or "monthly", one row of day bitmasks per student,
+     * subject and month. Choose it before recording attendance: existing
+     * entries are not converted from one layout to the other. In monthly
+     * storage entries have no id of their own, so they are deleted by
+     * student, subject and day in both layouts.
+     */
+    public static final String STORAGE_PROPERTY = "school.attendance.storage";
+    // Minimum attendance to pass a subject
+    public static final double MINIMUM_ATTENDANCE = 0.75;
+    static final boolean MONTHLY = "monthly".equals(System.getProperty(STORAGE_PROPERTY, "rows"));
+    private static final AttendanceIndex PRESENCE = new AttendanceIndex(AttendanceDAO::loadPresence);
+
+    @Override
+    protected void onSaved(Attendance attendance) {
+        PRESENCE.record(attendance.getStudent().getId(), attendance.getSubject().getId(),
+            attendance.getDate(), attendance.getPresent());
+    }
+
+    @Override
+    public void save(UnitOfWork work, Attendance attendance) {
+        if (MONTHLY) {
+            MonthlyAttendance.of(work, entry -> changed(work, entry)).add(attendance);
+        } else {
+            super.save(work, attendance);
+            ChangeLog.of(work).marked(attendance);
+        }
+    }
+
+    /**
+     * Journals an entry that changed what was recorded and indexes it once committed.
+     */
+    private void changed(UnitOfWork work, Attendance attendance) {
+        ChangeLog.of(work).marked(attendance);
+        work.afterCommit(() -> onSaved(attendance));
+    }
+
+    /**
+     * In monthly storage, records the entry over the one for the same
+     * student, subject and day, like {@link #save}.
+     */
+    @Override
+    public void update(UnitOfWork work, Attendance attendance) {
+        if (MONTHLY) {
+            save(work, attendance);
+            return;
+        }
+        Object[] old = work.session().createQuery(
+            "SELECT a.student.id, a.subject.id, a.date FROM Attendance a WHERE a.id = :id", Object[].class)
+            .setParameter("id", attendance.getId())
+            .uniqueResult();
+        if (old != null && !(old[0].equals(attendance.getStudent().getId())
+                && old[1].equals(attendance.getSubject().getId()) && old[2].equals(attendance.getDate()))) {
+            ChangeLog.of(work).unmarked((Long) old[0], (Long) old[1], (LocalDate) old[2]);
+            work.afterCommit(() -> PRESENCE.remove((Long) old[0], (Long) old[1], (LocalDate) old[2]));
+        }
+        ChangeLog.of(work).marked(attendance);
+        super.update(work, attendance);
+    }
+
+    /**
+     * Deletes what was recorded for the student in the subject on {@code date}.
+     */
+    public void delete(Long studentId, Long subjectId, LocalDate date) {
+        try (DaoMetrics.Scope scope = operation("delete")) {
+            UnitOfWork.run(work -> delete(work, studentId, subjectId, date));
+        }
+    }
+
+    public void delete(UnitOfWork work, Long studentId, Long subjectId, LocalDate date) {
+        boolean deleted;
+        if (MONTHLY) {
+            deleted = MonthlyAttendance.of(work, entry -> changed(work, entry)).remove(studentId, subjectId, date);
+        } else {
+            Attendance attendance = work.session().createQuery(
+                "FROM Attendance a WHERE a.student.id = :studentId AND a.subject.id = :subjectId AND a.date = :date",
+                Attendance.class)
+                .setParameter("studentId", studentId)
+                .setParameter("subjectId", subjectId)
+                .setParameter("date", date)
+                .uniqueResult();
+            deleted = attendance != null;
+            if (deleted) {
+                work.session().remove(attendance);
+            }
+        }
+        if (deleted) {
+            ChangeLog.of(work).unmarked(studentId, subjectId, date);
+            work.afterCommit(() -> PRESENCE.remove(studentId, subjectId, date));
+        }
+    }
+
+    /**
+     * Saves a whole roll call for one subject and date. Students are resolved
+     * with a single IN query and the rows are written in JDBC batches. Saving
+     * the same roll again updates the existing rows instead of adding new ones;
+     * a roll saved concurrently for the same rows is read and merged again.
+     *
+     * @param presenceByRegistration presence flag keyed by student registration
+     * @return the number of attendance rows inserted or changed
+     */
+    public int saveRoll(Long subjectId, LocalDate date, Map<String, Boolean> presenceByRegistration) {
+        if (presenceByRegistration.isEmpty()) {
+            return 0;
+        }
+        return UnitOfWork.callMerging(work -> {
+            Session session = work.session();
+
+            List<Student> students = session.createQuery(
+                "FROM Student s WHERE s.registration IN :registrations",
+                Student.class)
+                .setParameterList("registrations", presenceByRegistration.keySet())
+                .list();
+            Map<String, Student> studentsByRegistration = new HashMap<>();
+            for (Student student : students) {
+                studentsByRegistration.put(student.getRegistration(), student);
+            }
+            if (studentsByRegistration.size() != presenceByRegistration.size()) {
+                List<String> unknown = presenceByRegistration.keySet().stream()
+                    .filter(registration -> !studentsByRegistration.containsKey(registration))
+                    .toList();
+                throw new IllegalArgumentException("Unknown student registrations: " + unknown);
+            }
+
+            Subject subject = session.getReference(Subject.class, subjectId);
+            if (MONTHLY) {
+                MonthlyAttendance monthly = MonthlyAttendance.of(work, entry -> changed(work, entry));
+                for (Map.Entry<String, Boolean> entry : presenceByRegistration.entrySet()) {
+                    Attendance attendance = new Attendance();
+                    attendance.setStudent(studentsByRegistration.get(entry.getKey()));
+                    attendance.setSubject(subject);
+                    attendance.setDate(date);
+                    attendance.setPresent(entry.getValue());
+                    monthly.add(attendance);
+                }
+                return monthly.apply();
+            }
+
+            Map<Long, Attendance> existingByStudent = new HashMap<>();
+            for (Attendance attendance : session.createQuery(
+                    "FROM Attendance a WHERE a.subject.id = :subjectId AND a.date = :date",
+                    Attendance.class)
+                    .setParameter("subjectId", subjectId)
+                    .setParameter("date", date)
+                    .list()) {
+                existingByStudent.put(attendance.getStudent().getId(), attendance);
+            }
+
+            int count = 0;
+            for (Map.Entry<String, Boolean> entry : presenceByRegistration.entrySet()) {
+                Student student = studentsByRegistration.get(entry.getKey());
+                Attendance attendance = existingByStudent.get(student.getId());
+                if (attendance == null) {
+                    attendance = new Attendance();
+                    attendance.setStudent(student);
+                    attendance.setSubject(subject);
+                    attendance.setDate(date);
+                    attendance.setPresent(entry.getValue());
+                    session.persist(attendance);
+                } else if (!attendance.getPresent().equals(entry.getValue())) {
+                    attendance.setPresent(entry.getValue());
+                } else {
+                    continue;
+                }
+                changed(work, attendance);
+                if (++count % UnitOfWork.BATCH_SIZE == 0) {
+                    session.flush();
+                }
+            }
+            return count;
+        });
+    }
+
+    public List<Attendance> findBySubjectAndDate(Long subjectId, LocalDate date) {
+        try (DaoMetrics.Scope scope = operation("findBySubjectAndDate")) {
+            return MONTHLY
+                ? MonthlyAttendance.findBySubjectAndDate(subjectId, date)
+                : findRowsBySubjectAndDate(subjectId, date);
+        }
+    }
+
+    private List<Attendance> findRowsBySubjectAndDate(Long subjectId, LocalDate date) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "SELECT a FROM Attendance a JOIN FETCH a.student " +
+                "WHERE a.subject.id = :subjectId AND a.date = :date",
+                Attendance.class)
+                .setParameter("subjectId", subjectId)
+                .setParameter("date", date)
+                .list();
+        }
+    }
+
+    /**
+     * A student's attendance in a subject between {@code from} and {@code to},
+     * inclusive; either bound may be null. Served from the in-memory
+     * {@link AttendanceIndex}, not the database.
+     */
+    public AttendanceRate findAttendanceRate(Long studentId, Long subjectId, LocalDate from, LocalDate to) {
+        return PRESENCE.rate(studentId, subjectId, from, to);
+    }
+
+    /**
+     * Early warning: students whose attendance in a subject between
+     * {@code from} and {@code to} is below {@code threshold}, worst first.
+     *
+     * @param threshold e.g. {@link #MINIMUM_ATTENDANCE}
+     * @param subjectId null for all subjects
+     */
+    public List<AttendanceRate> findBelowAttendance(double threshold, Long subjectId, LocalDate from, LocalDate to) {
+        return PRESENCE.below(threshold, subjectId, from, to);
+    }
+
+    /**
+     * The {@code limit} student/subject pairs with the lowest attendance
+     * between {@code from} and {@code to}, worst first.
+     *
+     * @param subjectId null for all subjects
+     */
+    public List<AttendanceRate> findLowestAttendance(int limit, Long subjectId, LocalDate from, LocalDate to) {
+        return PRESENCE.lowest(limit, subjectId, from, to);
+    }
+
+    /**
+     * Drops the attendance index after writes that bypassed this DAO; the
+     * next query reloads it.
+     */
+    static void invalidateIndex() {
+        PRESENCE.invalidate();
+    }
+
+    /**
+     * Builds the attendance index ahead of the first query, e.g. from a background thread.
+     */
+    public void preloadAttendanceIndex() {
+        PRESENCE.load();
+    }
+
+    /**
+     * Streams the roll calls between {@code from} and {@code to}, inclusive,
+     * ordered by subject, date and student, through a scrolling cursor so a
+     * whole school year fits in flat memory.
+     *
+     * @param subjectId null for all subjects
+     */
+    public void forEachExportRow(Long subjectId, LocalDate from, LocalDate to,
+                                 Consumer<AttendanceExportRow> consumer) {
+        if (MONTHLY) {
+            MonthlyAttendance.forEachExportRow(subjectId, from, to, consumer);
+            return;
+        }
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            // One query per subject, read in order from the (subject, date,
+            // student) unique index; across subjects the database would sort
+            // the whole year before returning the first row
+            List<Long> subjectIds = subjectId != null ? List.of(subjectId)
+                : session.createSelectionQuery("SELECT s.id FROM Subject s ORDER BY s.id", Long.class).list();
+            for (Long id : subjectIds) {
+                SelectionQuery<AttendanceExportRow> query = session.createSelectionQuery(
+                    "SELECT new com.school.dto.AttendanceExportRow(a.date, st.registration, st.name, st.className, " +
+                    "sub.name, a.present) " +
+                    "FROM Attendance a JOIN a.student st JOIN a.subject sub " +
+                    "WHERE a.subject.id = :subjectId AND a.date BETWEEN :from AND :to " +
+                    "ORDER BY a.subject.id, a.date, a.student.id",
+                    AttendanceExportRow.class)
+                    .setParameter("subjectId", id)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .setFetchSize(GradeDAO.EXPORT_FETCH_SIZE);
+                try (ScrollableResults<AttendanceExportRow> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (rows.next()) {
+                        consumer.accept(rows.get());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void loadPresence(AttendanceIndex index) {
+        if (MONTHLY) {
+            MonthlyAttendance.loadPresence(index);
+            return;
+        }
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+             ScrollableResults<Object[]> rows = session.createQuery(
+                 "SELECT a.student.id, a.subject.id, a.date, a.present FROM Attendance a", Object[].class)
+                 .setFetchSize(GradeDAO.EXPORT_FETCH_SIZE)
+                 .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                index.record((Long) row[0], (Long) row[1], (LocalDate) row[2], (Boolean) row[3]);
+            }
+        }
+    }
+}
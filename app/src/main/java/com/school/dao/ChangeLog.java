@@ -0,0 +1,88 @@
+package com.school.dao;
+
+import com.school.journal.ChangeEvent;
+import com.school.journal.ChangeJournal;
+import com.school.model.Attendance;
+import com.school.model.Grade;
+import com.school.model.Student;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link ChangeEvent}s of one {@link UnitOfWork}, appended to the shared
+ * {@link ChangeJournal} and synced as the unit's last step before committing,
+ * together with the other units committing at the same time.
+ * <p>
+ * Both happen while the unit still holds its row locks: units changing the
+ * same rows are journaled in the order they commit, and nothing is committed
+ * that the journal could lose, so the tables stay a projection of it. The
+ * locks are held through the fsync, which group commit shares between the
+ * units waiting on it. The step runs after the unit's last flush, once the
+ * database has accepted every write, so units whose writes fail leave nothing
+ * in the journal; only a storage failure during the commit itself can leave
+ * an event the tables never saw.
+ * Does nothing when journaling is off.
+ */
+final class ChangeLog {
+    private final ChangeJournal journal;
+    private final List<ChangeEvent> events = new ArrayList<>();
+
+    private ChangeLog(ChangeJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * The events recorded in {@code work} so far, journaled when it commits.
+     */
+    static ChangeLog of(UnitOfWork work) {
+        return work.local(ChangeLog.class, () -> {
+            ChangeLog log = new ChangeLog(ChangeJournal.shared());
+            if (log.journal != null) {
+                work.afterFlush(log::write);
+            }
+            return log;
+        });
+    }
+
+    void gradeSet(Grade grade) {
+        gradeSet(grade.getStudent().getId(), grade.getSubject().getId(), grade.getPeriod(), grade.getValue());
+    }
+
+    /**
+     * @param value null if the grade was removed
+     */
+    void gradeSet(Long studentId, Long subjectId, String period, Double value) {
+        add(new ChangeEvent.GradeSet(studentId, subjectId, period, value));
+    }
+
+    void marked(Attendance attendance) {
+        add(new ChangeEvent.AttendanceMarked(attendance.getStudent().getId(), attendance.getSubject().getId(),
+            attendance.getDate(), attendance.getPresent()));
+    }
+
+    void unmarked(Long studentId, Long subjectId, LocalDate date) {
+        add(new ChangeEvent.AttendanceMarked(studentId, subjectId, date, null));
+    }
+
+    void enrolled(Student student) {
+        add(new ChangeEvent.StudentEnrolled(student.getId(), student.getName(), student.getEmail(),
+            student.getRegistration(), student.getBirthDate(), student.getClassName()));
+    }
+
+    void withdrawn(Long studentId) {
+        add(new ChangeEvent.StudentWithdrawn(studentId));
+    }
+
+    private void add(ChangeEvent event) {
+        if (journal != null) {
+            events.add(event);
+        }
+    }
+
+    private void write() {
+        if (!events.isEmpty()) {
+            journal.sync(journal.append(ChangeJournal.actor(), events));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.school.dao;
+
+/**
+ * Thrown when a unit of work changed a row that another one updated or
+ * deleted since it was read, so committing would overwrite that change.
+ * Nothing of the unit was committed; reload and apply the edit again.
+ */
+public class ConcurrentEditException extends RuntimeException {
+    public ConcurrentEditException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
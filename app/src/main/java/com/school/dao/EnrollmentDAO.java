@@ -0,0 +1,97 @@
+package com.school.dao;
+
+import com.school.metrics.DaoMetrics;
+import com.school.model.ClassEnrollment;
+import com.school.model.Subject;
+import com.school.roster.Roster;
+import com.school.util.HibernateUtil;
+import org.hibernate.Session;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Which classes take which subjects. A subject's roll and grade sheet list
+ * the students of its classes, read from the resident roster store; the
+ * class names themselves come from the unique key's index and then from
+ * the query cache, which Hibernate invalidates on every enrollment write.
+ */
+public class EnrollmentDAO extends IdRepository<ClassEnrollment> {
+    private final StudentDAO studentDAO = new StudentDAO();
+
+    public EnrollmentDAO() {
+        super(ClassEnrollment.class);
+    }
+
+    /**
+     * Names of the classes taking {@code subjectId}, in order.
+     */
+    public List<String> findClassNames(Long subjectId) {
+        try (DaoMetrics.Scope scope = operation("findClassNames");
+             Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "SELECT e.className FROM ClassEnrollment e WHERE e.subject.id = :subjectId ORDER BY e.className",
+                String.class)
+                .setParameter("subjectId", subjectId)
+                .setCacheable(true)
+                .list();
+        }
+    }
+
+    /**
+     * Ids of the subjects {@code className} takes.
+     */
+    public List<Long> findSubjectIds(String className) {
+        try (DaoMetrics.Scope scope = operation("findSubjectIds");
+             Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "SELECT e.subject.id FROM ClassEnrollment e WHERE e.className = :className ORDER BY e.subject.id",
+                Long.class)
+                .setParameter("className", className)
+                .setCacheable(true)
+                .list();
+        }
+    }
+
+    /**
+     * The students taking {@code subjectId}: those of each of its classes,
+     * by class and then in roll-call order.
+     */
+    public Roster findRosterBySubject(Long subjectId) {
+        return studentDAO.findRoster(findClassNames(subjectId));
+    }
+
+    /**
+     * The students of {@code className} in roll-call order.
+     */
+    public Roster findRosterByClass(String className) {
+        return studentDAO.findRoster(className);
+    }
+
+    /**
+     * Makes {@code classNames} the classes taking {@code subjectId}, enrolling
+     * the new ones and withdrawing the others.
+     */
+    public void setClasses(Long subjectId, Collection<String> classNames) {
+        try (DaoMetrics.Scope scope = operation("setClasses")) {
+            UnitOfWork.run(work -> {
+                Set<String> missing = new HashSet<>(classNames);
+                for (ClassEnrollment enrollment : work.session().createQuery(
+                        "FROM ClassEnrollment e WHERE e.subject.id = :subjectId", ClassEnrollment.class)
+                        .setParameter("subjectId", subjectId)
+                        .list()) {
+                    if (!missing.remove(enrollment.getClassName())) {
+                        work.session().remove(enrollment);
+                    }
+                }
+                for (String className : missing) {
+                    ClassEnrollment enrollment = new ClassEnrollment();
+                    enrollment.setClassName(className);
+                    enrollment.setSubject(work.session().getReference(Subject.class, subjectId));
+                    save(work, enrollment);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.school.dao;
+
+import com.school.dto.GradeExportRow;
+import com.school.journal.ChangeJournal;
+import com.school.journal.JournalEntry;
+import com.school.metrics.DaoMetrics;
+import com.school.model.Grade;
+import com.school.model.Student;
+import com.school.model.Subject;
+import com.school.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class GradeDAO extends IdRepository<Grade> {
+    static final int EXPORT_FETCH_SIZE = 1000;
+    // allocationSize of the grade id generator
+    private static final int ID_ALLOCATION = 50;
+
+    /**
+     * One grade of a sheet as an editor changed it.
+     *
+     * @param baseVersion version of the grade the editor started from, null if the student had none
+     * @param value       the new grade, null to remove it
+     */
+    public record GradeEdit(Long studentId, Long baseVersion, Double value) {
+    }
+
+    /**
+     * An edit left out because someone else changed the same grade first.
+     *
+     * @param theirs  the grade stored now, kept; null if it was removed
+     * @param version its version, to base a new edit on; null if it was removed
+     */
+    public record GradeConflict(Long studentId, Double mine, Double theirs, Long version) {
+    }
+
+    /**
+     * @param saved the number of grades inserted, changed or removed
+     */
+    public record SheetSaveResult(int saved, List<GradeConflict> conflicts) {
+    }
+
+    public GradeDAO() {
+        super(Grade.class);
+    }
+
+    // Every write also folds the change into the gradebook summaries, in the
+    // same transaction, and is recorded in the change journal
+
+    @Override
+    public void save(UnitOfWork work, Grade grade) {
+        super.save(work, grade);
+        GradebookDelta.of(work).added(grade);
+        ChangeLog.of(work).gradeSet(grade);
+    }
+
+    @Override
+    public void update(UnitOfWork work, Grade grade) {
+        Grade current = work.session().get(Grade.class, grade.getId());
+        if (current == grade) {
+            // Saved or loaded in this unit and changed in place since
+            GradebookDelta.of(work).changedInPlace(grade);
+            ChangeLog.of(work).gradeSet(grade);
+            super.update(work, grade);
+            return;
+        }
+        GradebookDelta.of(work).updated(current, grade);
+        boolean moved = current != null && moved(current, grade);
+        if (moved) {
+            // Gone from the sheet or student it was given in
+            ChangeLog.of(work).gradeSet(current.getStudent().getId(), current.getSubject().getId(),
+                current.getPeriod(), null);
+        }
+        if (current == null || moved || !Objects.equals(current.getValue(), grade.getValue())) {
+            ChangeLog.of(work).gradeSet(grade);
+        }
+        super.update(work, grade);
+    }
+
+    @Override
+    public void delete(UnitOfWork work, Long id) {
+        Grade current = work.session().get(Grade.class, id);
+        if (current != null) {
+            GradebookDelta.of(work).removed(current);
+            ChangeLog.of(work).gradeSet(current.getStudent().getId(), current.getSubject().getId(),
+                current.getPeriod(), null);
+        }
+        super.delete(work, id);
+    }
+
+    private static boolean moved(Grade current, Grade grade) {
+        return !(current.getStudent().getId().equals(grade.getStudent().getId())
+            && current.getSubject().getId().equals(grade.getSubject().getId())
+            && current.getPeriod().equals(grade.getPeriod()));
+    }
+
+    /**
+     * Saves the grades an editor changed in one sheet, merged with whatever
+     * other editors saved since the sheet was loaded. Each grade is merged on
+     * its own: an edit applies if nobody else changed that student's grade
+     * since {@code baseVersion}, or if they changed it to the same value;
+     * otherwise the other editor's grade is kept and the edit comes back as a
+     * conflict. Grades not in {@code edits} are not written at all, so
+     * teachers editing different students of one sheet never conflict.
+     *
+     * @throws IllegalArgumentException if a student to grade does not exist
+     */
+    public SheetSaveResult saveSheet(Long subjectId, String period, Collection<GradeEdit> edits) {
+        if (edits.isEmpty()) {
+            return new SheetSaveResult(0, List.of());
+        }
+        try (DaoMetrics.Scope scope = operation("saveSheet")) {
+            // A sheet saved by someone else between our read and our commit
+            // fails the version check; the retry reads and merges theirs
+            return UnitOfWork.callMerging(work -> mergeSheet(work, subjectId, period, edits));
+        }
+    }
+
+    private SheetSaveResult mergeSheet(UnitOfWork work, Long subjectId, String period, Collection<GradeEdit> edits) {
+        Session session = work.session();
+        List<Long> studentIds = edits.stream().map(GradeEdit::studentId).toList();
+        Map<Long, Grade> stored = new HashMap<>();
+        for (Grade grade : session.createQuery(
+                "FROM Grade g WHERE g.subject.id = :subjectId AND g.period = :period AND g.student.id IN :studentIds",
+                Grade.class)
+                .setParameter("subjectId", subjectId)
+                .setParameter("period", period)
+                .setParameterList("studentIds", studentIds)
+                .list()) {
+            stored.put(grade.getStudent().getId(), grade);
+        }
+        Set<Long> ungraded = new HashSet<>(studentIds);
+        ungraded.removeAll(stored.keySet());
+        checkStudentsExist(session, ungraded);
+
+        int saved = 0;
+        List<GradeConflict> conflicts = new ArrayList<>();
+        for (GradeEdit edit : edits) {
+            Grade grade = stored.get(edit.studentId());
+            Double theirs = grade != null ? grade.getValue() : null;
+            Long version = grade != null ? grade.getVersion() : null;
+            if (Objects.equals(theirs, edit.value())) {
+                continue;
+            }
+            if (!Objects.equals(version, edit.baseVersion())) {
+                conflicts.add(new GradeConflict(edit.studentId(), edit.value(), theirs, version));
+                continue;
+            }
+            if (grade == null) {
+                grade = new Grade();
+                grade.setStudent(session.getReference(Student.class, edit.studentId()));
+                grade.setSubject(session.getReference(Subject.class, subjectId));
+                grade.setPeriod(period);
+                grade.setValue(edit.value());
+                save(work, grade);
+            } else if (edit.value() == null) {
+                delete(work, grade.getId());
+            } else {
+                GradebookDelta delta = GradebookDelta.of(work);
+                delta.removed(grade);
+                grade.setValue(edit.value());
+                delta.added(grade);
+                ChangeLog.of(work).gradeSet(grade);
+            }
+            saved++;
+        }
+        return new SheetSaveResult(saved, conflicts);
+    }
+
+    /**
+     * Makes one sheet hold the grades in {@code sheet}, as entered or
+     * imported whole. The stored sheet is read with one query and only the
+     * grades that differ are written, in one transaction: one JDBC batch of
+     * MERGE keyed on the (subject, period, student) unique key for the grades
+     * given or changed, and one of DELETE for those removed. Unlike
+     * {@link #saveSheet} the last sheet saved wins, but every grade written
+     * gets a new version, so editors still holding the old one conflict on
+     * their next save.
+     *
+     * @param sheet grade by student id, null to remove it; students not in it keep theirs
+     * @return the number of grades inserted, changed or removed
+     * @throws IllegalArgumentException if a student to grade does not exist
+     */
+    public int upsertSheet(Long subjectId, String period, Map<Long, Double> sheet) {
+        if (sheet.isEmpty()) {
+            return 0;
+        }
+        try (DaoMetrics.Scope scope = operation("upsertSheet")) {
+            // Each statement checks the version it diffed against, so a sheet
+            // written by someone else in between is read and diffed again
+            return UnitOfWork.callMerging(work -> upsertSheet(work, subjectId, period, sheet));
+        }
+    }
+
+    private record StoredGrade(long id, double value, long version) {
+    }
+
+    private int upsertSheet(UnitOfWork work, Long subjectId, String period, Map<Long, Double> sheet) {
+        Session session = work.session();
+        Map<Long, StoredGrade> stored = new HashMap<>();
+        session.doWork(connection -> {
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT student_id, id, grade_value, version FROM grades WHERE subject_id = ? AND period = ?")) {
+                select.setLong(1, subjectId);
+                select.setString(2, period);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        stored.put(rows.getLong(1), new StoredGrade(rows.getLong(2), rows.getDouble(3), rows.getLong(4)));
+                    }
+                }
+            }
+        });
+
+        Map<Long, Double> merged = new HashMap<>();
+        Map<Long, StoredGrade> deleted = new HashMap<>();
+        Set<Long> ungraded = new HashSet<>();
+        for (Map.Entry<Long, Double> entry : sheet.entrySet()) {
+            StoredGrade grade = stored.get(entry.getKey());
+            Double value = entry.getValue();
+            if (value == null) {
+                if (grade != null) {
+                    deleted.put(entry.getKey(), grade);
+                }
+            } else if (grade == null) {
+                merged.put(entry.getKey(), value);
+                ungraded.add(entry.getKey());
+            } else if (grade.value() != value) {
+                merged.put(entry.getKey(), value);
+            }
+        }
+        if (merged.isEmpty() && deleted.isEmpty()) {
+            return 0;
+        }
+        checkStudentsExist(session, ungraded);
+
+        session.doWork(connection -> {
+            if (!merged.isEmpty()) {
+                mergeGrades(connection, subjectId, period, merged, stored, ungraded.size());
+            }
+            if (!deleted.isEmpty()) {
+                deleteGrades(connection, deleted);
+            }
+        });
+
+        GradebookDelta delta = GradebookDelta.of(work);
+        ChangeLog log = ChangeLog.of(work);
+        merged.forEach((studentId, value) -> {
+            StoredGrade grade = stored.get(studentId);
+            delta.updated(studentId, subjectId, period, grade != null ? grade.value() : null, value);
+            log.gradeSet(studentId, subjectId, period, value);
+        });
+        deleted.forEach((studentId, grade) -> {
+            delta.updated(studentId, subjectId, period, grade.value(), null);
+            log.gradeSet(studentId, subjectId, period, null);
+        });
+        return merged.size() + deleted.size();
+    }
+
+    /**
+     * Writes {@code grades} with one batch of MERGE. A grade applies only if
+     * the row is still as read: changed rows must keep the version diffed
+     * against, and new ones must still be missing.
+     *
+     * @param inserted how many of {@code grades} are not in {@code stored}
+     * @throws ConcurrentEditException if a row was not as read
+     */
+    private static void mergeGrades(Connection connection, Long subjectId, String period, Map<Long, Double> grades,
+                                    Map<Long, StoredGrade> stored, int inserted) throws SQLException {
+        long[] ids = nextIds(connection, inserted);
+        int next = 0;
+        try (PreparedStatement merge = connection.prepareStatement(
+                "MERGE INTO grades g USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), " +
+                "CAST(? AS VARCHAR(255)), CAST(? AS DOUBLE PRECISION), CAST(? AS BIGINT))) " +
+                "AS s(id, student_id, subject_id, period, grade_value, version) " +
+                "ON g.subject_id = s.subject_id AND g.period = s.period AND g.student_id = s.student_id " +
+                "WHEN MATCHED AND g.version = s.version THEN " +
+                "UPDATE SET grade_value = s.grade_value, version = g.version + 1 " +
+                "WHEN NOT MATCHED AND s.version IS NULL THEN " +
+                "INSERT (id, student_id, subject_id, period, grade_value, version) " +
+                "VALUES (s.id, s.student_id, s.subject_id, s.period, s.grade_value, 0)")) {
+            for (Map.Entry<Long, Double> entry : grades.entrySet()) {
+                StoredGrade grade = stored.get(entry.getKey());
+                if (grade == null) {
+                    merge.setLong(1, ids[next++]);
+                } else {
+                    merge.setNull(1, Types.BIGINT);
+                }
+                merge.setLong(2, entry.getKey());
+                merge.setLong(3, subjectId);
+                merge.setString(4, period);
+                merge.setDouble(5, entry.getValue());
+                if (grade == null) {
+                    merge.setNull(6, Types.BIGINT);
+                } else {
+                    merge.setLong(6, grade.version());
+                }
+                merge.addBatch();
+            }
+            checkAllWritten(merge.executeBatch());
+        }
+    }
+
+    /**
+     * @throws ConcurrentEditException if a grade was changed since it was read
+     */
+    private static void deleteGrades(Connection connection, Map<Long, StoredGrade> grades) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM grades WHERE id = ? AND version = ?")) {
+            for (StoredGrade grade : grades.values()) {
+                delete.setLong(1, grade.id());
+                delete.setLong(2, grade.version());
+                delete.addBatch();
+            }
+            checkAllWritten(delete.executeBatch());
+        }
+    }
+
+    private static void checkAllWritten(int[] counts) {
+        for (int count : counts) {
+            if (count == 0) {
+                throw new ConcurrentEditException("Sheet changed by someone else in the meantime", null);
+            }
+        }
+    }
+
+    /**
+     * Takes {@code count} ids from the grade sequence the way Hibernate's
+     * pooled generator does, so they never clash with the ones it hands out:
+     * each value drawn stands for itself and the {@link #ID_ALLOCATION} - 1
+     * ids below it. A value no higher than that is the start of a fresh
+     * sequence, which the generator pairs with the next value instead; it is
+     * skipped.
+     */
+    private static long[] nextIds(Connection connection, int count) throws SQLException {
+        long[] ids = new long[count];
+        int taken = 0;
+        try (PreparedStatement next = connection.prepareStatement(
+                "SELECT NEXT VALUE FOR grades_seq FROM SYSTEM_RANGE(1, ?)")) {
+            while (taken < count) {
+                next.setInt(1, (count - taken + ID_ALLOCATION - 1) / ID_ALLOCATION);
+                try (ResultSet values = next.executeQuery()) {
+                    while (values.next()) {
+                        long high = values.getLong(1);
+                        if (high <= ID_ALLOCATION) {
+                            continue;
+                        }
+                        for (long id = high - ID_ALLOCATION + 1; id <= high && taken < count; id++) {
+                            ids[taken++] = id;
+                        }
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void checkStudentsExist(Session session, Set<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        Set<Long> unknown = new HashSet<>(studentIds);
+        unknown.removeAll(session.createQuery("SELECT s.id FROM Student s WHERE s.id IN :ids", Long.class)
+            .setParameterList("ids", studentIds)
+            .list());
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown students: " + unknown);
+        }
+    }
+
+    public List<Grade> findBySubjectAndPeriod(Long subjectId, String period) {
+        try (DaoMetrics.Scope scope = operation("findBySubjectAndPeriod");
+             Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "SELECT g FROM Grade g JOIN FETCH g.student " +
+                "WHERE g.subject.id = :subjectId AND g.period = :period",
+                Grade.class)
+                .setParameter("subjectId", subjectId)
+                .setParameter("period", period)
+                .list();
+        }
+    }
+
+    /**
+     * Students who already have a grade in the sheet.
+     */
+    public Set<Long> findGradedStudentIds(Long subjectId, String period) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return new HashSet<>(session.createQuery(
+                "SELECT g.student.id FROM Grade g WHERE g.subject.id = :subjectId AND g.period = :period",
+                Long.class)
+                .setParameter("subjectId", subjectId)
+                .setParameter("period", period)
+                .list());
+        }
+    }
+
+    /**
+     * Every change to a student's grade in one sheet, oldest first, with who
+     * made it and when, read from the change journal. Grades that predate the
+     * journal show as a single entry by {@link JournalReplay#SEED_ACTOR}.
+     * Only the grade's own records are read, found through {@link GradeHistory}.
+     * Empty when journaling is off.
+     */
+    public List<JournalEntry> findHistory(Long studentId, Long subjectId, String period) {
+        ChangeJournal journal = ChangeJournal.shared();
+        return journal != null ? GradeHistory.of(journal).find(studentId, subjectId, period) : List.of();
+    }
+
+    /**
+     * Streams the grades of one sheet, or of every sheet matching the filters
+     * given, ordered by subject, period and student. Rows are read from a
+     * scrolling cursor through a stateless session, so memory stays flat
+     * whatever the number of grades.
+     *
+     * @param subjectId null for all subjects
+     * @param period    null for all periods
+     */
+    public void forEachExportRow(Long subjectId, String period, Consumer<GradeExportRow> consumer) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            // One query per sheet: with both the subject and the period fixed
+            // the database reads grades in order from the (subject, period,
+            // student) unique index instead of sorting all of them first
+            List<Object[]> sheets = session.createSelectionQuery(
+                "SELECT DISTINCT g.subject.id, g.period FROM Grade g " +
+                "WHERE (:subjectId IS NULL OR g.subject.id = :subjectId) AND (:period IS NULL OR g.period = :period) " +
+                "ORDER BY 1, 2", Object[].class)
+                .setParameter("subjectId", subjectId)
+                .setParameter("period", period)
+                .list();
+            for (Object[] sheet : sheets) {
+                SelectionQuery<GradeExportRow> query = session.createSelectionQuery(
+                    "SELECT new com.school.dto.GradeExportRow(st.registration, st.name, st.className, " +
+                    "sub.name, g.period, g.value) " +
+                    "FROM Grade g JOIN g.student st JOIN g.subject sub " +
+                    "WHERE g.subject.id = :subjectId AND g.period = :period " +
+                    "ORDER BY g.subject.id, g.period, g.student.id",
+                    GradeExportRow.class)
+                    .setParameter("subjectId", sheet[0])
+                    .setParameter("period", sheet[1])
+                    .setFetchSize(EXPORT_FETCH_SIZE);
+                try (ScrollableResults<GradeExportRow> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (rows.next()) {
+                        consumer.accept(rows.get());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.school.dao;
+
+import com.school.journal.ChangeEvent;
+import com.school.journal.ChangeJournal;
+import com.school.journal.JournalEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Where each grade's {@link ChangeEvent.GradeSet} records sit in the
+ * {@link ChangeJournal}, by student, subject and period, so a grade's history
+ * is read record by record instead of scanning the whole journal. Built by
+ * the first scan of the journal, the one {@link JournalReplay#rebuild} makes
+ * or else the first lookup's, and extended on each lookup with just the
+ * records appended since.
+ */
+final class GradeHistory {
+    private record Key(long studentId, long subjectId, String period) {
+    }
+
+    private static GradeHistory shared;
+
+    private final ChangeJournal journal;
+    private final Map<Key, List<Long>> positions = new HashMap<>();
+    // Journal position up to which records are indexed
+    private long indexed;
+
+    private GradeHistory(ChangeJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * The index of {@code journal}; a journal opened again starts a new one.
+     */
+    static synchronized GradeHistory of(ChangeJournal journal) {
+        if (shared == null || shared.journal != journal) {
+            shared = new GradeHistory(journal);
+        }
+        return shared;
+    }
+
+    /**
+     * Reads the whole journal into {@code consumer}, indexing it in the same pass.
+     */
+    synchronized void replay(Consumer<JournalEntry> consumer) {
+        positions.clear();
+        indexed = journal.forEach(0, entry -> {
+            index(entry);
+            consumer.accept(entry);
+        });
+    }
+
+    /**
+     * Every value the grade was set to, oldest first.
+     */
+    List<JournalEntry> find(Long studentId, Long subjectId, String period) {
+        List<Long> found;
+        synchronized (this) {
+            indexed = journal.forEach(indexed, this::index);
+            found = List.copyOf(positions.getOrDefault(new Key(studentId, subjectId, period), List.of()));
+        }
+        return journal.entriesAt(found);
+    }
+
+    private void index(JournalEntry entry) {
+        if (entry.event() instanceof ChangeEvent.GradeSet grade) {
+            positions.computeIfAbsent(new Key(grade.studentId(), grade.subjectId(), grade.period()),
+                key -> new ArrayList<>()).add(entry.position());
+        }
+    }
+}
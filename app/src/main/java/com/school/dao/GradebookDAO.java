@@ -0,0 +1,97 @@
+package com.school.dao;
+
+import com.school.dto.ReportCardRow;
+import com.school.model.ClassSubjectSummary;
+import com.school.model.StudentSubjectSummary;
+import com.school.util.HibernateUtil;
+import org.hibernate.Session;
+import java.util.List;
+
+/**
+ * Report cards and class dashboards, read from the summary rows that
+ * {@link GradeDAO} keeps up to date on every write instead of from the grades.
+ */
+public class GradebookDAO {
+    public static final double PASSING_GRADE = 6.0;
+
+    static final String STUDENT_SUMMARY_INSERT =
+        "INSERT INTO StudentSubjectSummary (studentId, subjectId, gradeCount, gradeSum, minValue, maxValue) " +
+        "SELECT g.student.id, g.subject.id, COUNT(g), SUM(g.value), MIN(g.value), MAX(g.value) " +
+        "FROM Grade g ";
+    static final String STUDENT_SUMMARY_GROUP = "GROUP BY g.student.id, g.subject.id";
+    static final String CLASS_SUMMARY_INSERT =
+        "INSERT INTO ClassSubjectSummary " +
+        "(className, subjectId, period, gradeCount, gradeSum, minValue, maxValue, passedCount) " +
+        "SELECT g.student.className, g.subject.id, g.period, COUNT(g), SUM(g.value), MIN(g.value), MAX(g.value), " +
+        "CAST(SUM(CASE WHEN g.value >= :passingGrade THEN 1 ELSE 0 END) AS Integer) " +
+        "FROM Grade g ";
+    static final String CLASS_SUMMARY_GROUP = "GROUP BY g.student.className, g.subject.id, g.period";
+
+    /**
+     * One line per subject the student has grades in, ordered by subject name.
+     */
+    public List<ReportCardRow> findReportCard(Long studentId) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "SELECT new com.school.dto.ReportCardRow(sub.id, sub.name, s.gradeCount, " +
+                "s.gradeSum / s.gradeCount, s.minValue, s.maxValue, s.gradeSum / s.gradeCount >= :passingGrade) " +
+                "FROM StudentSubjectSummary s JOIN Subject sub ON sub.id = s.subjectId " +
+                "WHERE s.studentId = :studentId ORDER BY sub.name",
+                ReportCardRow.class)
+                .setParameter("passingGrade", PASSING_GRADE)
+                .setParameter("studentId", studentId)
+                .list();
+        }
+    }
+
+    /**
+     * Per-class summaries of one grade sheet, ordered by class name.
+     */
+    public List<ClassSubjectSummary> findClassSummaries(Long subjectId, String period) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "FROM ClassSubjectSummary c WHERE c.subjectId = :subjectId AND c.period = :period " +
+                "ORDER BY c.className",
+                ClassSubjectSummary.class)
+                .setParameter("subjectId", subjectId)
+                .setParameter("period", period)
+                .list();
+        }
+    }
+
+    /**
+     * Students of a class ranked by their final average in the subject, best first.
+     */
+    public List<StudentSubjectSummary> findClassRanking(String className, Long subjectId) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "SELECT s FROM StudentSubjectSummary s JOIN Student st ON st.id = s.studentId " +
+                "WHERE st.className = :className AND s.subjectId = :subjectId " +
+                "ORDER BY s.gradeSum / s.gradeCount DESC, st.name",
+                StudentSubjectSummary.class)
+                .setParameter("className", className)
+                .setParameter("subjectId", subjectId)
+                .list();
+        }
+    }
+
+    /**
+     * Recomputes every summary from the grades, for data written without
+     * {@link GradeDAO}, such as bulk imports.
+     */
+    public void rebuild() {
+        UnitOfWork.run(work -> rebuild(work.session()));
+    }
+
+    /**
+     * Recomputes every summary in the caller's transaction.
+     */
+    static void rebuild(Session session) {
+        session.createMutationQuery("DELETE FROM StudentSubjectSummary").executeUpdate();
+        session.createMutationQuery("DELETE FROM ClassSubjectSummary").executeUpdate();
+        session.createMutationQuery(STUDENT_SUMMARY_INSERT + STUDENT_SUMMARY_GROUP).executeUpdate();
+        session.createMutationQuery(CLASS_SUMMARY_INSERT + CLASS_SUMMARY_GROUP)
+            .setParameter("passingGrade", PASSING_GRADE)
+            .executeUpdate();
+    }
+}
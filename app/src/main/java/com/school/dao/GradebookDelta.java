@@ -0,0 +1,468 @@
+package com.school.dao;
+
+import com.school.model.Grade;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Grade changes made in one {@link UnitOfWork}, folded into the gradebook
+ * summaries just before it commits. Summaries are adjusted in place with one
+ * UPDATE each, which concurrent units queue up on instead of racing. The
+ * summaries that lost their minimum or maximum grade are recomputed from
+ * their own grades instead, all of a table's in one MERGE.
+ */
+final class GradebookDelta {
+    // Both statements of a pair take the same parameters in the same order. The
+    // updates leave the row alone unless the grades removed from it lie
+    // strictly between its minimum and maximum, which then stay right.
+    private static final String STUDENT_UPDATE =
+        "UPDATE student_subject_summary SET grade_count = grade_count + ?, grade_sum = grade_sum + ?, " +
+        "min_value = LEAST(min_value, ?), max_value = GREATEST(max_value, ?) " +
+        "WHERE student_id = ? AND subject_id = ? AND min_value < ? AND max_value > ?";
+    private static final String STUDENT_INSERT =
+        "INSERT INTO student_subject_summary " +
+        "(grade_count, grade_sum, min_value, max_value, student_id, subject_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String CLASS_UPDATE =
+        "UPDATE class_subject_summary SET grade_count = grade_count + ?, grade_sum = grade_sum + ?, " +
+        "min_value = LEAST(min_value, ?), max_value = GREATEST(max_value, ?), passed_count = passed_count + ? " +
+        "WHERE class_name = ? AND subject_id = ? AND period = ? AND min_value < ? AND max_value > ?";
+    private static final String CLASS_INSERT =
+        "INSERT INTO class_subject_summary " +
+        "(grade_count, grade_sum, min_value, max_value, passed_count, class_name, subject_id, period) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Locks a summary row without changing it, so a recompute waits for the
+    // units adding to it and then sees their grades
+    private static final String STUDENT_LOCK =
+        "UPDATE student_subject_summary SET grade_count = grade_count WHERE student_id = ? AND subject_id = ?";
+    private static final String CLASS_LOCK =
+        "UPDATE class_subject_summary SET grade_count = grade_count " +
+        "WHERE class_name = ? AND subject_id = ? AND period = ?";
+    // Recompute the rows of the keys listed as VALUES in place of %s, and
+    // delete those left with no grades
+    private static final String STUDENT_RECOMPUTE =
+        "MERGE INTO student_subject_summary t USING (" +
+        "SELECT k.student_id, k.subject_id, COUNT(g.id) AS grade_count, SUM(g.grade_value) AS grade_sum, " +
+        "MIN(g.grade_value) AS min_value, MAX(g.grade_value) AS max_value " +
+        "FROM (VALUES %s) k(student_id, subject_id) " +
+        "LEFT JOIN grades g ON g.student_id = k.student_id AND g.subject_id = k.subject_id " +
+        "GROUP BY k.student_id, k.subject_id) s " +
+        "ON t.student_id = s.student_id AND t.subject_id = s.subject_id " +
+        "WHEN MATCHED AND s.grade_count = 0 THEN DELETE " +
+        "WHEN MATCHED THEN UPDATE SET grade_count = s.grade_count, grade_sum = s.grade_sum, " +
+        "min_value = s.min_value, max_value = s.max_value " +
+        "WHEN NOT MATCHED AND s.grade_count > 0 THEN INSERT " +
+        "(student_id, subject_id, grade_count, grade_sum, min_value, max_value) " +
+        "VALUES (s.student_id, s.subject_id, s.grade_count, s.grade_sum, s.min_value, s.max_value)";
+    private static final String STUDENT_KEY_ROW = "(CAST(? AS BIGINT), CAST(? AS BIGINT))";
+    private static final String CLASS_RECOMPUTE =
+        "MERGE INTO class_subject_summary t USING (" +
+        "SELECT k.class_name, k.subject_id, k.period, COUNT(g.id) AS grade_count, SUM(g.grade_value) AS grade_sum, " +
+        "MIN(g.grade_value) AS min_value, MAX(g.grade_value) AS max_value, " +
+        "SUM(CASE WHEN g.grade_value >= " + GradebookDAO.PASSING_GRADE + " THEN 1 ELSE 0 END) AS passed_count " +
+        "FROM (VALUES %s) k(class_name, subject_id, period) " +
+        "LEFT JOIN (grades g JOIN students st ON st.id = g.student_id) " +
+        "ON g.subject_id = k.subject_id AND g.period = k.period AND st.className = k.class_name " +
+        "GROUP BY k.class_name, k.subject_id, k.period) s " +
+        "ON t.class_name = s.class_name AND t.subject_id = s.subject_id AND t.period = s.period " +
+        "WHEN MATCHED AND s.grade_count = 0 THEN DELETE " +
+        "WHEN MATCHED THEN UPDATE SET grade_count = s.grade_count, grade_sum = s.grade_sum, " +
+        "min_value = s.min_value, max_value = s.max_value, passed_count = s.passed_count " +
+        "WHEN NOT MATCHED AND s.grade_count > 0 THEN INSERT " +
+        "(class_name, subject_id, period, grade_count, grade_sum, min_value, max_value, passed_count) " +
+        "VALUES (s.class_name, s.subject_id, s.period, s.grade_count, s.grade_sum, s.min_value, s.max_value, " +
+        "s.passed_count)";
+    private static final String CLASS_KEY_ROW = "(CAST(? AS VARCHAR), CAST(? AS BIGINT), CAST(? AS VARCHAR))";
+
+    private record Change(Long studentId, Long subjectId, String period, double value) {
+    }
+
+    private record StudentKey(Long studentId, Long subjectId) {
+        int bind(PreparedStatement statement, int index) throws SQLException {
+            statement.setLong(index, studentId);
+            statement.setLong(index + 1, subjectId);
+            return index + 2;
+        }
+    }
+
+    private record ClassKey(String className, Long subjectId, String period) {
+        int bind(PreparedStatement statement, int index) throws SQLException {
+            statement.setString(index, className);
+            statement.setLong(index + 1, subjectId);
+            statement.setString(index + 2, period);
+            return index + 3;
+        }
+    }
+
+    // Summary rows are locked in key order, so units updating the same ones never deadlock
+    private static final Comparator<StudentKey> STUDENT_ORDER = Comparator.comparing(StudentKey::studentId)
+        .thenComparing(StudentKey::subjectId);
+    private static final Comparator<ClassKey> CLASS_ORDER = Comparator.comparing(ClassKey::className,
+            Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+        .thenComparing(ClassKey::subjectId).thenComparing(ClassKey::period);
+
+    /**
+     * Net change to one summary row.
+     */
+    private static final class Group {
+        int count;
+        double sum;
+        int passed;
+        // Of the grades added
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        // Of the grades removed
+        double removedMin = Double.POSITIVE_INFINITY;
+        double removedMax = Double.NEGATIVE_INFINITY;
+        boolean recompute;
+
+        void add(Change change) {
+            count++;
+            sum += change.value();
+            passed += change.value() >= GradebookDAO.PASSING_GRADE ? 1 : 0;
+            min = Math.min(min, change.value());
+            max = Math.max(max, change.value());
+        }
+
+        void remove(Change change) {
+            count--;
+            sum -= change.value();
+            passed -= change.value() >= GradebookDAO.PASSING_GRADE ? 1 : 0;
+            removedMin = Math.min(removedMin, change.value());
+            removedMax = Math.max(removedMax, change.value());
+        }
+
+        boolean removesGrades() {
+            return removedMin <= removedMax;
+        }
+    }
+
+    private final List<Change> added = new ArrayList<>();
+    private final List<Change> removed = new ArrayList<>();
+    private final Map<Long, String> movedStudents = new HashMap<>();
+    private final List<Change> changedInPlace = new ArrayList<>();
+
+    private GradebookDelta() {
+    }
+
+    static GradebookDelta of(UnitOfWork work) {
+        return work.local(GradebookDelta.class, () -> {
+            GradebookDelta delta = new GradebookDelta();
+            work.beforeCommit(() -> delta.apply(work.session()));
+            return delta;
+        });
+    }
+
+    void added(Grade grade) {
+        added.add(change(grade));
+    }
+
+    /**
+     * Must be called before the grade is changed or removed from the session.
+     */
+    void removed(Grade grade) {
+        removed.add(change(grade));
+    }
+
+    /**
+     * The student moved out of {@code oldClassName}; every class summary
+     * holding one of their grades is recomputed.
+     */
+    void studentMoved(Long studentId, String oldClassName) {
+        movedStudents.putIfAbsent(studentId, oldClassName);
+    }
+
+    /**
+     * Must be called before {@code current}, the stored version of
+     * {@code grade} or null if there is none, is overwritten. Re-saving
+     * an unchanged grade leaves the summaries alone.
+     */
+    void updated(Grade current, Grade grade) {
+        Change after = change(grade);
+        if (current != null) {
+            Change before = change(current);
+            if (before.equals(after)) {
+                return;
+            }
+            removed.add(before);
+        }
+        added.add(after);
+    }
+
+    /**
+     * Like {@link #updated(Grade, Grade)}, for a grade written without its
+     * entity.
+     *
+     * @param before the stored grade, null if there was none
+     * @param after  the new grade, null if it was removed
+     */
+    void updated(Long studentId, Long subjectId, String period, Double before, Double after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            removed.add(new Change(studentId, subjectId, period, before));
+        }
+        if (after != null) {
+            added.add(new Change(studentId, subjectId, period, after));
+        }
+    }
+
+    /**
+     * The grade, already added or loaded in this unit, was changed in place,
+     * so the value it had is gone; every summary this unit touched for its
+     * student, and the one it is in now, is recomputed instead.
+     */
+    void changedInPlace(Grade grade) {
+        changedInPlace.add(change(grade));
+    }
+
+    private static Change change(Grade grade) {
+        return new Change(grade.getStudent().getId(), grade.getSubject().getId(),
+            grade.getPeriod(), grade.getValue());
+    }
+
+    private void apply(Session session) {
+        if (added.isEmpty() && removed.isEmpty() && movedStudents.isEmpty() && changedInPlace.isEmpty()) {
+            return;
+        }
+        session.flush();
+
+        Set<Long> studentIds = new HashSet<>(movedStudents.keySet());
+        added.forEach(change -> studentIds.add(change.studentId()));
+        removed.forEach(change -> studentIds.add(change.studentId()));
+        changedInPlace.forEach(change -> studentIds.add(change.studentId()));
+        Map<Long, String> classNames = classNames(session, studentIds);
+
+        Map<StudentKey, Group> students = new TreeMap<>(STUDENT_ORDER);
+        Map<ClassKey, Group> classes = new TreeMap<>(CLASS_ORDER);
+        for (Change change : added) {
+            students.computeIfAbsent(studentKey(change), k -> new Group()).add(change);
+            classes.computeIfAbsent(classKey(change, classNames), k -> new Group()).add(change);
+        }
+        for (Change change : removed) {
+            students.computeIfAbsent(studentKey(change), k -> new Group()).remove(change);
+            classes.computeIfAbsent(classKey(change, classNames), k -> new Group()).remove(change);
+        }
+        if (!changedInPlace.isEmpty()) {
+            Set<Long> stale = new HashSet<>();
+            changedInPlace.forEach(change -> stale.add(change.studentId()));
+            List<Change> touched = new ArrayList<>(changedInPlace);
+            touched.addAll(added);
+            touched.addAll(removed);
+            for (Change change : touched) {
+                if (stale.contains(change.studentId())) {
+                    students.computeIfAbsent(studentKey(change), k -> new Group()).recompute = true;
+                    classes.computeIfAbsent(classKey(change, classNames), k -> new Group()).recompute = true;
+                }
+            }
+        }
+        if (!movedStudents.isEmpty()) {
+            for (Object[] sheet : session.createQuery(
+                    "SELECT DISTINCT g.student.id, g.subject.id, g.period FROM Grade g " +
+                    "WHERE g.student.id IN :studentIds",
+                    Object[].class)
+                    .setParameterList("studentIds", movedStudents.keySet())
+                    .list()) {
+                Long studentId = (Long) sheet[0];
+                Long subjectId = (Long) sheet[1];
+                String period = (String) sheet[2];
+                for (String className : List.of(movedStudents.get(studentId), classNames.get(studentId))) {
+                    classes.computeIfAbsent(new ClassKey(className, subjectId, period), k -> new Group())
+                        .recompute = true;
+                }
+            }
+        }
+
+        // Plain JDBC batches: one HQL mutation per group costs more to translate than to run
+        session.doWork(connection -> {
+            addTo(connection, STUDENT_UPDATE, STUDENT_INSERT, students,
+                (statement, key, group) -> key.bind(statement, 5));
+            addTo(connection, CLASS_UPDATE, CLASS_INSERT, classes, (statement, key, group) -> {
+                statement.setInt(5, group.passed);
+                return key.bind(statement, 6);
+            });
+            recompute(connection, STUDENT_LOCK, STUDENT_RECOMPUTE, STUDENT_KEY_ROW, students, StudentKey::bind);
+            recompute(connection, CLASS_LOCK, CLASS_RECOMPUTE, CLASS_KEY_ROW, classes, ClassKey::bind);
+        });
+        added.clear();
+        removed.clear();
+        movedStudents.clear();
+        changedInPlace.clear();
+    }
+
+    private static StudentKey studentKey(Change change) {
+        return new StudentKey(change.studentId(), change.subjectId());
+    }
+
+    private static ClassKey classKey(Change change, Map<Long, String> classNames) {
+        return new ClassKey(classNames.get(change.studentId()), change.subjectId(), change.period());
+    }
+
+    private static Map<Long, String> classNames(Session session, Set<Long> studentIds) {
+        Map<Long, String> classNames = new HashMap<>();
+        for (Object[] row : session.createQuery(
+                "SELECT s.id, s.className FROM Student s WHERE s.id IN :ids", Object[].class)
+                .setParameterList("ids", studentIds)
+                .list()) {
+            classNames.put((Long) row[0], (String) row[1]);
+        }
+        return classNames;
+    }
+
+    /**
+     * Recomputes the summaries of the groups marked for it from their
+     * grades, with one MERGE. The rows are locked first, in key order, and
+     * then updated rather than replaced, so units adjusting them at the same
+     * time wait and add their change on top of the result.
+     */
+    private static <K> void recompute(Connection connection, String lock, String merge, String keyRow,
+                                      Map<K, Group> groups, KeyColumns<K> keyColumns) throws SQLException {
+        List<K> keys = groups.entrySet().stream()
+            .filter(entry -> entry.getValue().recompute)
+            .map(Map.Entry::getKey)
+            .toList();
+        if (keys.isEmpty()) {
+            return;
+        }
+        String recompute = merge.formatted(String.join(", ", Collections.nCopies(keys.size(), keyRow)));
+        do {
+            try (PreparedStatement statement = connection.prepareStatement(lock)) {
+                for (K key : keys) {
+                    keyColumns.bind(key, statement, 1);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        } while (!unlessInsertedMeanwhile(connection, c -> {
+            try (PreparedStatement statement = c.prepareStatement(recompute)) {
+                int index = 1;
+                for (K key : keys) {
+                    index = keyColumns.bind(key, statement, index);
+                }
+                statement.executeUpdate();
+            }
+        }));
+    }
+
+    /**
+     * Adds each group to its summary row with one JDBC batch of updates. Rows
+     * the updates did not find are inserted with another batch, and groups
+     * the guard turned away are marked to be recomputed. When another unit
+     * inserted one of those rows first, the inserts are undone and the
+     * groups added to the rows now there.
+     */
+    private static <K> void addTo(Connection connection, String update, String insert,
+                                  Map<K, Group> groups, KeyBinder<K> bindKey) throws SQLException {
+        List<Map.Entry<K, Group>> additions = groups.entrySet().stream()
+            .filter(entry -> !entry.getValue().recompute)
+            .toList();
+        while (!additions.isEmpty()) {
+            int[] updated;
+            try (PreparedStatement statement = connection.prepareStatement(update)) {
+                for (Map.Entry<K, Group> entry : additions) {
+                    Group group = entry.getValue();
+                    int guard = bind(statement, entry.getKey(), group, bindKey);
+                    statement.setDouble(guard, group.removedMin);
+                    statement.setDouble(guard + 1, group.removedMax);
+                    statement.addBatch();
+                }
+                updated = statement.executeBatch();
+            }
+            List<Map.Entry<K, Group>> missing = new ArrayList<>();
+            for (int i = 0; i < additions.size(); i++) {
+                Group group = additions.get(i).getValue();
+                if (updated[i] > 0) {
+                    continue;
+                }
+                if (group.removesGrades()) {
+                    group.recompute = true;
+                } else {
+                    missing.add(additions.get(i));
+                }
+            }
+            boolean inserted = missing.isEmpty() || unlessInsertedMeanwhile(connection, c -> {
+                try (PreparedStatement statement = c.prepareStatement(insert)) {
+                    for (Map.Entry<K, Group> entry : missing) {
+                        bind(statement, entry.getKey(), entry.getValue(), bindKey);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            });
+            additions = inserted ? List.of() : missing;
+        }
+    }
+
+    /**
+     * Runs {@code work}, which inserts summary rows, and undoes it if another
+     * unit inserted one of them first.
+     *
+     * @return false if it was undone
+     */
+    private static boolean unlessInsertedMeanwhile(Connection connection, Work work) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            work.execute(connection);
+        } catch (SQLException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            connection.rollback(savepoint);
+            return false;
+        }
+        connection.releaseSavepoint(savepoint);
+        return true;
+    }
+
+    private static boolean isDuplicateKey(SQLException e) {
+        for (SQLException next = e; next != null; next = next.getNextException()) {
+            if (UnitOfWork.DUPLICATE_KEY.equals(next.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the index of the first parameter after the key
+     */
+    private static <K> int bind(PreparedStatement statement, K key, Group group, KeyBinder<K> bindKey)
+            throws SQLException {
+        statement.setInt(1, group.count);
+        statement.setDouble(2, group.sum);
+        statement.setDouble(3, group.min);
+        statement.setDouble(4, group.max);
+        return bindKey.bind(statement, key, group);
+    }
+
+    private interface KeyBinder<K> {
+        /**
+         * @return the index of the first parameter after the key
+         */
+        int bind(PreparedStatement statement, K key, Group group) throws SQLException;
+    }
+
+    private interface KeyColumns<K> {
+        /**
+         * Binds the key's columns from {@code index} on.
+         *
+         * @return the index of the first parameter after them
+         */
+        int bind(K key, PreparedStatement statement, int index) throws SQLException;
+    }
+}
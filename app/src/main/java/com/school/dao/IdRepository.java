@@ -0,0 +1,43 @@
+package com.school.dao;
+
+import com.school.metrics.DaoMetrics;
+import com.school.util.HibernateUtil;
+import org.hibernate.Session;
+
+/**
+ * Lookups and deletes by id, for the DAOs whose entities always have one.
+ */
+public abstract class IdRepository<T> extends Repository<T> {
+    private final Class<T> type;
+
+    protected IdRepository(Class<T> type) {
+        this.type = type;
+    }
+
+    public void delete(Long id) {
+        try (DaoMetrics.Scope scope = operation("delete")) {
+            UnitOfWork.run(work -> delete(work, id));
+        }
+    }
+
+    public void delete(UnitOfWork work, Long id) {
+        T entity = work.session().get(type, id);
+        if (entity != null) {
+            work.session().remove(entity);
+            work.afterCommit(() -> onDeleted(id));
+        }
+    }
+
+    public T findById(Long id) {
+        try (DaoMetrics.Scope scope = operation("findById");
+             Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.get(type, id);
+        }
+    }
+
+    /**
+     * Called after the commit that deleted the entity {@code id}.
+     */
+    protected void onDeleted(Long id) {
+    }
+}
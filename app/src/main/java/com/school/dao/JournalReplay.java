@@ -0,0 +1,436 @@
+package com.school.dao;
+
+import com.school.journal.ChangeEvent;
+import com.school.journal.ChangeEvent.AttendanceMarked;
+import com.school.journal.ChangeEvent.GradeSet;
+import com.school.journal.ChangeEvent.StudentEnrolled;
+import com.school.journal.ChangeEvent.StudentWithdrawn;
+import com.school.journal.ChangeJournal;
+import com.school.journal.JournalEntry;
+import com.school.model.AttendanceMonth;
+import com.school.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Rebuilds students, grades, attendance and the gradebook summaries from the
+ * {@link ChangeJournal}, which makes those tables projections of it. The
+ * journal is read once and folded in memory into the latest state of every
+ * student, grade and roll-call entry, one pair of day bitmasks per student,
+ * subject and month; the tables are then emptied and refilled from that
+ * state with JDBC batches, in the attendance layout chosen by
+ * {@link AttendanceDAO#STORAGE_PROPERTY}. Emptying and refilling are one
+ * transaction, on a connection of its own outside the pool, so a rebuild that
+ * fails leaves the tables as they were. Until it commits the database keeps
+ * the old rows as well, which in memory storage means on the heap.
+ * Teachers and subjects are not journaled and must exist already. Run it
+ * while nothing else writes.
+ * <p>
+ * Writing the rows is most of the work, so the monthly attendance layout,
+ * with a row per month instead of per roll call, rebuilds many times faster.
+ * <p>
+ * A journal started over an existing database is {@link #seed}ed first with
+ * what the tables hold, or it would rebuild them without it.
+ */
+public class JournalReplay {
+    /**
+     * Actor of the events {@link #seed} writes for changes made before the journal.
+     */
+    public static final String SEED_ACTOR = "(before journal)";
+    // Rows per JDBC batch, and events per journal append when seeding
+    private static final int BATCH_SIZE = 1000;
+    // Matches the allocationSize of the entities' sequence generators
+    private static final int ID_ALLOCATION = 50;
+
+    /**
+     * @param attendanceEntries roll-call entries written, whatever the layout
+     */
+    public record Result(long events, int students, int grades, long attendanceEntries, long millis) {
+    }
+
+    private record GradeKey(long subjectId, String period, long studentId) {
+    }
+
+    // Ordered like the attendance unique keys: subject, month or day, student
+    private record MonthKey(long subjectId, LocalDate monthStart, long studentId) {
+    }
+
+    private static final Comparator<GradeKey> GRADE_ORDER = Comparator.comparingLong(GradeKey::subjectId)
+        .thenComparing(GradeKey::period).thenComparingLong(GradeKey::studentId);
+    private static final Comparator<MonthKey> MONTH_ORDER = Comparator.comparingLong(MonthKey::subjectId)
+        .thenComparing(MonthKey::monthStart).thenComparingLong(MonthKey::studentId);
+
+    /**
+     * The latest state of everything journaled, folded event by event.
+     */
+    private static final class Projection implements Consumer<JournalEntry> {
+        private final Map<Long, StudentEnrolled> students = new HashMap<>();
+        private final Map<GradeKey, Double> grades = new HashMap<>();
+        // Recorded and present days, as in AttendanceMonth
+        private final Map<MonthKey, int[]> months = new HashMap<>();
+        private long events;
+
+        @Override
+        public void accept(JournalEntry entry) {
+            events++;
+            ChangeEvent event = entry.event();
+            if (event instanceof StudentEnrolled student) {
+                students.put(student.studentId(), student);
+            } else if (event instanceof StudentWithdrawn student) {
+                students.remove(student.studentId());
+            } else if (event instanceof GradeSet grade) {
+                GradeKey key = new GradeKey(grade.subjectId(), grade.period(), grade.studentId());
+                if (grade.value() != null) {
+                    grades.put(key, grade.value());
+                } else {
+                    grades.remove(key);
+                }
+            } else if (event instanceof AttendanceMarked attendance) {
+                int[] masks = months.computeIfAbsent(new MonthKey(attendance.subjectId(),
+                    attendance.date().withDayOfMonth(1), attendance.studentId()), key -> new int[2]);
+                int bit = 1 << (attendance.date().getDayOfMonth() - 1);
+                if (attendance.present() == null) {
+                    masks[0] &= ~bit;
+                } else {
+                    masks[0] |= bit;
+                }
+                masks[1] = Boolean.TRUE.equals(attendance.present()) ? masks[1] | bit : masks[1] & ~bit;
+            }
+        }
+
+        private Set<Long> subjectIds() {
+            Set<Long> ids = new HashSet<>();
+            grades.keySet().forEach(key -> ids.add(key.subjectId()));
+            months.keySet().forEach(key -> ids.add(key.subjectId()));
+            return ids;
+        }
+    }
+
+    /**
+     * Appends the seed events to the journal a batch at a time.
+     */
+    private static final class Appender implements Consumer<ChangeEvent> {
+        private final ChangeJournal journal;
+        private final List<ChangeEvent> pending = new ArrayList<>(BATCH_SIZE);
+        private long written;
+        private long end;
+
+        private Appender(ChangeJournal journal) {
+            this.journal = journal;
+        }
+
+        @Override
+        public void accept(ChangeEvent event) {
+            pending.add(event);
+            if (pending.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!pending.isEmpty()) {
+                end = journal.append(SEED_ACTOR, pending);
+                written += pending.size();
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * Replaces students, grades, attendance and summaries with what the
+     * journal says they are.
+     *
+     * @throws IllegalStateException if journaling is off, the journal is
+     *         empty, or it refers to subjects that do not exist
+     */
+    public Result rebuild() {
+        ChangeJournal journal = requireJournal();
+        long start = System.nanoTime();
+        Projection projection = new Projection();
+        // The same pass indexes the grades' history for GradeDAO.findHistory
+        GradeHistory.of(journal).replay(projection);
+        if (projection.events == 0) {
+            throw new IllegalStateException("The change journal is empty; seed it before rebuilding from it");
+        }
+        long[] attendanceEntries = new long[1];
+        try (Connection dedicated = HibernateUtil.openDedicatedConnection();
+             UnitOfWork work = UnitOfWork.begin(dedicated)) {
+            Set<Long> missing = projection.subjectIds();
+            missing.removeAll(work.session().createQuery("SELECT s.id FROM Subject s", Long.class).list());
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("The change journal refers to unknown subjects: " + missing);
+            }
+            work.session().doWork(connection -> {
+                clear(connection);
+                insertStudents(connection, projection.students);
+                insertGrades(connection, projection.grades);
+                attendanceEntries[0] = AttendanceDAO.MONTHLY
+                    ? insertMonths(connection, projection.months)
+                    : insertRows(connection, projection.months);
+            });
+            GradebookDAO.rebuild(work.session());
+            work.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to open a connection for the rebuild: " + e.getMessage(), e);
+        }
+        AttendanceDAO.invalidateIndex();
+        StudentDAO.invalidateIndex();
+        return new Result(projection.events, projection.students.size(), projection.grades.size(),
+            attendanceEntries[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Journals the students, grades and attendance the tables hold now, as
+     * changes by {@link #SEED_ACTOR}, so a journal started over an existing
+     * database can rebuild it.
+     *
+     * @return the number of events written
+     * @throws IllegalStateException if journaling is off or the journal is not empty
+     */
+    public long seed() {
+        ChangeJournal journal = requireJournal();
+        if (!journal.isEmpty()) {
+            throw new IllegalStateException("The change journal already has events; only an empty one is seeded");
+        }
+        Appender appender = new Appender(journal);
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            scroll(session, "SELECT s.id, s.name, s.email, s.registration, s.birthDate, s.className " +
+                "FROM Student s ORDER BY s.id", row -> appender.accept(new StudentEnrolled((Long) row[0],
+                (String) row[1], (String) row[2], (String) row[3], (LocalDate) row[4], (String) row[5])));
+            scroll(session, "SELECT g.student.id, g.subject.id, g.period, g.value FROM Grade g " +
+                "ORDER BY g.subject.id, g.period, g.student.id", row -> appender.accept(
+                new GradeSet((Long) row[0], (Long) row[1], (String) row[2], (Double) row[3])));
+            if (AttendanceDAO.MONTHLY) {
+                try (ScrollableResults<AttendanceMonth> rows = session.createSelectionQuery(
+                        "FROM AttendanceMonth m ORDER BY m.subjectId, m.monthStart, m.studentId", AttendanceMonth.class)
+                        .setFetchSize(GradeDAO.EXPORT_FETCH_SIZE)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (rows.next()) {
+                        AttendanceMonth month = rows.get();
+                        for (int day = 1; day <= month.getMonthStart().lengthOfMonth(); day++) {
+                            if (month.isRecorded(day)) {
+                                appender.accept(new AttendanceMarked(month.getStudentId(), month.getSubjectId(),
+                                    month.getMonthStart().withDayOfMonth(day), month.isPresent(day)));
+                            }
+                        }
+                    }
+                }
+            } else {
+                scroll(session, "SELECT a.student.id, a.subject.id, a.date, a.present FROM Attendance a " +
+                    "ORDER BY a.subject.id, a.date, a.student.id", row -> appender.accept(
+                    new AttendanceMarked((Long) row[0], (Long) row[1], (LocalDate) row[2], (Boolean) row[3])));
+            }
+        }
+        appender.flush();
+        journal.sync(appender.end);
+        return appender.written;
+    }
+
+    /**
+     * {@link #seed}s the journal if journaling is on and it is still empty,
+     * e.g. on the first start with journaling over an existing database.
+     *
+     * @return the number of events written
+     */
+    public long seedIfEmpty() {
+        ChangeJournal journal = ChangeJournal.shared();
+        return journal != null && journal.isEmpty() ? seed() : 0;
+    }
+
+    private static ChangeJournal requireJournal() {
+        ChangeJournal journal = ChangeJournal.shared();
+        if (journal == null) {
+            throw new IllegalStateException("Journaling is off; set " + ChangeJournal.DIR_PROPERTY);
+        }
+        return journal;
+    }
+
+    private static void scroll(StatelessSession session, String hql, Consumer<Object[]> consumer) {
+        try (ScrollableResults<Object[]> rows = session.createSelectionQuery(hql, Object[].class)
+                .setFetchSize(GradeDAO.EXPORT_FETCH_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                consumer.accept(rows.get());
+            }
+        }
+    }
+
+    private static void clear(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // DELETE rather than TRUNCATE, which would commit: a failed rebuild must
+            // leave the tables it replaces. Students last, the others refer to them
+            for (String table : List.of("student_subject_summary", "class_subject_summary",
+                    "attendance", "attendance_month", "grades", "students")) {
+                statement.executeUpdate("DELETE FROM " + table);
+            }
+        }
+    }
+
+    /**
+     * Takes {@code count} ids from {@code sequence} in one go, instead of a
+     * sequence call per row: the ones after its next value, past which the
+     * sequence then restarts. Ids Hibernate holds already all lie below them.
+     *
+     * @return the first of the ids
+     */
+    private static long reserveIds(Connection connection, String sequence, long count) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet next = statement.executeQuery("SELECT NEXT VALUE FOR " + sequence)) {
+            next.next();
+            long first = next.getLong(1) + 1;
+            statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (first + count + ID_ALLOCATION));
+            return first;
+        }
+    }
+
+    private static void insertStudents(Connection connection, Map<Long, StudentEnrolled> students)
+            throws SQLException {
+        List<StudentEnrolled> ordered = new ArrayList<>(students.values());
+        ordered.sort(Comparator.comparingLong(StudentEnrolled::studentId));
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO students (id, name, email, registration, birthDate, className) " +
+                "VALUES (?, ?, ?, ?, ?, ?)")) {
+            int count = 0;
+            for (StudentEnrolled student : ordered) {
+                insert.setLong(1, student.studentId());
+                insert.setString(2, student.name());
+                insert.setString(3, student.email());
+                insert.setString(4, student.registration());
+                insert.setDate(5, Date.valueOf(student.birthDate()));
+                insert.setString(6, student.className());
+                insert.addBatch();
+                if (++count % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        if (!ordered.isEmpty()) {
+            // Ids come from the journal: on a fresh database the sequence must move past them
+            long maxId = ordered.get(ordered.size() - 1).studentId();
+            try (Statement statement = connection.createStatement();
+                 ResultSet next = statement.executeQuery("SELECT NEXT VALUE FOR students_seq")) {
+                next.next();
+                if (next.getLong(1) <= maxId) {
+                    statement.execute("ALTER SEQUENCE students_seq RESTART WITH " + (maxId + ID_ALLOCATION));
+                }
+            }
+        }
+    }
+
+    private static void insertGrades(Connection connection, Map<GradeKey, Double> grades) throws SQLException {
+        List<GradeKey> ordered = new ArrayList<>(grades.keySet());
+        ordered.sort(GRADE_ORDER);
+        long id = reserveIds(connection, "grades_seq", ordered.size());
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO grades (id, student_id, subject_id, grade_value, period) VALUES (?, ?, ?, ?, ?)")) {
+            int count = 0;
+            for (GradeKey key : ordered) {
+                insert.setLong(1, id++);
+                insert.setLong(2, key.studentId());
+                insert.setLong(3, key.subjectId());
+                insert.setDouble(4, grades.get(key));
+                insert.setString(5, key.period());
+                insert.addBatch();
+                if (++count % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static long insertMonths(Connection connection, Map<MonthKey, int[]> months) throws SQLException {
+        List<MonthKey> ordered = new ArrayList<>(months.keySet());
+        ordered.sort(MONTH_ORDER);
+        long entries = 0;
+        long id = reserveIds(connection, "attendance_month_seq", ordered.size());
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO attendance_month (id, student_id, subject_id, month_start, recorded_days, present_days) " +
+                "VALUES (?, ?, ?, ?, ?, ?)")) {
+            int count = 0;
+            for (MonthKey key : ordered) {
+                int[] masks = months.get(key);
+                if (masks[0] == 0) {
+                    continue;
+                }
+                insert.setLong(1, id++);
+                insert.setLong(2, key.studentId());
+                insert.setLong(3, key.subjectId());
+                insert.setDate(4, Date.valueOf(key.monthStart()));
+                insert.setInt(5, masks[0]);
+                insert.setInt(6, masks[1]);
+                insert.addBatch();
+                entries += Integer.bitCount(masks[0]);
+                if (++count % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        return entries;
+    }
+
+    /**
+     * Expands the month bitmasks into one row per entry, a subject and month
+     * at a time, day by day, so rows go in the order of the unique index.
+     */
+    private static long insertRows(Connection connection, Map<MonthKey, int[]> months) throws SQLException {
+        List<MonthKey> ordered = new ArrayList<>(months.keySet());
+        ordered.sort(MONTH_ORDER);
+        long entries = 0;
+        for (int[] masks : months.values()) {
+            entries += Integer.bitCount(masks[0]);
+        }
+        long id = reserveIds(connection, "attendance_seq", entries);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO attendance (id, student_id, subject_id, date, present) VALUES (?, ?, ?, ?, ?)")) {
+            int count = 0;
+            for (int first = 0, last; first < ordered.size(); first = last) {
+                MonthKey month = ordered.get(first);
+                last = first;
+                while (last < ordered.size() && ordered.get(last).subjectId() == month.subjectId()
+                        && ordered.get(last).monthStart().equals(month.monthStart())) {
+                    last++;
+                }
+                for (int day = 1; day <= month.monthStart().lengthOfMonth(); day++) {
+                    Date date = Date.valueOf(month.monthStart().withDayOfMonth(day));
+                    int bit = 1 << (day - 1);
+                    for (int i = first; i < last; i++) {
+                        int[] masks = months.get(ordered.get(i));
+                        if ((masks[0] & bit) == 0) {
+                            continue;
+                        }
+                        insert.setLong(1, id++);
+                        insert.setLong(2, ordered.get(i).studentId());
+                        insert.setLong(3, month.subjectId());
+                        insert.setDate(4, date);
+                        insert.setBoolean(5, (masks[1] & bit) != 0);
+                        insert.addBatch();
+                        if (++count % BATCH_SIZE == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+        return entries;
+    }
+}
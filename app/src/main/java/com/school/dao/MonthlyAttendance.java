@@ -0,0 +1,251 @@
+package com.school.dao;
+
+import com.school.analytics.AttendanceIndex;
+import com.school.dto.AttendanceExportRow;
+import com.school.model.Attendance;
+import com.school.model.AttendanceMonth;
+import com.school.model.Student;
+import com.school.model.Subject;
+import com.school.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Attendance stored as one {@link AttendanceMonth} of day bitmasks per
+ * student, subject and month instead of one row per roll-call entry: a
+ * school year of daily roll calls takes ten rows per student and subject
+ * instead of two hundred.
+ * <p>
+ * Entries saved in a unit of work are collected here and merged into their
+ * month rows just before it commits, one subject and month at a time: the
+ * rows are read with a single query, the bits set in memory, and only the
+ * rows that changed are written, in JDBC batches.
+ */
+final class MonthlyAttendance {
+    private record Month(Long subjectId, LocalDate monthStart) {
+    }
+
+    private final UnitOfWork work;
+    private final Consumer<Attendance> onChanged;
+    private final Map<Month, List<Attendance>> pending = new LinkedHashMap<>();
+
+    private MonthlyAttendance(UnitOfWork work, Consumer<Attendance> onChanged) {
+        this.work = work;
+        this.onChanged = onChanged;
+    }
+
+    /**
+     * The entries pending in {@code work}, merged when it commits.
+     *
+     * @param onChanged called while merging for each entry that changed something
+     */
+    static MonthlyAttendance of(UnitOfWork work, Consumer<Attendance> onChanged) {
+        return work.local(MonthlyAttendance.class, () -> {
+            MonthlyAttendance monthly = new MonthlyAttendance(work, onChanged);
+            work.beforeCommit(monthly::apply);
+            return monthly;
+        });
+    }
+
+    /**
+     * Records {@code attendance} over whatever was recorded for the same
+     * student, subject and day; a later entry for the same day wins.
+     */
+    void add(Attendance attendance) {
+        LocalDate date = attendance.getDate();
+        pending.computeIfAbsent(new Month(attendance.getSubject().getId(), date.withDayOfMonth(1)),
+            month -> new ArrayList<>()).add(attendance);
+    }
+
+    /**
+     * Merges the pending entries into their month rows now.
+     *
+     * @return the number of entries that changed something
+     */
+    int apply() {
+        int changed = 0;
+        for (Map.Entry<Month, List<Attendance>> entry : pending.entrySet()) {
+            Month month = entry.getKey();
+            List<Long> studentIds = entry.getValue().stream().map(a -> a.getStudent().getId()).distinct().toList();
+            Session session = work.session();
+            Map<Long, AttendanceMonth> rows = new HashMap<>();
+            for (AttendanceMonth row : session.createSelectionQuery(
+                    "FROM AttendanceMonth m " +
+                    "WHERE m.subjectId = :subjectId AND m.monthStart = :monthStart AND m.studentId IN :studentIds",
+                    AttendanceMonth.class)
+                    .setParameter("subjectId", month.subjectId())
+                    .setParameter("monthStart", month.monthStart())
+                    .setParameterList("studentIds", studentIds)
+                    .list()) {
+                rows.put(row.getStudentId(), row);
+            }
+            List<AttendanceMonth> added = new ArrayList<>();
+            for (Attendance attendance : entry.getValue()) {
+                AttendanceMonth row = rows.computeIfAbsent(attendance.getStudent().getId(), studentId -> {
+                    AttendanceMonth created = new AttendanceMonth();
+                    created.setStudentId(studentId);
+                    created.setSubjectId(month.subjectId());
+                    created.setMonthStart(month.monthStart());
+                    added.add(created);
+                    return created;
+                });
+                if (row.mark(attendance.getDate().getDayOfMonth(), attendance.getPresent())) {
+                    changed++;
+                    onChanged.accept(attendance);
+                }
+            }
+            // Persisted once all their bits are set, so each is inserted without a follow-up update
+            added.forEach(session::persist);
+            // Detaching only the month rows read here keeps memory flat over many
+            // months and leaves the caller's entities managed
+            session.flush();
+            rows.values().forEach(session::detach);
+        }
+        pending.clear();
+        return changed;
+    }
+
+    /**
+     * Clears the student's {@code date} in its month row now, after merging
+     * the entries still pending so one saved earlier in the unit is cleared
+     * too. A row left with no day recorded is deleted.
+     *
+     * @return false if nothing was recorded for that day
+     */
+    boolean remove(Long studentId, Long subjectId, LocalDate date) {
+        apply();
+        Session session = work.session();
+        AttendanceMonth row = session.createSelectionQuery(
+                "FROM AttendanceMonth m " +
+                "WHERE m.subjectId = :subjectId AND m.monthStart = :monthStart AND m.studentId = :studentId",
+                AttendanceMonth.class)
+            .setParameter("subjectId", subjectId)
+            .setParameter("monthStart", date.withDayOfMonth(1))
+            .setParameter("studentId", studentId)
+            .uniqueResult();
+        if (row == null || !row.unmark(date.getDayOfMonth())) {
+            return false;
+        }
+        if (row.getRecordedDays() == 0) {
+            session.remove(row);
+            session.flush();
+        } else {
+            session.flush();
+            session.detach(row);
+        }
+        return true;
+    }
+
+    static List<Attendance> findBySubjectAndDate(Long subjectId, LocalDate date) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Subject subject = session.get(Subject.class, subjectId);
+            List<Attendance> roll = new ArrayList<>();
+            for (Object[] row : session.createSelectionQuery(
+                    "SELECT m, st FROM AttendanceMonth m, Student st " +
+                    "WHERE st.id = m.studentId AND m.subjectId = :subjectId AND m.monthStart = :monthStart",
+                    Object[].class)
+                    .setParameter("subjectId", subjectId)
+                    .setParameter("monthStart", date.withDayOfMonth(1))
+                    .list()) {
+                AttendanceMonth month = (AttendanceMonth) row[0];
+                if (month.isRecorded(date.getDayOfMonth())) {
+                    Attendance attendance = new Attendance();
+                    attendance.setStudent((Student) row[1]);
+                    attendance.setSubject(subject);
+                    attendance.setDate(date);
+                    attendance.setPresent(month.isPresent(date.getDayOfMonth()));
+                    roll.add(attendance);
+                }
+            }
+            return roll;
+        }
+    }
+
+    /**
+     * Same rows and order as the row-per-entry export. Each subject's months
+     * are read in order from the unique index and expanded a month at a
+     * time, so memory holds one month of one subject.
+     */
+    static void forEachExportRow(Long subjectId, LocalDate from, LocalDate to, Consumer<AttendanceExportRow> consumer) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            List<Object[]> subjects = session.createSelectionQuery(
+                "SELECT s.id, s.name FROM Subject s WHERE (:subjectId IS NULL OR s.id = :subjectId) ORDER BY s.id",
+                Object[].class)
+                .setParameter("subjectId", subjectId)
+                .list();
+            for (Object[] subject : subjects) {
+                try (ScrollableResults<Object[]> rows = session.createSelectionQuery(
+                        "SELECT m.monthStart, m.recordedDays, m.presentDays, st.registration, st.name, st.className " +
+                        "FROM AttendanceMonth m, Student st " +
+                        "WHERE st.id = m.studentId AND m.subjectId = :subjectId " +
+                        "AND m.monthStart BETWEEN :fromMonth AND :toMonth " +
+                        "ORDER BY m.subjectId, m.monthStart, m.studentId",
+                        Object[].class)
+                        .setParameter("subjectId", subject[0])
+                        .setParameter("fromMonth", from.withDayOfMonth(1))
+                        .setParameter("toMonth", to.withDayOfMonth(1))
+                        .setFetchSize(GradeDAO.EXPORT_FETCH_SIZE)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+                    List<Object[]> month = new ArrayList<>();
+                    while (rows.next()) {
+                        Object[] row = rows.get();
+                        if (!month.isEmpty() && !month.get(0)[0].equals(row[0])) {
+                            expand(month, (String) subject[1], from, to, consumer);
+                            month.clear();
+                        }
+                        month.add(row);
+                    }
+                    expand(month, (String) subject[1], from, to, consumer);
+                }
+            }
+        }
+    }
+
+    private static void expand(List<Object[]> month, String subject, LocalDate from, LocalDate to,
+                               Consumer<AttendanceExportRow> consumer) {
+        if (month.isEmpty()) {
+            return;
+        }
+        LocalDate monthStart = (LocalDate) month.get(0)[0];
+        for (int day = 1; day <= monthStart.lengthOfMonth(); day++) {
+            LocalDate date = monthStart.withDayOfMonth(day);
+            if (date.isBefore(from) || date.isAfter(to)) {
+                continue;
+            }
+            int bit = 1 << (day - 1);
+            for (Object[] row : month) {
+                if (((Integer) row[1] & bit) != 0) {
+                    consumer.accept(new AttendanceExportRow(date, (String) row[3], (String) row[4],
+                        (String) row[5], subject, ((Integer) row[2] & bit) != 0));
+                }
+            }
+        }
+    }
+
+    static void loadPresence(AttendanceIndex index) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+             ScrollableResults<AttendanceMonth> rows = session.createSelectionQuery(
+                 "FROM AttendanceMonth m", AttendanceMonth.class)
+                 .setFetchSize(GradeDAO.EXPORT_FETCH_SIZE)
+                 .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                AttendanceMonth month = rows.get();
+                for (int day = 1; day <= month.getMonthStart().lengthOfMonth(); day++) {
+                    if (month.isRecorded(day)) {
+                        index.record(month.getStudentId(), month.getSubjectId(),
+                            month.getMonthStart().withDayOfMonth(day), month.isPresent(day));
+                    }
+                }
+            }
+        }
+    }
+}
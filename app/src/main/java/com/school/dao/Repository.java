@@ -0,0 +1,79 @@
+package com.school.dao;
+
+import com.school.metrics.DaoMetrics;
+import com.school.model.Versioned;
+import java.util.Collection;
+
+/**
+ * Writes shared by the DAOs. The methods without a {@link UnitOfWork} run in a
+ * transaction of their own; the overloads taking one join the caller's, so
+ * many saves, updates and deletes can be committed together. Lookups and
+ * deletes by id are in {@link IdRepository}: an attendance entry stored in a
+ * month row has no id of its own.
+ */
+public abstract class Repository<T> {
+    public void save(T entity) {
+        try (DaoMetrics.Scope scope = operation("save")) {
+            UnitOfWork.run(work -> save(work, entity));
+        }
+    }
+
+    public void save(UnitOfWork work, T entity) {
+        work.session().persist(entity);
+        work.afterCommit(() -> onSaved(entity));
+    }
+
+    /**
+     * Inserts all {@code entities} in one transaction, flushing a JDBC batch
+     * at a time. The entities are detached once saved.
+     */
+    public void saveAll(Collection<? extends T> entities) {
+        try (DaoMetrics.Scope scope = operation("saveAll")) {
+            UnitOfWork.run(work -> {
+                int count = 0;
+                for (T entity : entities) {
+                    save(work, entity);
+                    if (++count % UnitOfWork.BATCH_SIZE == 0) {
+                        work.flushAndClear();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes back an entity read earlier.
+     *
+     * @throws ConcurrentEditException if it was changed or deleted since it was read
+     */
+    public void update(T entity) {
+        try (DaoMetrics.Scope scope = operation("update")) {
+            UnitOfWork.run(work -> update(work, entity));
+        }
+    }
+
+    public void update(UnitOfWork work, T entity) {
+        T saved = work.session().merge(entity);
+        work.afterCommit(() -> {
+            // The caller goes on with its own copy, which must carry the version just written
+            if (entity instanceof Versioned versioned) {
+                versioned.setVersion(((Versioned) saved).getVersion());
+            }
+            onSaved(entity);
+        });
+    }
+
+    /**
+     * Names the sessions opened until the scope closes after {@code method} of
+     * the concrete DAO, sparing {@link DaoMetrics} a stack walk on hot paths.
+     */
+    protected DaoMetrics.Scope operation(String method) {
+        return DaoMetrics.operation(getClass().getSimpleName() + "." + method);
+    }
+
+    /**
+     * Called after the commit that saved or updated {@code entity}.
+     */
+    protected void onSaved(T entity) {
+    }
+}
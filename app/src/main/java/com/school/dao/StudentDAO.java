@@ -0,0 +1,266 @@
+package com.school.dao;
+
+import com.school.dto.StudentRow;
+import com.school.metrics.DaoMetrics;
+import com.school.model.Student;
+import com.school.roster.Roster;
+import com.school.roster.RosterStore;
+import com.school.search.TextIndex;
+import com.school.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class StudentDAO extends IdRepository<Student> {
+    // List screens read projections through a stateless session: no managed
+    // entities, no persistence context and no grade/attendance collections
+    private static final String ROW_SELECT =
+        "SELECT new com.school.dto.StudentRow(s.id, s.name, s.registration, s.email, s.birthDate, s.className) " +
+        "FROM Student s ";
+    private static final TextIndex SEARCH_INDEX = new TextIndex(StudentDAO::loadSearchIndex);
+    private static final RosterStore ROSTER = new RosterStore(StudentDAO::loadRoster);
+
+    public StudentDAO() {
+        super(Student.class);
+    }
+
+    @Override
+    protected void onSaved(Student student) {
+        SEARCH_INDEX.put(student.getId(), student.getName(), student.getEmail(), student.getRegistration());
+        ROSTER.put(student.getId(), student.getRegistration(), student.getName(), student.getClassName());
+    }
+
+    @Override
+    public void save(UnitOfWork work, Student student) {
+        super.save(work, student);
+        ChangeLog.of(work).enrolled(student);
+    }
+
+    @Override
+    public void update(UnitOfWork work, Student student) {
+        String oldClassName = work.session().createQuery(
+            "SELECT s.className FROM Student s WHERE s.id = :id", String.class)
+            .setParameter("id", student.getId())
+            .uniqueResult();
+        if (oldClassName != null && !oldClassName.equals(student.getClassName())) {
+            // Their grades now count towards another class's summaries
+            GradebookDelta.of(work).studentMoved(student.getId(), oldClassName);
+        }
+        ChangeLog.of(work).enrolled(student);
+        super.update(work, student);
+    }
+
+    @Override
+    public void delete(UnitOfWork work, Long id) {
+        if (work.session().get(Student.class, id) != null) {
+            ChangeLog.of(work).withdrawn(id);
+        }
+        super.delete(work, id);
+    }
+
+    @Override
+    protected void onDeleted(Long id) {
+        SEARCH_INDEX.remove(id);
+        ROSTER.remove(id);
+    }
+
+    /**
+     * Drops the search index and the rosters after writes that bypassed this
+     * DAO; the next search or roster lookup reloads them.
+     */
+    static void invalidateIndex() {
+        SEARCH_INDEX.invalidate();
+        ROSTER.invalidate();
+    }
+
+    public long count() {
+        try (DaoMetrics.Scope scope = operation("count");
+             Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("SELECT COUNT(s) FROM Student s", Long.class)
+                .uniqueResult();
+        }
+    }
+
+    /**
+     * Keyset page: the {@code limit} students following {@code afterId} in id order.
+     */
+    public List<StudentRow> findPage(Long afterId, int limit) {
+        try (DaoMetrics.Scope scope = operation("findPage");
+             StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            return session.createQuery(
+                ROW_SELECT + "WHERE s.id > :afterId ORDER BY s.id",
+                StudentRow.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .list();
+        }
+    }
+
+    /**
+     * Offset page in id order, for jumping to a page whose predecessor is unknown.
+     */
+    public List<StudentRow> findPageAt(long offset, int limit) {
+        try (DaoMetrics.Scope scope = operation("findPageAt");
+             StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            return session.createQuery(ROW_SELECT + "ORDER BY s.id", StudentRow.class)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .list();
+        }
+    }
+
+    public List<Student> findAll() {
+        try (DaoMetrics.Scope scope = operation("findAll");
+             Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("FROM Student", Student.class).list();
+        }
+    }
+
+    /**
+     * Names of the classes with students, in order.
+     */
+    public List<String> findClassNames() {
+        try (DaoMetrics.Scope scope = operation("findClassNames");
+             Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "SELECT DISTINCT s.className FROM Student s ORDER BY s.className", String.class)
+                .list();
+        }
+    }
+
+    public Student findByRegistration(String registration) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "FROM Student s WHERE s.registration = :registration",
+                Student.class)
+                .setParameter("registration", registration)
+                .uniqueResult();
+        }
+    }
+
+    public List<Student> findByRegistrations(Collection<String> registrations) {
+        if (registrations.isEmpty()) {
+            return List.of();
+        }
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "FROM Student s WHERE s.registration IN :registrations",
+                Student.class)
+                .setParameterList("registrations", registrations)
+                .list();
+        }
+    }
+
+    /**
+     * Ids of the students matching {@code query}, best match first. Served from
+     * the in-memory {@link TextIndex}, not the database.
+     */
+    public List<Long> searchIds(String query) {
+        return SEARCH_INDEX.search(query);
+    }
+
+    /**
+     * Builds the search index ahead of the first search, e.g. from a background thread.
+     */
+    public void preloadSearchIndex() {
+        SEARCH_INDEX.load();
+    }
+
+    /**
+     * Table rows for {@code ids}, in the same order.
+     */
+    public List<StudentRow> findRows(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        try (DaoMetrics.Scope scope = operation("findRows");
+             StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            Map<Long, StudentRow> rowsById = new HashMap<>();
+            for (StudentRow row : session.createQuery(
+                    ROW_SELECT + "WHERE s.id IN :ids",
+                    StudentRow.class)
+                    .setParameterList("ids", ids)
+                    .list()) {
+                rowsById.put(row.id(), row);
+            }
+            return ids.stream().map(rowsById::get).filter(Objects::nonNull).toList();
+        }
+    }
+
+    /**
+     * The students of {@code className} in roll-call order, from the resident
+     * {@link RosterStore} rather than the database.
+     */
+    public Roster findRoster(String className) {
+        return ROSTER.roster(className);
+    }
+
+    /**
+     * The students of each of {@code classNames}, by class and then in
+     * roll-call order, from the resident {@link RosterStore}.
+     */
+    public Roster findRoster(Collection<String> classNames) {
+        return ROSTER.roster(classNames);
+    }
+
+    /**
+     * Every student, by class and then in roll-call order, from the resident
+     * {@link RosterStore}.
+     */
+    public Roster findRoster() {
+        return ROSTER.roster();
+    }
+
+    /**
+     * Receives the unique keys of every student, see {@link #forEachKey}.
+     */
+    public interface KeyConsumer {
+        void accept(Long id, String email, String registration);
+    }
+
+    /**
+     * Streams the id, email and registration of every student without loading
+     * the entities, e.g. to validate a bulk import before it hits the database.
+     */
+    public void forEachKey(KeyConsumer consumer) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+             ScrollableResults<Object[]> rows = session.createQuery(
+                 "SELECT s.id, s.email, s.registration FROM Student s", Object[].class)
+                 .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                consumer.accept((Long) row[0], (String) row[1], (String) row[2]);
+            }
+        }
+    }
+
+    private static void loadSearchIndex(TextIndex index) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+             ScrollableResults<Object[]> rows = session.createQuery(
+                 "SELECT s.id, s.name, s.email, s.registration FROM Student s", Object[].class)
+                 .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                index.put((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+            }
+        }
+    }
+
+    private static void loadRoster(RosterStore roster) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+             ScrollableResults<Object[]> rows = session.createQuery(
+                 "SELECT s.id, s.registration, s.name, s.className FROM Student s", Object[].class)
+                 .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                roster.put((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+            }
+        }
+    }
+}
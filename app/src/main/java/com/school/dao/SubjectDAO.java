@@ -0,0 +1,154 @@
+package com.school.dao;
+
+import com.school.dto.SubjectRow;
+import com.school.metrics.DaoMetrics;
+import com.school.model.Subject;
+import com.school.model.Teacher;
+import com.school.search.TextIndex;
+import com.school.util.HibernateUtil;
+import org.hibernate.Cache;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class SubjectDAO extends IdRepository<Subject> {
+    private static final String ROW_SELECT =
+        "SELECT new com.school.dto.SubjectRow(s.id, s.name, s.workload) FROM Subject s ";
+    private static final TextIndex SEARCH_INDEX = new TextIndex(SubjectDAO::loadSearchIndex);
+
+    public SubjectDAO() {
+        super(Subject.class);
+    }
+
+    @Override
+    protected void onSaved(Subject subject) {
+        SEARCH_INDEX.put(subject.getId(), subject.getName());
+        evictCachedLists();
+    }
+
+    @Override
+    protected void onDeleted(Long id) {
+        SEARCH_INDEX.remove(id);
+        evictCachedLists();
+    }
+
+    public long count() {
+        try (DaoMetrics.Scope scope = operation("count");
+             Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("SELECT COUNT(s) FROM Subject s", Long.class)
+                .uniqueResult();
+        }
+    }
+
+    /**
+     * Keyset page: the {@code limit} subjects following {@code afterId} in id order.
+     */
+    public List<SubjectRow> findPage(Long afterId, int limit) {
+        try (DaoMetrics.Scope scope = operation("findPage");
+             StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            return session.createQuery(
+                ROW_SELECT + "WHERE s.id > :afterId ORDER BY s.id",
+                SubjectRow.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .list();
+        }
+    }
+
+    /**
+     * Offset page in id order, for jumping to a page whose predecessor is unknown.
+     */
+    public List<SubjectRow> findPageAt(long offset, int limit) {
+        try (DaoMetrics.Scope scope = operation("findPageAt");
+             StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            return session.createQuery(ROW_SELECT + "ORDER BY s.id", SubjectRow.class)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .list();
+        }
+    }
+
+    public List<Subject> findAll() {
+        try (DaoMetrics.Scope scope = operation("findAll");
+             Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("FROM Subject s JOIN FETCH s.teacher", Subject.class)
+                .setCacheable(true)
+                .list();
+        }
+    }
+
+    public List<Subject> findByTeacher(Long teacherId) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "FROM Subject s JOIN FETCH s.teacher WHERE s.teacher.id = :teacherId",
+                Subject.class)
+                .setParameter("teacherId", teacherId)
+                .setCacheable(true)
+                .list();
+        }
+    }
+
+    /**
+     * Ids of the subjects matching {@code query}, best match first. Served from
+     * the in-memory {@link TextIndex}, not the database.
+     */
+    public List<Long> searchIds(String query) {
+        return SEARCH_INDEX.search(query);
+    }
+
+    /**
+     * Builds the search index ahead of the first search, e.g. from a background thread.
+     */
+    public void preloadSearchIndex() {
+        SEARCH_INDEX.load();
+    }
+
+    /**
+     * Table rows for {@code ids}, in the same order.
+     */
+    public List<SubjectRow> findRows(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        try (DaoMetrics.Scope scope = operation("findRows");
+             StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            Map<Long, SubjectRow> rowsById = new HashMap<>();
+            for (SubjectRow row : session.createQuery(
+                    ROW_SELECT + "WHERE s.id IN :ids",
+                    SubjectRow.class)
+                    .setParameterList("ids", ids)
+                    .list()) {
+                rowsById.put(row.id(), row);
+            }
+            return ids.stream().map(rowsById::get).filter(Objects::nonNull).toList();
+        }
+    }
+
+    /**
+     * Drops cached subject lists after a write. Cached Subject entities are kept
+     * current by Hibernate, but Teacher.subjects is the inverse side of the
+     * association and is not evicted when a subject changes.
+     */
+    private static void evictCachedLists() {
+        Cache cache = HibernateUtil.getSessionFactory().getCache();
+        cache.evictCollectionData(Teacher.class.getName() + ".subjects");
+        cache.evictDefaultQueryRegion();
+    }
+
+    private static void loadSearchIndex(TextIndex index) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+             ScrollableResults<Object[]> rows = session.createQuery(
+                 "SELECT s.id, s.name FROM Subject s", Object[].class)
+                 .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                index.put((Long) row[0], (String) row[1]);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.school.dao;
+
+import com.school.dto.TeacherRow;
+import com.school.metrics.DaoMetrics;
+import com.school.model.Teacher;
+import com.school.search.TextIndex;
+import com.school.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class TeacherDAO extends IdRepository<Teacher> {
+    // The subject names are aggregated in SQL, one row per teacher, so a page
+    // of teachers is a single query over plain columns
+    private static final String ROW_SELECT =
+        "SELECT new com.school.dto.TeacherRow(t.id, t.name, t.email, t.department, " +
+        "LISTAGG(s.name, ', ') WITHIN GROUP (ORDER BY s.name)) " +
+        "FROM Teacher t LEFT JOIN t.subjects s ";
+    private static final String ROW_GROUP = "GROUP BY t.id, t.name, t.email, t.department ";
+    private static final TextIndex SEARCH_INDEX = new TextIndex(TeacherDAO::loadSearchIndex);
+
+    public TeacherDAO() {
+        super(Teacher.class);
+    }
+
+    @Override
+    protected void onSaved(Teacher teacher) {
+        SEARCH_INDEX.put(teacher.getId(), teacher.getName(), teacher.getEmail(), teacher.getDepartment());
+    }
+
+    @Override
+    protected void onDeleted(Long id) {
+        SEARCH_INDEX.remove(id);
+    }
+
+    public long count() {
+        try (DaoMetrics.Scope scope = operation("count");
+             Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("SELECT COUNT(t) FROM Teacher t", Long.class)
+                .uniqueResult();
+        }
+    }
+
+    /**
+     * Keyset page: the {@code limit} teachers following {@code afterId} in id order.
+     */
+    public List<TeacherRow> findPage(Long afterId, int limit) {
+        try (DaoMetrics.Scope scope = operation("findPage");
+             StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            return session.createQuery(
+                ROW_SELECT + "WHERE t.id > :afterId " + ROW_GROUP + "ORDER BY t.id",
+                TeacherRow.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .list();
+        }
+    }
+
+    /**
+     * Offset page in id order, for jumping to a page whose predecessor is unknown.
+     */
+    public List<TeacherRow> findPageAt(long offset, int limit) {
+        try (DaoMetrics.Scope scope = operation("findPageAt");
+             StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            return session.createQuery(ROW_SELECT + ROW_GROUP + "ORDER BY t.id", TeacherRow.class)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .list();
+        }
+    }
+
+    public List<Teacher> findAll() {
+        try (DaoMetrics.Scope scope = operation("findAll");
+             Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("FROM Teacher t LEFT JOIN FETCH t.subjects", Teacher.class)
+                .setCacheable(true)
+                .list();
+        }
+    }
+
+    /**
+     * Ids of the teachers matching {@code query}, best match first. Served from
+     * the in-memory {@link TextIndex}, not the database.
+     */
+    public List<Long> searchIds(String query) {
+        return SEARCH_INDEX.search(query);
+    }
+
+    /**
+     * Builds the search index ahead of the first search, e.g. from a background thread.
+     */
+    public void preloadSearchIndex() {
+        SEARCH_INDEX.load();
+    }
+
+    /**
+     * Table rows for {@code ids}, in the same order.
+     */
+    public List<TeacherRow> findRows(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        try (DaoMetrics.Scope scope = operation("findRows");
+             StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            Map<Long, TeacherRow> rowsById = new HashMap<>();
+            for (TeacherRow row : session.createQuery(
+                    ROW_SELECT + "WHERE t.id IN :ids " + ROW_GROUP,
+                    TeacherRow.class)
+                    .setParameterList("ids", ids)
+                    .list()) {
+                rowsById.put(row.id(), row);
+            }
+            return ids.stream().map(rowsById::get).filter(Objects::nonNull).toList();
+        }
+    }
+
+    private static void loadSearchIndex(TextIndex index) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+             ScrollableResults<Object[]> rows = session.createQuery(
+                 "SELECT t.id, t.name, t.email, t.department FROM Teacher t", Object[].class)
+                 .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                index.put((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.school.dao;
+
+import com.school.util.HibernateUtil;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.Session;
+import org.hibernate.StaleStateException;
+import org.hibernate.Transaction;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.LockAcquisitionException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * One session and one transaction shared by any number of repository writes,
+ * so a whole grade sheet or roster is flushed in JDBC batches and committed
+ * once:
+ * <pre>
+ * try (UnitOfWork work = UnitOfWork.begin()) {
+ *     grades.forEach(grade -&gt; gradeDAO.save(work, grade));
+ *     work.commit();
+ * }
+ * </pre>
+ * Closing without committing rolls everything back. Not thread-safe.
+ */
+public final class UnitOfWork implements AutoCloseable {
+    // Must match hibernate.jdbc.batch_size so each flush sends full batches
+    static final int BATCH_SIZE = 50;
+    private static final int MERGE_ATTEMPTS = 10;
+    // SQLSTATE of a unique key violation
+    static final String DUPLICATE_KEY = "23505";
+
+    private final Session session;
+    private final Transaction transaction;
+    private final List<Runnable> beforeCommit = new ArrayList<>();
+    private final List<Runnable> afterFlush = new ArrayList<>();
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private final Map<Object, Object> locals = new HashMap<>();
+    private boolean committed;
+
+    private UnitOfWork(Session session) {
+        this.session = session;
+        this.transaction = session.beginTransaction();
+    }
+
+    public static UnitOfWork begin() {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            return new UnitOfWork(session);
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs {@code work} in a new unit and commits it, or rolls back if it throws.
+     */
+    public static void run(Consumer<UnitOfWork> work) {
+        call(unit -> {
+            work.accept(unit);
+            return null;
+        });
+    }
+
+    /**
+     * Starts a unit on {@code connection} instead of a pooled one; closing
+     * the unit leaves the connection open.
+     */
+    static UnitOfWork begin(Connection connection) {
+        Session session = HibernateUtil.getSessionFactory().withOptions().connection(connection).openSession();
+        try {
+            return new UnitOfWork(session);
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Like {@link #run}, returning what {@code work} returns.
+     *
+     * @throws ConcurrentEditException if another unit changed a row this one updates first
+     */
+    public static <R> R call(Function<UnitOfWork, R> work) {
+        try (UnitOfWork unit = begin()) {
+            R result = work.apply(unit);
+            unit.commit();
+            return result;
+        } catch (OptimisticLockException | StaleStateException e) {
+            throw new ConcurrentEditException("Changed by someone else in the meantime: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Like {@link #call}, but runs {@code work} again in a new unit when it
+     * loses a race with another unit: a row it updates was changed, or a row
+     * it inserts was inserted, since it read them, or the database rolled it
+     * back to break a deadlock with the other unit. Only for work that reads
+     * the rows it changes and merges into them, so the retry merges into the
+     * other unit's commit instead of overwriting it.
+     *
+     * @throws ConcurrentEditException if every attempt lost a race
+     */
+    public static <R> R callMerging(Function<UnitOfWork, R> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call(work);
+            } catch (ConcurrentEditException e) {
+                if (attempt == MERGE_ATTEMPTS) {
+                    throw e;
+                }
+            } catch (ConstraintViolationException e) {
+                if (!DUPLICATE_KEY.equals(e.getSQLState())) {
+                    throw e;
+                }
+                if (attempt == MERGE_ATTEMPTS) {
+                    throw new ConcurrentEditException("Inserted by someone else in the meantime: " + e.getMessage(), e);
+                }
+            } catch (LockAcquisitionException e) {
+                if (attempt == MERGE_ATTEMPTS) {
+                    throw new ConcurrentEditException("Deadlocked with someone else: " + e.getMessage(), e);
+                }
+            }
+            // Back off a random while so the units racing each other drift apart
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(attempt * 1_000_000L));
+        }
+    }
+
+    public Session session() {
+        return session;
+    }
+
+    /**
+     * Sends pending changes and detaches everything loaded so far, to keep
+     * memory flat in bulk writes. Entities saved before are not managed anymore.
+     */
+    public void flushAndClear() {
+        session.flush();
+        session.clear();
+    }
+
+    /**
+     * Runs {@code action} inside the transaction just before it commits, e.g.
+     * to write rows derived from everything saved in the unit in one go.
+     */
+    public void beforeCommit(Runnable action) {
+        beforeCommit.add(action);
+    }
+
+    /**
+     * Runs {@code action} last before the transaction commits, after every
+     * {@link #beforeCommit} action and a flush: the database has accepted all
+     * of the unit's writes by then, so only the commit itself can still fail.
+     * For recording what the unit changed outside the database.
+     */
+    public void afterFlush(Runnable action) {
+        afterFlush.add(action);
+    }
+
+    /**
+     * State a repository keeps for the lifetime of this unit, created by
+     * {@code factory} on first use.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R local(Class<R> key, Supplier<R> factory) {
+        return (R) locals.computeIfAbsent(key, k -> factory.get());
+    }
+
+    /**
+     * Runs {@code action} once the unit commits, e.g. to update an in-memory
+     * index; it never runs if the unit rolls back.
+     */
+    public void afterCommit(Runnable action) {
+        afterCommit.add(action);
+    }
+
+    /**
+     * @throws OptimisticLockException if another unit changed a row this one
+     *         updates since it was read; {@link #call} turns it into a
+     *         {@link ConcurrentEditException}
+     */
+    public void commit() {
+        beforeCommit.forEach(Runnable::run);
+        if (!afterFlush.isEmpty()) {
+            session.flush();
+            afterFlush.forEach(Runnable::run);
+        }
+        transaction.commit();
+        committed = true;
+        afterCommit.forEach(Runnable::run);
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!committed && transaction.isActive()) {
+                transaction.rollback();
+            }
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.school.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One roll-call entry as exported for the secretariat.
+ */
+public record AttendanceExportRow(LocalDate date, String registration, String studentName, String className,
+                                  String subject, Boolean present) {
+}
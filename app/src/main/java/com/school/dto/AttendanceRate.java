@@ -0,0 +1,18 @@
+package com.school.dto;
+
+/**
+ * A student's attendance in one subject over some range of days: how many
+ * roll calls there were and how many found the student present.
+ */
+public record AttendanceRate(Long studentId, Long subjectId, int present, int days) {
+    /**
+     * @return the fraction of roll calls present, 1 if there were none
+     */
+    public double rate() {
+        return days == 0 ? 1.0 : (double) present / days;
+    }
+
+    public int absences() {
+        return days - present;
+    }
+}
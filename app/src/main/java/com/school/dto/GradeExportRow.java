@@ -0,0 +1,8 @@
+package com.school.dto;
+
+/**
+ * One grade as exported for the secretariat.
+ */
+public record GradeExportRow(String registration, String studentName, String className,
+                             String subject, String period, Double value) {
+}
@@ -0,0 +1,9 @@
+package com.school.dto;
+
+/**
+ * One subject on a student's report card: the final average over the periods
+ * graded so far and whether it passes.
+ */
+public record ReportCardRow(Long subjectId, String subject, Integer gradeCount, Double average,
+                            Double minValue, Double maxValue, Boolean passed) {
+}
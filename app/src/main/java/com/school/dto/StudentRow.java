@@ -0,0 +1,10 @@
+package com.school.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One line of the students table. Read-only: edit through {@link com.school.model.Student}.
+ */
+public record StudentRow(Long id, String name, String registration, String email,
+                         LocalDate birthDate, String className) {
+}
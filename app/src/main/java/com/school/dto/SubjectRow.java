@@ -0,0 +1,7 @@
+package com.school.dto;
+
+/**
+ * One line of the subjects table. Read-only: edit through {@link com.school.model.Subject}.
+ */
+public record SubjectRow(Long id, String name, Integer workload) {
+}
@@ -0,0 +1,12 @@
+package com.school.dto;
+
+/**
+ * One line of the teachers table, with the teacher's subject names already
+ * joined into a single column. Read-only: edit through {@link com.school.model.Teacher}.
+ */
+public record TeacherRow(Long id, String name, String email, String department, String subjects) {
+    public TeacherRow {
+        // LISTAGG yields null for a teacher without subjects
+        subjects = subjects == null ? "" : subjects;
+    }
+}
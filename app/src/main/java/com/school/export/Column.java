@@ -0,0 +1,4 @@
+package com.school.export;
+
+public record Column(String name, ColumnType type) {
+}
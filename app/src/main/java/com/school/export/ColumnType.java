@@ -0,0 +1,17 @@
+package com.school.export;
+
+/**
+ * Value types an export column can hold, and the Java type each is written from.
+ */
+public enum ColumnType {
+    /** {@link String}, may be null */
+    STRING,
+    /** {@link Long} */
+    LONG,
+    /** {@link Double} */
+    DOUBLE,
+    /** {@link Boolean} */
+    BOOLEAN,
+    /** {@link java.time.LocalDate} */
+    DATE
+}
@@ -0,0 +1,401 @@
+package com.school.export;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format for analysis tools: rows are buffered into groups of
+ * {@link #GROUP_SIZE} and each group is written column by column, every column
+ * block prefixed with its length so readers can skip the ones they do not need.
+ * <pre>
+ * file   = "SCOL" version:u8 columnCount:varint (name:string type:u8)* group* 0:varint
+ * group  = rowCount:varint (blockLength:varint block)*       one block per column
+ * LONG, DATE  zigzag varint deltas from the previous row (dates as epoch days)
+ * DOUBLE      8 bytes each, big-endian
+ * BOOLEAN     bit-packed, row 0 in the lowest bit
+ * STRING      dictionarySize:varint string* then per row varint dictionary index + 1, 0 for null
+ * string = byteLength:varint UTF-8 bytes
+ * </pre>
+ * Sorted ids and dates shrink to a byte or two per row, and repeated names
+ * and periods are stored once per group.
+ */
+public final class ColumnarFormat implements ExportFormat {
+    public static final ColumnarFormat INSTANCE = new ColumnarFormat();
+    public static final int GROUP_SIZE = 8192;
+
+    private static final byte[] MAGIC = {'S', 'C', 'O', 'L'};
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ColumnarFormat() {
+    }
+
+    @Override
+    public RecordWriter open(WritableByteChannel channel, List<Column> columns) throws IOException {
+        return new Writer(channel, columns);
+    }
+
+    @Override
+    public String extension() {
+        return "scol";
+    }
+
+    /**
+     * Reads a file written in this format back, a group at a time.
+     */
+    public static Reader read(ReadableByteChannel channel) throws IOException {
+        return new Reader(Channels.newInputStream(channel));
+    }
+
+    private static final class Writer implements RecordWriter {
+        private final WritableByteChannel channel;
+        private final List<Column> columns;
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final long[][] longs;
+        private final double[][] doubles;
+        private final boolean[][] booleans;
+        private final String[][] strings;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private ByteBuffer block = ByteBuffer.allocate(GROUP_SIZE * 8);
+        private final ByteBuffer prefix = ByteBuffer.allocate(10);
+        private int rows;
+
+        Writer(WritableByteChannel channel, List<Column> columns) throws IOException {
+            this.channel = channel;
+            this.columns = List.copyOf(columns);
+            int count = columns.size();
+            longs = new long[count][];
+            doubles = new double[count][];
+            booleans = new boolean[count][];
+            strings = new String[count][];
+            for (int i = 0; i < count; i++) {
+                switch (columns.get(i).type()) {
+                    case LONG, DATE -> longs[i] = new long[GROUP_SIZE];
+                    case DOUBLE -> doubles[i] = new double[GROUP_SIZE];
+                    case BOOLEAN -> booleans[i] = new boolean[GROUP_SIZE];
+                    case STRING -> strings[i] = new String[GROUP_SIZE];
+                }
+            }
+            block.put(MAGIC).put((byte) VERSION);
+            putVarint(count);
+            for (Column column : columns) {
+                putString(column.name());
+                block.put((byte) column.type().ordinal());
+            }
+            emit(block);
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            if (values.length != columns.size()) {
+                throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + values.length);
+            }
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null && columns.get(i).type() != ColumnType.STRING) {
+                    throw new IllegalArgumentException("Column " + columns.get(i).name() + " cannot be null");
+                }
+                switch (columns.get(i).type()) {
+                    case LONG -> longs[i][rows] = (Long) value;
+                    case DATE -> longs[i][rows] = ((LocalDate) value).toEpochDay();
+                    case DOUBLE -> doubles[i][rows] = (Double) value;
+                    case BOOLEAN -> booleans[i][rows] = (Boolean) value;
+                    case STRING -> strings[i][rows] = (String) value;
+                }
+            }
+            if (++rows == GROUP_SIZE) {
+                writeGroup();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (rows > 0) {
+                writeGroup();
+            }
+            block.clear();
+            putVarint(0);
+            emit(block);
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+
+        private void writeGroup() throws IOException {
+            block.clear();
+            putVarint(rows);
+            emit(block);
+            for (int i = 0; i < columns.size(); i++) {
+                block.clear();
+                switch (columns.get(i).type()) {
+                    case LONG, DATE -> {
+                        long previous = 0;
+                        for (int row = 0; row < rows; row++) {
+                            putVarint(zigzag(longs[i][row] - previous));
+                            previous = longs[i][row];
+                        }
+                    }
+                    case DOUBLE -> {
+                        for (int row = 0; row < rows; row++) {
+                            ensure(8);
+                            block.putDouble(doubles[i][row]);
+                        }
+                    }
+                    case BOOLEAN -> {
+                        for (int row = 0; row < rows; row += 8) {
+                            int bits = 0;
+                            for (int bit = 0; bit < 8 && row + bit < rows; bit++) {
+                                bits |= booleans[i][row + bit] ? 1 << bit : 0;
+                            }
+                            ensure(1);
+                            block.put((byte) bits);
+                        }
+                    }
+                    case STRING -> putStrings(strings[i]);
+                }
+                prefix.clear();
+                ColumnarFormat.putVarint(prefix, block.position());
+                emit(prefix);
+                emit(block);
+            }
+            rows = 0;
+        }
+
+        private void putStrings(String[] values) {
+            dictionary.clear();
+            List<String> entries = new ArrayList<>();
+            int[] indexes = new int[rows];
+            for (int row = 0; row < rows; row++) {
+                String value = values[row];
+                if (value != null) {
+                    indexes[row] = dictionary.computeIfAbsent(value, v -> {
+                        entries.add(v);
+                        return entries.size();
+                    });
+                }
+                values[row] = null;
+            }
+            putVarint(entries.size());
+            entries.forEach(this::putString);
+            for (int row = 0; row < rows; row++) {
+                putVarint(indexes[row]);
+            }
+        }
+
+        private void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarint(bytes.length);
+            ensure(bytes.length);
+            block.put(bytes);
+        }
+
+        private void putVarint(long value) {
+            ensure(10);
+            ColumnarFormat.putVarint(block, value);
+        }
+
+        private void ensure(int bytes) {
+            if (block.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(block.capacity() * 2, block.position() + bytes));
+                block.flip();
+                larger.put(block);
+                block = larger;
+            }
+        }
+
+        /**
+         * Copies what was put into {@code data} to the output buffer, writing
+         * that to the channel whenever it fills up.
+         */
+        private void emit(ByteBuffer data) throws IOException {
+            data.flip();
+            while (data.hasRemaining()) {
+                if (!out.hasRemaining()) {
+                    out.flip();
+                    while (out.hasRemaining()) {
+                        channel.write(out);
+                    }
+                    out.clear();
+                }
+                int limit = data.limit();
+                data.limit(data.position() + Math.min(out.remaining(), data.remaining()));
+                out.put(data);
+                data.limit(limit);
+            }
+        }
+    }
+
+    /**
+     * Iterates the rows of a columnar file; only one group is held in memory.
+     */
+    public static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private final List<Column> columns;
+        private final Object[] group;
+        private int rows;
+        private int next;
+        private boolean finished;
+
+        private Reader(InputStream input) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(input, BUFFER_SIZE));
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a columnar export");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported columnar export version " + version);
+            }
+            int count = (int) readVarint();
+            List<Column> columns = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = readString();
+                columns.add(new Column(name, ColumnType.values()[in.readUnsignedByte()]));
+            }
+            this.columns = List.copyOf(columns);
+            group = new Object[count];
+        }
+
+        public List<Column> columns() {
+            return columns;
+        }
+
+        /**
+         * @return the values of the next row, or null after the last one
+         */
+        public Object[] next() throws IOException {
+            if (next == rows && !readGroup()) {
+                return null;
+            }
+            Object[] row = new Object[columns.size()];
+            for (int i = 0; i < row.length; i++) {
+                Object values = group[i];
+                row[i] = switch (columns.get(i).type()) {
+                    case LONG -> ((long[]) values)[next];
+                    case DATE -> LocalDate.ofEpochDay(((long[]) values)[next]);
+                    case DOUBLE -> ((double[]) values)[next];
+                    case BOOLEAN -> ((boolean[]) values)[next];
+                    case STRING -> ((String[]) values)[next];
+                };
+            }
+            next++;
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private boolean readGroup() throws IOException {
+            if (finished) {
+                return false;
+            }
+            rows = (int) readVarint();
+            next = 0;
+            if (rows == 0) {
+                finished = true;
+                return false;
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                readVarint(); // block length, only needed to skip a column
+                group[i] = switch (columns.get(i).type()) {
+                    case LONG, DATE -> {
+                        long[] values = new long[rows];
+                        long previous = 0;
+                        for (int row = 0; row < rows; row++) {
+                            previous += unzigzag(readVarint());
+                            values[row] = previous;
+                        }
+                        yield values;
+                    }
+                    case DOUBLE -> {
+                        double[] values = new double[rows];
+                        for (int row = 0; row < rows; row++) {
+                            values[row] = in.readDouble();
+                        }
+                        yield values;
+                    }
+                    case BOOLEAN -> {
+                        boolean[] values = new boolean[rows];
+                        for (int row = 0; row < rows; row += 8) {
+                            int bits = in.readUnsignedByte();
+                            for (int bit = 0; bit < 8 && row + bit < rows; bit++) {
+                                values[row + bit] = (bits & 1 << bit) != 0;
+                            }
+                        }
+                        yield values;
+                    }
+                    case STRING -> {
+                        String[] dictionary = new String[(int) readVarint()];
+                        for (int entry = 0; entry < dictionary.length; entry++) {
+                            dictionary[entry] = readString();
+                        }
+                        String[] values = new String[rows];
+                        for (int row = 0; row < rows; row++) {
+                            int index = (int) readVarint();
+                            values[row] = index == 0 ? null : dictionary[index - 1];
+                        }
+                        yield values;
+                    }
+                };
+            }
+            return true;
+        }
+
+        private String readString() throws IOException {
+            byte[] bytes = new byte[(int) readVarint()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new EOFException("Truncated columnar export");
+                }
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.school.export;
+
+import com.school.importer.CsvFormat;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Semicolon-separated CSV with decimal commas, as spreadsheets in pt-BR
+ * expect. Grade exports use the importer's column names, so a sheet can be
+ * exported, corrected and imported again.
+ */
+public final class CsvExport implements ExportFormat {
+    public static final CsvExport INSTANCE = new CsvExport();
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CsvExport() {
+    }
+
+    @Override
+    public RecordWriter open(WritableByteChannel channel, List<Column> columns) throws IOException {
+        Writer out = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE);
+        String[] fields = new String[columns.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = columns.get(i).name();
+        }
+        CsvFormat.SEMICOLON.write(out, fields);
+        return new RecordWriter() {
+            @Override
+            public void write(Object... values) throws IOException {
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = format(values[i]);
+                }
+                CsvFormat.SEMICOLON.write(out, fields);
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.flush();
+            }
+        };
+    }
+
+    @Override
+    public String extension() {
+        return "csv";
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Double number) {
+            return number.toString().replace('.', ',');
+        }
+        if (value instanceof Boolean flag) {
+            return flag ? "sim" : "não";
+        }
+        if (value instanceof LocalDate date) {
+            return date.toString();
+        }
+        return value.toString();
+    }
+}
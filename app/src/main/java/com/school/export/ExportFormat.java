@@ -0,0 +1,17 @@
+package com.school.export;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * A file format exports can be written in.
+ */
+public interface ExportFormat {
+    RecordWriter open(WritableByteChannel channel, List<Column> columns) throws IOException;
+
+    /**
+     * File name extension, without the dot.
+     */
+    String extension();
+}
@@ -0,0 +1,113 @@
+package com.school.export;
+
+import com.school.dao.AttendanceDAO;
+import com.school.dao.GradeDAO;
+import com.school.dto.AttendanceExportRow;
+import com.school.dto.GradeExportRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Exports grade sheets and roll calls for the secretariat. Rows stream from a
+ * database cursor straight into a buffered file channel, so exporting a full
+ * school year takes no more memory than exporting a single class.
+ */
+public class Exporter {
+    private static final Logger logger = LoggerFactory.getLogger(Exporter.class);
+
+    // Named like the importer's columns, so an exported CSV sheet can be imported again
+    static final List<Column> GRADE_COLUMNS = List.of(
+        new Column("matrícula", ColumnType.STRING),
+        new Column("aluno", ColumnType.STRING),
+        new Column("turma", ColumnType.STRING),
+        new Column("disciplina", ColumnType.STRING),
+        new Column("período", ColumnType.STRING),
+        new Column("nota", ColumnType.DOUBLE));
+    static final List<Column> ATTENDANCE_COLUMNS = List.of(
+        new Column("data", ColumnType.DATE),
+        new Column("matrícula", ColumnType.STRING),
+        new Column("aluno", ColumnType.STRING),
+        new Column("turma", ColumnType.STRING),
+        new Column("disciplina", ColumnType.STRING),
+        new Column("presente", ColumnType.BOOLEAN));
+
+    private final GradeDAO gradeDAO = new GradeDAO();
+    private final AttendanceDAO attendanceDAO = new AttendanceDAO();
+
+    /**
+     * @param subjectId null for all subjects
+     * @param period    null for all periods
+     * @return the number of grades written
+     */
+    public long exportGrades(Long subjectId, String period, Path file, ExportFormat format) throws IOException {
+        return export(file, format, GRADE_COLUMNS, writer ->
+            gradeDAO.forEachExportRow(subjectId, period, row -> write(writer, gradeValues(row))));
+    }
+
+    /**
+     * @param subjectId null for all subjects
+     * @return the number of roll-call entries written
+     */
+    public long exportAttendance(Long subjectId, LocalDate from, LocalDate to, Path file, ExportFormat format)
+            throws IOException {
+        return export(file, format, ATTENDANCE_COLUMNS, writer ->
+            attendanceDAO.forEachExportRow(subjectId, from, to, row -> write(writer, attendanceValues(row))));
+    }
+
+    private static Object[] gradeValues(GradeExportRow row) {
+        return new Object[]{
+            row.registration(), row.studentName(), row.className(), row.subject(), row.period(), row.value()
+        };
+    }
+
+    private static Object[] attendanceValues(AttendanceExportRow row) {
+        return new Object[]{
+            row.date(), row.registration(), row.studentName(), row.className(), row.subject(), row.present()
+        };
+    }
+
+    private static long export(Path file, ExportFormat format, List<Column> columns,
+                               Consumer<CountingWriter> rows) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CountingWriter writer = new CountingWriter(format.open(channel, columns));
+            try {
+                rows.accept(writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.delegate.close();
+            logger.info("Exported {} rows to {} in {} ms, {} KB", writer.count, file.getFileName(),
+                (System.nanoTime() - start) / 1_000_000, channel.size() / 1024);
+            return writer.count;
+        }
+    }
+
+    private static void write(CountingWriter writer, Object[] values) {
+        try {
+            writer.delegate.write(values);
+            writer.count++;
+        } catch (IOException e) {
+            // The DAO callbacks cannot throw checked exceptions; unwrapped again in export()
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class CountingWriter {
+        final RecordWriter delegate;
+        long count;
+
+        CountingWriter(RecordWriter delegate) {
+            this.delegate = delegate;
+        }
+    }
+}
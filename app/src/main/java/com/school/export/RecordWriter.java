@@ -0,0 +1,15 @@
+package com.school.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes export rows one at a time; closing it flushes what is buffered but
+ * leaves the channel open.
+ */
+public interface RecordWriter extends Closeable {
+    /**
+     * @param values one per column, of the Java type its {@link ColumnType} names
+     */
+    void write(Object... values) throws IOException;
+}
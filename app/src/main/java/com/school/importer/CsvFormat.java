@@ -0,0 +1,174 @@
+package com.school.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV: fields may be quoted, quotes inside them are doubled, and
+ * quoted fields may span lines. A UTF-8 byte order mark, as written by Excel,
+ * is skipped.
+ */
+public final class CsvFormat implements RecordFormat {
+    public static final CsvFormat COMMA = new CsvFormat(',');
+    // What spreadsheets use in locales where ',' is the decimal separator, pt-BR included
+    public static final CsvFormat SEMICOLON = new CsvFormat(';');
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final char delimiter;
+
+    public CsvFormat(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Picks {@link #SEMICOLON} if the first line of {@code file} has more
+     * semicolons than commas, {@link #COMMA} otherwise.
+     */
+    public static CsvFormat detect(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = in.readLine();
+            if (header == null) {
+                return COMMA;
+            }
+            long semicolons = header.chars().filter(c -> c == ';').count();
+            long commas = header.chars().filter(c -> c == ',').count();
+            return semicolons > commas ? SEMICOLON : COMMA;
+        }
+    }
+
+    @Override
+    public RecordReader reader(Reader in) {
+        return new CsvReader(in, delimiter);
+    }
+
+    @Override
+    public void write(Writer out, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(delimiter);
+            }
+            String field = fields[i] == null ? "" : fields[i];
+            if (field.indexOf(delimiter) >= 0 || field.indexOf('"') >= 0
+                    || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(field.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(field);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static final class CsvReader implements RecordReader {
+        private static final int NONE = -2;
+
+        private final Reader in;
+        private final char delimiter;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private int pushedBack = NONE;
+        private final StringBuilder field = new StringBuilder();
+        private final List<String> fields = new ArrayList<>();
+        private long line = 1;
+        private long recordLine;
+        private boolean started;
+
+        CsvReader(Reader in, char delimiter) {
+            this.in = in;
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            int c = read();
+            if (!started) {
+                started = true;
+                if (c == BYTE_ORDER_MARK) {
+                    c = read();
+                }
+            }
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            fields.clear();
+            while (true) {
+                field.setLength(0);
+                if (c == '"') {
+                    while (true) {
+                        c = read();
+                        if (c == -1) {
+                            throw new IOException("Unterminated quoted field on line " + recordLine);
+                        }
+                        if (c == '"') {
+                            c = read();
+                            if (c != '"') {
+                                break;
+                            }
+                        } else if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                }
+                // Unquoted field, or whatever follows a closing quote before the delimiter
+                while (c != delimiter && c != '\n' && c != '\r' && c != -1) {
+                    field.append((char) c);
+                    c = read();
+                }
+                fields.add(field.toString());
+                if (c != delimiter) {
+                    break;
+                }
+                c = read();
+            }
+            if (c == '\r') {
+                int after = read();
+                if (after != '\n') {
+                    pushedBack = after;
+                }
+            }
+            if (c != -1) {
+                line++;
+            }
+            return fields.toArray(new String[0]);
+        }
+
+        @Override
+        public long lineNumber() {
+            return recordLine;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != NONE) {
+                int c = pushedBack;
+                pushedBack = NONE;
+                return c;
+            }
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.school.importer;
+
+import com.school.dao.GradeDAO;
+import com.school.dao.StudentDAO;
+import com.school.dao.SubjectDAO;
+import com.school.dao.UnitOfWork;
+import com.school.model.Grade;
+import com.school.model.Student;
+import com.school.model.Subject;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports grade sheets: one grade per row, with columns matricula, disciplina
+ * (the subject name), periodo and nota (0 to 10, '.' or ',' as decimal
+ * separator). Unknown students or subjects and students already graded in the
+ * sheet are rejected before anything is written.
+ */
+public class GradeImporter extends RowImporter<Grade> {
+    private final GradeDAO gradeDAO = new GradeDAO();
+    private final Map<String, Long> studentIds = new HashMap<>();
+    // Null for a name shared by several subjects
+    private final Map<String, Subject> subjects = new HashMap<>();
+    private final Map<String, Set<Long>> gradedBySheet = new HashMap<>();
+
+    @Override
+    protected Map<String, List<String>> columns() {
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        columns.put("registration", List.of("matrícula", "registration"));
+        columns.put("subject", List.of("disciplina", "subject"));
+        columns.put("period", List.of("período", "period"));
+        columns.put("value", List.of("nota", "grade", "value"));
+        return columns;
+    }
+
+    @Override
+    protected void begin() {
+        studentIds.clear();
+        subjects.clear();
+        gradedBySheet.clear();
+        new StudentDAO().forEachKey((id, email, registration) -> studentIds.put(registration, id));
+        for (Subject subject : new SubjectDAO().findAll()) {
+            subjects.merge(normalize(subject.getName()), subject, (first, second) -> null);
+        }
+    }
+
+    @Override
+    protected Grade parse(Row row) {
+        String registration = row.required("registration");
+        String subjectName = row.required("subject");
+        String period = row.required("period");
+        String value = row.required("value");
+
+        Long studentId = studentIds.get(registration);
+        if (studentId == null) {
+            throw new InvalidRowException("matrícula não encontrada: " + registration);
+        }
+        String subjectKey = normalize(subjectName);
+        Subject subject = subjects.get(subjectKey);
+        if (subject == null) {
+            throw new InvalidRowException(subjects.containsKey(subjectKey)
+                ? "mais de uma disciplina com o nome " + subjectName
+                : "disciplina não encontrada: " + subjectName);
+        }
+        if (!Grade.PERIODS.contains(period)) {
+            throw new InvalidRowException("período inválido: " + period);
+        }
+        double grade;
+        try {
+            grade = Double.parseDouble(value.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new InvalidRowException("nota inválida: " + value);
+        }
+        if (!(grade >= 0 && grade <= 10)) {
+            throw new InvalidRowException("nota fora de 0 a 10: " + value);
+        }
+        // Also holds the students of rows parsed but not written yet, so a
+        // file grading someone twice is caught; write() takes them back out
+        // if their batch fails
+        Set<Long> graded = gradedBySheet.computeIfAbsent(sheetKey(subject.getId(), period),
+            sheet -> gradeDAO.findGradedStudentIds(subject.getId(), period));
+        if (!graded.add(studentId)) {
+            throw new InvalidRowException("aluno já tem nota em " + subjectName + ", " + period);
+        }
+
+        // Only the id is known here; write() swaps in a reference from its session
+        Student student = new Student();
+        student.setId(studentId);
+        Grade result = new Grade();
+        result.setStudent(student);
+        result.setSubject(subject);
+        result.setPeriod(period);
+        result.setValue(grade);
+        return result;
+    }
+
+    @Override
+    protected void write(List<Grade> grades) {
+        try {
+            save(grades);
+        } catch (RuntimeException e) {
+            // Nothing was written, so these students are still ungraded
+            grades.forEach(grade -> graded(grade).remove(grade.getStudent().getId()));
+            throw e;
+        }
+        // Back in if an earlier attempt at the same rows failed
+        grades.forEach(grade -> graded(grade).add(grade.getStudent().getId()));
+    }
+
+    private void save(List<Grade> grades) {
+        UnitOfWork.run(work -> {
+            for (Grade grade : grades) {
+                // Ids handed out by a failed attempt at the same batch were rolled back
+                grade.setId(null);
+                // A bare Student with an id and no version would be taken for a
+                // detached entity; a reference loads nothing and only carries the id
+                grade.setStudent(work.session().getReference(Student.class, grade.getStudent().getId()));
+                gradeDAO.save(work, grade);
+            }
+        });
+    }
+
+    private Set<Long> graded(Grade grade) {
+        return gradedBySheet.get(sheetKey(grade.getSubject().getId(), grade.getPeriod()));
+    }
+
+    private static String sheetKey(Long subjectId, String period) {
+        return subjectId + "/" + period;
+    }
+}
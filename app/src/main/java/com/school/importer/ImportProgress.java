@@ -0,0 +1,12 @@
+package com.school.importer;
+
+/**
+ * Where an import stands, reported after every batch.
+ *
+ * @param bytesRead  approximate, the reader buffers ahead
+ */
+public record ImportProgress(long rowsRead, long imported, long rejected, long bytesRead, long totalBytes) {
+    public double fraction() {
+        return totalBytes == 0 ? 1.0 : Math.min(1.0, (double) bytesRead / totalBytes);
+    }
+}
@@ -0,0 +1,10 @@
+package com.school.importer;
+
+import java.nio.file.Path;
+
+/**
+ * @param rejectedRows file listing the rejected rows and why, or null if none were rejected
+ * @param cancelled    whether the import stopped early; batches written before that are kept
+ */
+public record ImportResult(long rowsRead, long imported, long rejected, Path rejectedRows, boolean cancelled) {
+}
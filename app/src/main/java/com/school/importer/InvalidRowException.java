@@ -0,0 +1,11 @@
+package com.school.importer;
+
+/**
+ * Thrown while parsing a row that cannot be imported; the row goes to the
+ * rejected-rows file with this message as the reason.
+ */
+public class InvalidRowException extends RuntimeException {
+    public InvalidRowException(String message) {
+        super(message);
+    }
+}
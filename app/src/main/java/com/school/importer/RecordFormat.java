@@ -0,0 +1,15 @@
+package com.school.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * A file format the importers can read. Rejected rows are written back in the
+ * same format, so they can be fixed and imported again.
+ */
+public interface RecordFormat {
+    RecordReader reader(Reader in);
+
+    void write(Writer out, String... fields) throws IOException;
+}
@@ -0,0 +1,21 @@
+package com.school.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an import file one record at a time, so memory does not grow with
+ * the size of the file.
+ */
+public interface RecordReader extends Closeable {
+    /**
+     * @return the fields of the next record, or null at the end of the input
+     */
+    String[] next() throws IOException;
+
+    /**
+     * Line of the input the record last returned by {@link #next()} started on,
+     * counting from 1.
+     */
+    long lineNumber();
+}
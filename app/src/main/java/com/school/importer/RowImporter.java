@@ -0,0 +1,327 @@
+package com.school.importer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams a file into the database: rows are parsed and validated one at a
+ * time, written {@link #batchSize(int) a batch} per transaction, and rows that
+ * cannot be imported are copied to a rejected-rows file with the reason.
+ * Memory stays flat whatever the size of the file.
+ * <p>
+ * Columns are found by header name, in any order, ignoring case and accents.
+ * An importer instance runs one import at a time.
+ */
+public abstract class RowImporter<T> {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final Logger logger = LoggerFactory.getLogger(RowImporter.class);
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private Consumer<ImportProgress> onProgress = progress -> {
+    };
+    private volatile boolean cancelled;
+
+    /**
+     * A parsed row waiting for its batch to be written.
+     */
+    private record Pending<T>(long line, String[] fields, T value) {
+    }
+
+    /**
+     * The fields of one row, looked up by column.
+     */
+    protected static final class Row {
+        private final Map<String, Integer> columns;
+        private final String[] fields;
+
+        private Row(Map<String, Integer> columns, String[] fields) {
+            this.columns = columns;
+            this.fields = fields;
+        }
+
+        /**
+         * @return the trimmed value, empty if the row is too short
+         */
+        public String get(String column) {
+            int index = columns.get(column);
+            return index < fields.length ? fields[index].trim() : "";
+        }
+
+        public String required(String column) {
+            String value = get(column);
+            if (value.isEmpty()) {
+                throw new InvalidRowException("campo obrigatório em branco: " + column);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Rows per transaction. Validation happens before writing, so a batch
+     * rarely fails; when one does, its rows are retried one by one.
+     */
+    public RowImporter<T> batchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Called from the importing thread after every batch.
+     */
+    public RowImporter<T> onProgress(Consumer<ImportProgress> onProgress) {
+        this.onProgress = onProgress;
+        return this;
+    }
+
+    /**
+     * Stops the running import after the batch being written; may be called
+     * from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Imports a CSV file, detecting its delimiter. Rejected rows go to
+     * {@link #rejectedRowsFile(Path)}.
+     */
+    public ImportResult importFile(Path file) throws IOException {
+        return importFile(file, CsvFormat.detect(file), rejectedRowsFile(file));
+    }
+
+    public ImportResult importFile(Path file, RecordFormat format, Path rejectedRows) throws IOException {
+        cancelled = false;
+        long totalBytes = Files.size(file);
+        long start = System.nanoTime();
+        CountingInputStream input = new CountingInputStream(Files.newInputStream(file));
+        try (RecordReader reader = format.reader(new InputStreamReader(input, StandardCharsets.UTF_8));
+             RejectedRows rejected = new RejectedRows(rejectedRows, format)) {
+            String[] header = reader.next();
+            if (header == null) {
+                return new ImportResult(0, 0, 0, null, false);
+            }
+            Map<String, Integer> columns = resolveColumns(header);
+            rejected.header(header);
+            begin();
+
+            List<Pending<T>> batch = new ArrayList<>(batchSize);
+            long read = 0;
+            long imported = 0;
+            String[] fields;
+            while (!cancelled && (fields = reader.next()) != null) {
+                if (isBlank(fields)) {
+                    continue;
+                }
+                read++;
+                try {
+                    batch.add(new Pending<>(reader.lineNumber(), fields, parse(new Row(columns, fields))));
+                } catch (InvalidRowException e) {
+                    rejected.add(reader.lineNumber(), fields, e.getMessage());
+                }
+                if (batch.size() == batchSize) {
+                    imported += flush(batch, rejected);
+                    onProgress.accept(new ImportProgress(read, imported, rejected.count, input.count, totalBytes));
+                }
+            }
+            if (!cancelled) {
+                imported += flush(batch, rejected);
+            }
+            onProgress.accept(new ImportProgress(read, imported, rejected.count, input.count, totalBytes));
+            logger.info("Imported {} of {} rows from {} in {} ms, {} rejected{}", imported, read, file.getFileName(),
+                (System.nanoTime() - start) / 1_000_000, rejected.count, cancelled ? " (cancelled)" : "");
+            return new ImportResult(read, imported, rejected.count,
+                rejected.count > 0 ? rejectedRows : null, cancelled);
+        }
+    }
+
+    /**
+     * {@code data.csv} is rejected into {@code data-rejeitados.csv} next to it.
+     */
+    public static Path rejectedRowsFile(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return file.resolveSibling(base + "-rejeitados" + (dot > 0 ? name.substring(dot) : ".csv"));
+    }
+
+    /**
+     * Accepted header names for each column, keyed by the column name passed
+     * to {@link Row#get}. Header names are compared without case or accents.
+     */
+    protected abstract Map<String, List<String>> columns();
+
+    /**
+     * Called once the header is read, before the first row, e.g. to load what
+     * the rows are validated against.
+     */
+    protected void begin() {
+    }
+
+    /**
+     * @throws InvalidRowException if the row must be rejected
+     */
+    protected abstract T parse(Row row);
+
+    /**
+     * Writes one batch in a single transaction. May be called again with
+     * some of the same rows if the batch failed.
+     */
+    protected abstract void write(List<T> rows);
+
+    private int flush(List<Pending<T>> batch, RejectedRows rejected) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int written = batch.size();
+        try {
+            write(batch.stream().map(Pending::value).toList());
+        } catch (RuntimeException batchError) {
+            // Find the rows that broke the batch and keep the rest
+            written = 0;
+            for (Pending<T> pending : batch) {
+                try {
+                    write(List.of(pending.value()));
+                    written++;
+                } catch (RuntimeException e) {
+                    rejected.add(pending.line(), pending.fields(), rootMessage(e));
+                }
+            }
+        }
+        batch.clear();
+        return written;
+    }
+
+    private Map<String, Integer> resolveColumns(String[] header) {
+        Map<String, Integer> byHeader = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            byHeader.putIfAbsent(normalize(header[i]), i);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, List<String>> column : columns().entrySet()) {
+            column.getValue().stream()
+                .map(name -> byHeader.get(normalize(name)))
+                .filter(index -> index != null)
+                .findFirst()
+                .ifPresentOrElse(index -> columns.put(column.getKey(), index),
+                    () -> missing.add(column.getValue().get(0)));
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing columns " + missing + " in header " + Arrays.toString(header));
+        }
+        return columns;
+    }
+
+    static String normalize(String name) {
+        return Normalizer.normalize(name.trim(), Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String[] fields) {
+        for (String field : fields) {
+            if (!field.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
+    /**
+     * The rejected-rows file, created on the first rejected row: the original
+     * columns followed by the line number and the reason.
+     */
+    private static final class RejectedRows implements AutoCloseable {
+        private final Path path;
+        private final RecordFormat format;
+        private String[] header;
+        private Writer out;
+        long count;
+
+        RejectedRows(Path path, RecordFormat format) throws IOException {
+            this.path = path;
+            this.format = format;
+            // Left over from an earlier import of the same file
+            Files.deleteIfExists(path);
+        }
+
+        void header(String[] header) {
+            this.header = header;
+        }
+
+        void add(long line, String[] fields, String reason) throws IOException {
+            if (out == null) {
+                out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+                format.write(out, append(header, "linha", "motivo"));
+            }
+            format.write(out, append(fields, Long.toString(line), reason));
+            count++;
+        }
+
+        private static String[] append(String[] fields, String... extra) {
+            String[] row = Arrays.copyOf(fields, fields.length + extra.length);
+            System.arraycopy(extra, 0, row, fields.length, extra.length);
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.school.importer;
+
+import com.school.dao.StudentDAO;
+import com.school.model.Student;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Imports a roster: one student per row, with columns nome, email, matricula,
+ * nascimento (yyyy-MM-dd or dd/MM/yyyy) and turma. Emails and registrations
+ * already taken, in the database or earlier in the file, are rejected before
+ * anything is written.
+ */
+public class StudentImporter extends RowImporter<Student> {
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+");
+    private static final DateTimeFormatter BRAZILIAN_DATE = DateTimeFormatter.ofPattern("dd/MM/uuuu");
+
+    private final StudentDAO studentDAO = new StudentDAO();
+    private final Set<String> emails = new HashSet<>();
+    private final Set<String> registrations = new HashSet<>();
+
+    @Override
+    protected Map<String, List<String>> columns() {
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        columns.put("name", List.of("nome", "name"));
+        columns.put("email", List.of("email", "e-mail"));
+        columns.put("registration", List.of("matrícula", "registration"));
+        columns.put("birthDate", List.of("nascimento", "data de nascimento", "birthDate"));
+        columns.put("className", List.of("turma", "className", "class"));
+        return columns;
+    }
+
+    @Override
+    protected void begin() {
+        emails.clear();
+        registrations.clear();
+        studentDAO.forEachKey((id, email, registration) -> {
+            emails.add(email.toLowerCase(Locale.ROOT));
+            registrations.add(registration);
+        });
+    }
+
+    @Override
+    protected Student parse(Row row) {
+        String email = row.required("email");
+        String registration = row.required("registration");
+        if (!EMAIL.matcher(email).matches()) {
+            throw new InvalidRowException("email inválido: " + email);
+        }
+        Student student = new Student();
+        student.setName(row.required("name"));
+        student.setEmail(email);
+        student.setRegistration(registration);
+        student.setBirthDate(parseDate(row.required("birthDate")));
+        student.setClassName(row.required("className"));
+
+        if (emails.contains(email.toLowerCase(Locale.ROOT))) {
+            throw new InvalidRowException("email já cadastrado: " + email);
+        }
+        if (!registrations.add(registration)) {
+            throw new InvalidRowException("matrícula já cadastrada: " + registration);
+        }
+        emails.add(email.toLowerCase(Locale.ROOT));
+        return student;
+    }
+
+    @Override
+    protected void write(List<Student> students) {
+        // Ids handed out by a failed attempt at the same batch were rolled back
+        students.forEach(student -> student.setId(null));
+        studentDAO.saveAll(students);
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return value.contains("/") ? LocalDate.parse(value, BRAZILIAN_DATE) : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRowException("data de nascimento inválida: " + value);
+        }
+    }
+}
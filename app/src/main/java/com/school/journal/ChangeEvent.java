@@ -0,0 +1,41 @@
+package com.school.journal;
+
+import java.time.LocalDate;
+
+/**
+ * A change to the school's records as the {@link ChangeJournal} keeps it.
+ * Every event carries the whole new state of what it changes, not a
+ * difference, so the latest event for a grade, roll-call entry or student is
+ * what the tables hold.
+ */
+public sealed interface ChangeEvent {
+    /**
+     * A student's grade in a subject and period was given or changed.
+     *
+     * @param value the new grade, null if it was removed
+     */
+    record GradeSet(long studentId, long subjectId, String period, Double value) implements ChangeEvent {
+    }
+
+    /**
+     * A student was marked present or absent in a subject's roll call.
+     *
+     * @param present null if the entry was removed
+     */
+    record AttendanceMarked(long studentId, long subjectId, LocalDate date, Boolean present) implements ChangeEvent {
+    }
+
+    /**
+     * A student enrolled, or their enrolment details changed; carries all of
+     * them, so the latest one is the student.
+     */
+    record StudentEnrolled(long studentId, String name, String email, String registration, LocalDate birthDate,
+                           String className) implements ChangeEvent {
+    }
+
+    /**
+     * A student's enrolment was removed.
+     */
+    record StudentWithdrawn(long studentId) implements ChangeEvent {
+    }
+}
@@ -0,0 +1,368 @@
+package com.school.journal;
+
+import com.school.util.HibernateUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of every {@link ChangeEvent}, the history behind the
+ * grade, attendance and student tables: who changed what and when, and the
+ * source the tables can be rebuilt from.
+ * <p>
+ * The journal is a directory of fixed-size segment files, each memory-mapped
+ * and filled front to back with records in the {@link EventCodec} layout, so
+ * an append is a copy into memory under a short lock. {@link #sync} makes
+ * appended records durable with group commit: one caller forces the pages
+ * written so far to disk while the others wait, and the next force covers
+ * every record appended in the meantime, so many concurrent commits share one
+ * fsync. A record torn by a crash fails its checksum and ends the journal.
+ * Thread-safe.
+ */
+public final class ChangeJournal implements AutoCloseable {
+    /**
+     * Journal directory, or "off". Defaults to the database path plus
+     * ".journal" in file storage and to off in memory storage, where the
+     * tables do not outlive the process.
+     */
+    public static final String DIR_PROPERTY = "school.journal.dir";
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeJournal.class);
+    static final int SEGMENT_SIZE = 64 << 20;
+    private static final String SUFFIX = ".journal";
+
+    private static volatile String actor = System.getProperty("user.name", "system");
+    private static ChangeJournal shared;
+    private static boolean sharedOpened;
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+    // Segments this process writes to, by index; null for the ones before
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private int segment;
+    private int offset;
+    // Positions up to which records were appended, and forced to disk
+    private long written;
+    private long durable;
+    private boolean syncing;
+    private boolean closed;
+
+    private ChangeJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = (int) files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).count();
+        }
+        if (segment == 0) {
+            map(0);
+        } else {
+            segment--;
+            recover(map(segment));
+        }
+        written = position(segment, offset);
+        durable = written;
+    }
+
+    /**
+     * Opens the journal in {@code directory}, creating it if needed, and
+     * continues after its last intact record.
+     *
+     * @throws UncheckedIOException if it cannot be read or mapped
+     */
+    public static ChangeJournal open(Path directory) {
+        try {
+            return new ChangeJournal(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open change journal in " + directory, e);
+        }
+    }
+
+    /**
+     * The application's journal, opened on first use where
+     * {@link #DIR_PROPERTY} says, or null if journaling is off.
+     */
+    public static synchronized ChangeJournal shared() {
+        if (!sharedOpened) {
+            String configured = System.getProperty(DIR_PROPERTY);
+            if (configured == null && HibernateUtil.isFileStorage()) {
+                configured = System.getProperty(HibernateUtil.DB_PATH_PROPERTY, "./data/school_db") + SUFFIX;
+            }
+            if (configured != null && !"off".equalsIgnoreCase(configured)) {
+                shared = open(Path.of(configured));
+                logger.info("Change journal at {}, {} bytes", configured, shared.size());
+            }
+            sharedOpened = true;
+        }
+        return shared;
+    }
+
+    /**
+     * Closes the application's journal; the next {@link #shared()} opens it again.
+     */
+    public static synchronized void closeShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+        sharedOpened = false;
+    }
+
+    /**
+     * Names who makes the changes recorded from now on, e.g. the user who
+     * logged in; the same for every thread.
+     */
+    public static void setActor(String name) {
+        actor = name;
+    }
+
+    public static String actor() {
+        return actor;
+    }
+
+    /**
+     * Appends {@code events} as committed now by {@code actor}, one after
+     * the other. They are not durable until {@link #sync} returns.
+     *
+     * @return the position after the last of them, to {@link #sync} to
+     */
+    public long append(String actor, List<? extends ChangeEvent> events) {
+        long now = System.currentTimeMillis();
+        List<byte[]> records = new ArrayList<>(events.size());
+        for (ChangeEvent event : events) {
+            records.add(EventCodec.encode(now, actor, event));
+        }
+        lock.lock();
+        try {
+            checkOpen();
+            for (byte[] record : records) {
+                if (offset + record.length > SEGMENT_SIZE) {
+                    roll();
+                }
+                segments.get(segment).put(offset, record);
+                offset += record.length;
+            }
+            written = position(segment, offset);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to extend change journal in " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns once everything up to {@code position} is on disk. If another
+     * thread is forcing the journal already, waits for it and then forces
+     * whatever was appended meanwhile in one go, for every waiting thread.
+     */
+    public void sync(long position) {
+        lock.lock();
+        try {
+            while (durable < position) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long from = durable;
+                long to = written;
+                boolean forced = false;
+                lock.unlock();
+                try {
+                    force(from, to);
+                    forced = true;
+                } finally {
+                    lock.lock();
+                    syncing = false;
+                    if (forced) {
+                        durable = to;
+                    }
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads every record from {@code from} (0 for the start) up to what was
+     * appended when the call began, oldest first.
+     *
+     * @return the position read up to, to continue from on a later call
+     */
+    public long forEach(long from, Consumer<JournalEntry> consumer) {
+        long end;
+        lock.lock();
+        try {
+            end = written;
+        } finally {
+            lock.unlock();
+        }
+        for (int index = (int) (from / SEGMENT_SIZE); index <= (int) (end / SEGMENT_SIZE); index++) {
+            int limit = index == end / SEGMENT_SIZE ? (int) (end % SEGMENT_SIZE) : SEGMENT_SIZE;
+            int at = index == from / SEGMENT_SIZE ? (int) (from % SEGMENT_SIZE) : 0;
+            if (at >= limit) {
+                // The end falls on a segment boundary; the next segment does not exist yet
+                continue;
+            }
+            ByteBuffer buffer = read(index);
+            for (int length; (length = EventCodec.validLength(buffer, at, limit)) > 0; at += length) {
+                consumer.accept(EventCodec.decode(buffer, at, position(index, at)));
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Reads the records starting at {@code positions}, ascending, each one
+     * the {@link JournalEntry#position} of an entry read earlier.
+     */
+    public List<JournalEntry> entriesAt(List<Long> positions) {
+        List<JournalEntry> entries = new ArrayList<>(positions.size());
+        ByteBuffer buffer = null;
+        int mapped = -1;
+        for (long position : positions) {
+            int index = (int) (position / SEGMENT_SIZE);
+            if (index != mapped) {
+                buffer = read(index);
+                mapped = index;
+            }
+            entries.add(EventCodec.decode(buffer, (int) (position % SEGMENT_SIZE), position));
+        }
+        return entries;
+    }
+
+    /**
+     * Bytes appended so far, over all segments.
+     */
+    public long size() {
+        lock.lock();
+        try {
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Forces everything appended to disk; later appends fail.
+     */
+    @Override
+    public void close() {
+        sync(size());
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the end of the last segment's intact records. Anything after
+     * them was never synced, so it is cleared before appending over it.
+     */
+    private void recover(MappedByteBuffer buffer) {
+        for (int length; (length = EventCodec.validLength(buffer, offset, SEGMENT_SIZE)) > 0; ) {
+            offset += length;
+        }
+        for (int at = offset; at + Long.BYTES <= SEGMENT_SIZE; at += Long.BYTES) {
+            if (buffer.getLong(at) != 0) {
+                logger.warn("Change journal segment {} ends in an incomplete record at {}; dropping it",
+                    segment, offset);
+                buffer.put(offset, new byte[SEGMENT_SIZE - offset]);
+                buffer.force();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Starts the next segment once the current one is durable, so only the
+     * last segment can end in a torn record.
+     */
+    private void roll() throws IOException {
+        segments.get(segment).force();
+        map(segment + 1);
+        segment++;
+        offset = 0;
+    }
+
+    private MappedByteBuffer map(int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(file(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+            while (segments.size() <= index) {
+                segments.add(null);
+            }
+            segments.set(index, buffer);
+            return buffer;
+        }
+    }
+
+    private ByteBuffer read(int index) {
+        lock.lock();
+        try {
+            if (index < segments.size() && segments.get(index) != null) {
+                return segments.get(index).duplicate();
+            }
+        } finally {
+            lock.unlock();
+        }
+        try (FileChannel channel = FileChannel.open(file(index), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, SEGMENT_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read change journal segment " + file(index), e);
+        }
+    }
+
+    private void force(long from, long to) {
+        for (int index = (int) (from / SEGMENT_SIZE); index <= (int) (to / SEGMENT_SIZE); index++) {
+            int start = index == from / SEGMENT_SIZE ? (int) (from % SEGMENT_SIZE) : 0;
+            int end = index == to / SEGMENT_SIZE ? (int) (to % SEGMENT_SIZE) : SEGMENT_SIZE;
+            if (end > start) {
+                MappedByteBuffer buffer;
+                lock.lock();
+                try {
+                    buffer = segments.get(index);
+                } finally {
+                    lock.unlock();
+                }
+                buffer.force(start, end - start);
+            }
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Change journal in " + directory + " is closed");
+        }
+    }
+
+    private Path file(int index) {
+        return directory.resolve(String.format("%08d%s", index, SUFFIX));
+    }
+
+    private static long position(int segment, int offset) {
+        return (long) segment * SEGMENT_SIZE + offset;
+    }
+}
@@ -0,0 +1,154 @@
+package com.school.journal;
+
+import com.school.journal.ChangeEvent.AttendanceMarked;
+import com.school.journal.ChangeEvent.GradeSet;
+import com.school.journal.ChangeEvent.StudentEnrolled;
+import com.school.journal.ChangeEvent.StudentWithdrawn;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of one journal record: its payload length and CRC-32C, then
+ * the payload, which is the commit time in epoch milliseconds, the actor, a
+ * type byte and the event's fields. Strings are an unsigned short length
+ * followed by UTF-8, dates are epoch days. A length of zero is never written,
+ * so the zeros of unused journal space mark its end.
+ */
+final class EventCodec {
+    static final int HEADER_SIZE = 8;
+
+    private static final byte GRADE_SET = 1;
+    private static final byte ATTENDANCE_MARKED = 2;
+    private static final byte STUDENT_ENROLLED = 3;
+    private static final byte STUDENT_WITHDRAWN = 4;
+
+    // Removed, absent and present roll-call entries
+    private static final byte UNMARKED = 0;
+    private static final byte ABSENT = 1;
+    private static final byte PRESENT = 2;
+
+    private EventCodec() {
+    }
+
+    /**
+     * The whole record, header included.
+     */
+    static byte[] encode(long recordedAt, String actor, ChangeEvent event) {
+        ByteBuffer payload = ByteBuffer.allocate(256);
+        payload.position(HEADER_SIZE);
+        payload.putLong(recordedAt);
+        payload = putString(payload, actor);
+        if (event instanceof GradeSet grade) {
+            payload.put(GRADE_SET).putLong(grade.studentId()).putLong(grade.subjectId());
+            payload = putString(payload, grade.period());
+            payload.put((byte) (grade.value() != null ? 1 : 0));
+            payload.putDouble(grade.value() != null ? grade.value() : 0);
+        } else if (event instanceof AttendanceMarked attendance) {
+            payload.put(ATTENDANCE_MARKED)
+                .putLong(attendance.studentId())
+                .putLong(attendance.subjectId())
+                .putInt((int) attendance.date().toEpochDay())
+                .put(attendance.present() == null ? UNMARKED : attendance.present() ? PRESENT : ABSENT);
+        } else if (event instanceof StudentEnrolled student) {
+            payload.put(STUDENT_ENROLLED).putLong(student.studentId());
+            payload = putString(payload, student.name());
+            payload = putString(payload, student.email());
+            payload = putString(payload, student.registration());
+            payload.putInt((int) student.birthDate().toEpochDay());
+            payload = putString(payload, student.className());
+        } else {
+            payload.put(STUDENT_WITHDRAWN).putLong(((StudentWithdrawn) event).studentId());
+        }
+        int length = payload.position() - HEADER_SIZE;
+        CRC32C crc = new CRC32C();
+        crc.update(payload.array(), HEADER_SIZE, length);
+        payload.putInt(0, length).putInt(4, (int) crc.getValue());
+        byte[] record = new byte[payload.position()];
+        System.arraycopy(payload.array(), 0, record, 0, record.length);
+        return record;
+    }
+
+    /**
+     * The length of the valid record at {@code offset}, header included, or
+     * zero if there is none: unused space, or a record torn by a crash.
+     */
+    static int validLength(ByteBuffer buffer, int offset, int limit) {
+        if (limit - offset < HEADER_SIZE) {
+            return 0;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || length > limit - offset - HEADER_SIZE) {
+            return 0;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + HEADER_SIZE, length));
+        return (int) crc.getValue() == buffer.getInt(offset + 4) ? HEADER_SIZE + length : 0;
+    }
+
+    /**
+     * Reads the record at {@code offset}, which {@link #validLength} accepted.
+     */
+    static JournalEntry decode(ByteBuffer buffer, int offset, long position) {
+        ByteBuffer in = buffer.slice(offset + HEADER_SIZE, buffer.getInt(offset));
+        Instant recordedAt = Instant.ofEpochMilli(in.getLong());
+        String actor = getString(in);
+        byte type = in.get();
+        ChangeEvent event = switch (type) {
+            case GRADE_SET -> {
+                long studentId = in.getLong();
+                long subjectId = in.getLong();
+                String period = getString(in);
+                boolean hasValue = in.get() != 0;
+                double value = in.getDouble();
+                yield new GradeSet(studentId, subjectId, period, hasValue ? value : null);
+            }
+            case ATTENDANCE_MARKED -> {
+                long studentId = in.getLong();
+                long subjectId = in.getLong();
+                LocalDate date = LocalDate.ofEpochDay(in.getInt());
+                byte mark = in.get();
+                yield new AttendanceMarked(studentId, subjectId, date, mark == UNMARKED ? null : mark == PRESENT);
+            }
+            case STUDENT_ENROLLED -> {
+                long studentId = in.getLong();
+                String name = getString(in);
+                String email = getString(in);
+                String registration = getString(in);
+                LocalDate birthDate = LocalDate.ofEpochDay(in.getInt());
+                yield new StudentEnrolled(studentId, name, email, registration, birthDate, getString(in));
+            }
+            case STUDENT_WITHDRAWN -> new StudentWithdrawn(in.getLong());
+            default -> throw new IllegalStateException("Unknown journal event type " + type + " at " + position);
+        };
+        return new JournalEntry(position, recordedAt, actor, event);
+    }
+
+    private static ByteBuffer putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Too long for the journal: " + value.substring(0, 40) + "...");
+        }
+        // Room for the string and the fixed-size fields that follow it
+        ByteBuffer target = ensure(buffer, Short.BYTES + bytes.length + 32);
+        target.putShort((short) bytes.length).put(bytes);
+        return target;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        return larger.put(buffer.flip());
+    }
+}
@@ -0,0 +1,13 @@
+package com.school.journal;
+
+import java.time.Instant;
+
+/**
+ * One event read back from the {@link ChangeJournal}.
+ *
+ * @param position   where the entry starts in the journal; later entries have larger ones
+ * @param recordedAt when the change was committed
+ * @param actor      who made it, see {@link ChangeJournal#setActor}
+ */
+public record JournalEntry(long position, Instant recordedAt, String actor, ChangeEvent event) {
+}
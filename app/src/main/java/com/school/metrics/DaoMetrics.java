@@ -0,0 +1,352 @@
+package com.school.metrics;
+
+import com.school.util.HibernateUtil;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Latency and statement counts of every DAO operation, collected by
+ * {@link SessionMetrics} from the sessions the operations open, plus
+ * connection wait times and slow statements. Exposed through JMX as
+ * {@value #OBJECT_NAME} and logged as a summary of the last interval.
+ * <p>
+ * An operation is named after the DAO method that opened its session, e.g.
+ * {@code GradeDAO.findBySubjectAndPeriod}. Hot paths give the name with
+ * {@link #operation}; elsewhere it is looked up on the stack, which costs
+ * some tens of microseconds per session.
+ */
+public final class DaoMetrics {
+    /** Statements slower than this many milliseconds are logged (default 100). */
+    public static final String SLOW_STATEMENT_PROPERTY = "school.metrics.slowStatementMs";
+    /** Seconds between summaries in the log (default 60); 0 turns them off. */
+    public static final String LOG_INTERVAL_PROPERTY = "school.metrics.logIntervalSeconds";
+    public static final String OBJECT_NAME = "com.school:type=DaoMetrics";
+
+    private static final Logger logger = LoggerFactory.getLogger(DaoMetrics.class);
+    private static final long SLOW_STATEMENT_NANOS =
+        Long.getLong(SLOW_STATEMENT_PROPERTY, 100) * 1_000_000;
+    private static final long LOG_INTERVAL_SECONDS = Long.getLong(LOG_INTERVAL_PROPERTY, 60);
+    // Distinct slow statements remembered for sampling before the map is cleared
+    private static final int MAX_SLOW_STATEMENTS = 1_000;
+    private static final StackWalker STACK = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final String DAO_PACKAGE = "com.school.dao";
+    // Library frames allowed between nested DAO calls, e.g. a stream or forEach
+    private static final int MAX_FRAMES_BETWEEN_DAO_CALLS = 8;
+
+    private static final Map<String, Operation> OPERATIONS = new ConcurrentHashMap<>();
+    private static final LatencyHistogram CONNECTION_WAIT = new LatencyHistogram();
+    private static final LongAdder SLOW_STATEMENTS = new LongAdder();
+    // Last time each slow statement was logged
+    private static final Map<String, Long> SLOW_LOGGED = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private static ScheduledExecutorService reporter;
+    private static Summary lastSummary;
+
+    /**
+     * One operation's sessions since startup.
+     *
+     * @param statements JDBC statements and batches executed by those sessions
+     */
+    public record OperationMetrics(long statements, LatencyHistogram.Snapshot latency) {
+    }
+
+    public interface DaoMetricsMXBean {
+        Map<String, OperationMetrics> getOperations();
+
+        LatencyHistogram.Snapshot getConnectionWait();
+
+        long getSlowStatementCount();
+
+        long getSessionOpenCount();
+
+        long getPrepareStatementCount();
+
+        /** Second-level cache hits over lookups, or -1 before the first lookup. */
+        double getSecondLevelCacheHitRatio();
+
+        /** Query cache hits over lookups, or -1 before the first lookup. */
+        double getQueryCacheHitRatio();
+
+        HibernateUtil.PoolMetrics getPool();
+    }
+
+    private static final class Operation {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder statements = new LongAdder();
+    }
+
+    /**
+     * Counters at the last summary, so the next one reports only its interval.
+     */
+    private record Summary(Map<String, long[]> latency, Map<String, Long> statements, long[] connectionWait,
+                           long slowStatements, long sessions, long cacheHits, long cacheMisses) {
+    }
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * Names the sessions opened until the scope closes, instead of looking the
+     * DAO method up on the stack. An outer scope's name wins.
+     */
+    public static Scope operation(String name) {
+        if (CURRENT.get() != null) {
+            return () -> {
+            };
+        }
+        CURRENT.set(name);
+        return CURRENT::remove;
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * The operation a session opening now belongs to.
+     */
+    static String currentOperation() {
+        String name = CURRENT.get();
+        if (name != null) {
+            return name;
+        }
+        name = STACK.walk(DaoMetrics::outermostDaoMethod);
+        return name != null ? name : "other";
+    }
+
+    /**
+     * Stops a few frames past the last DAO frame rather than walking the
+     * caller's whole stack, which would cost more than a short query.
+     */
+    private static String outermostDaoMethod(Stream<StackWalker.StackFrame> frames) {
+        String operation = null;
+        int sinceDao = 0;
+        for (Iterator<StackWalker.StackFrame> it = frames.iterator(); it.hasNext(); ) {
+            StackWalker.StackFrame frame = it.next();
+            Class<?> type = frame.getDeclaringClass();
+            if (type.getPackageName().equals(DAO_PACKAGE)) {
+                if (!frame.getMethodName().startsWith("lambda$")) {
+                    operation = type.getSimpleName() + "." + frame.getMethodName();
+                }
+                sinceDao = 0;
+            } else if (operation != null && ++sinceDao > MAX_FRAMES_BETWEEN_DAO_CALLS) {
+                break;
+            }
+        }
+        return operation;
+    }
+
+    static void sessionClosed(String operation, long nanos, int statements) {
+        Operation metrics = OPERATIONS.computeIfAbsent(operation, name -> new Operation());
+        metrics.latency.record(nanos);
+        metrics.statements.add(statements);
+    }
+
+    static void connectionAcquired(long nanos) {
+        CONNECTION_WAIT.record(nanos);
+    }
+
+    /**
+     * Logs a slow statement the first time it is seen in each summary
+     * interval; repeats are only counted, so a slow query in a loop does not
+     * flood the log.
+     */
+    static void statementExecuted(String operation, long nanos) {
+        if (nanos < SLOW_STATEMENT_NANOS) {
+            return;
+        }
+        SLOW_STATEMENTS.increment();
+        String sql = SqlCapture.lastStatement();
+        long now = System.nanoTime();
+        Long logged = SLOW_LOGGED.get(sql);
+        if (logged == null || now - logged > TimeUnit.SECONDS.toNanos(Math.max(1, LOG_INTERVAL_SECONDS))) {
+            if (SLOW_LOGGED.size() >= MAX_SLOW_STATEMENTS) {
+                SLOW_LOGGED.clear();
+            }
+            SLOW_LOGGED.put(sql, now);
+            logger.warn("Slow statement in {}: {} ms: {}", operation, nanos / 1_000_000, sql);
+        }
+    }
+
+    public static Map<String, OperationMetrics> getOperations() {
+        Map<String, OperationMetrics> operations = new TreeMap<>();
+        OPERATIONS.forEach((name, operation) -> operations.put(name,
+            new OperationMetrics(operation.statements.sum(), operation.latency.snapshot())));
+        return operations;
+    }
+
+    public static LatencyHistogram.Snapshot getConnectionWait() {
+        return CONNECTION_WAIT.snapshot();
+    }
+
+    public static long getSlowStatementCount() {
+        return SLOW_STATEMENTS.sum();
+    }
+
+    /**
+     * Registers the MXBean and starts the periodic summary; called by
+     * {@link HibernateUtil} once the SessionFactory is up.
+     */
+    public static synchronized void start(Statistics statistics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MXBean(statistics), name);
+            }
+        } catch (JMException e) {
+            logger.warn("DAO metrics not registered in JMX: {}", e.getMessage());
+        }
+        if (LOG_INTERVAL_SECONDS > 0 && reporter == null) {
+            reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "dao-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            lastSummary = summary(statistics);
+            reporter.scheduleAtFixedRate(() -> logSummary(statistics),
+                LOG_INTERVAL_SECONDS, LOG_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    public static synchronized void stop() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            logger.warn("DAO metrics not unregistered from JMX: {}", e.getMessage());
+        }
+    }
+
+    private static Summary summary(Statistics statistics) {
+        Map<String, long[]> latency = new HashMap<>();
+        Map<String, Long> statements = new HashMap<>();
+        OPERATIONS.forEach((name, operation) -> {
+            latency.put(name, operation.latency.counts());
+            statements.put(name, operation.statements.sum());
+        });
+        return new Summary(latency, statements, CONNECTION_WAIT.counts(), SLOW_STATEMENTS.sum(),
+            statistics.getSessionOpenCount(),
+            statistics.getSecondLevelCacheHitCount() + statistics.getQueryCacheHitCount(),
+            statistics.getSecondLevelCacheMissCount() + statistics.getQueryCacheMissCount());
+    }
+
+    /**
+     * One line for the interval, then one per operation that ran in it,
+     * slowest p99 first. Nothing is logged for an idle interval.
+     */
+    private static synchronized void logSummary(Statistics statistics) {
+        try {
+            Summary now = summary(statistics);
+            Summary last = lastSummary;
+            lastSummary = now;
+            long sessions = now.sessions() - last.sessions();
+            if (sessions == 0 || !logger.isInfoEnabled()) {
+                return;
+            }
+            long hits = now.cacheHits() - last.cacheHits();
+            long lookups = hits + now.cacheMisses() - last.cacheMisses();
+            LatencyHistogram.Snapshot wait = LatencyHistogram.since(last.connectionWait(), now.connectionWait());
+            HibernateUtil.PoolMetrics pool = HibernateUtil.getPoolMetrics();
+            StringBuilder text = new StringBuilder(String.format(
+                "DAO metrics, last %d s: %,d sessions, %s cache hits, connection wait p99 %.2f ms, " +
+                "pool %d active/%d idle/%d waiting, %,d slow statements",
+                LOG_INTERVAL_SECONDS, sessions, lookups == 0 ? "no" : String.format("%.0f%%", 100.0 * hits / lookups),
+                wait.p99Millis(), pool.active(), pool.idle(), pool.waiting(),
+                now.slowStatements() - last.slowStatements()));
+            now.latency().entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), LatencyHistogram.since(
+                    last.latency().getOrDefault(entry.getKey(), new long[entry.getValue().length]), entry.getValue())))
+                .filter(entry -> entry.getValue().count() > 0)
+                .sorted((a, b) -> Double.compare(b.getValue().p99Millis(), a.getValue().p99Millis()))
+                .forEach(entry -> {
+                    LatencyHistogram.Snapshot latency = entry.getValue();
+                    long statements = now.statements().get(entry.getKey())
+                        - last.statements().getOrDefault(entry.getKey(), 0L);
+                    text.append(String.format("%n  %-45s %,7d x  p50 %8.2f  p95 %8.2f  p99 %8.2f ms  %.1f stmt/x",
+                        entry.getKey(), latency.count(), latency.p50Millis(), latency.p95Millis(),
+                        latency.p99Millis(), (double) statements / latency.count()));
+                });
+            logger.info(text.toString());
+        } catch (RuntimeException e) {
+            // A failed summary must not cancel the ones after it
+            logger.warn("DAO metrics summary failed", e);
+        }
+    }
+
+    private static final class MXBean implements DaoMetricsMXBean {
+        private final Statistics statistics;
+
+        MXBean(Statistics statistics) {
+            this.statistics = statistics;
+        }
+
+        @Override
+        public Map<String, OperationMetrics> getOperations() {
+            return DaoMetrics.getOperations();
+        }
+
+        @Override
+        public LatencyHistogram.Snapshot getConnectionWait() {
+            return DaoMetrics.getConnectionWait();
+        }
+
+        @Override
+        public long getSlowStatementCount() {
+            return DaoMetrics.getSlowStatementCount();
+        }
+
+        @Override
+        public long getSessionOpenCount() {
+            return statistics.getSessionOpenCount();
+        }
+
+        @Override
+        public long getPrepareStatementCount() {
+            return statistics.getPrepareStatementCount();
+        }
+
+        @Override
+        public double getSecondLevelCacheHitRatio() {
+            return ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount());
+        }
+
+        @Override
+        public double getQueryCacheHitRatio() {
+            return ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+        }
+
+        @Override
+        public HibernateUtil.PoolMetrics getPool() {
+            return HibernateUtil.getPoolMetrics();
+        }
+
+        private static double ratio(long hits, long misses) {
+            return hits + misses == 0 ? -1 : (double) hits / (hits + misses);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.school.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with microsecond buckets: exact below 16 µs,
+ * then eight buckets per power of two, so any percentile is within 12.5% of
+ * the true value. Recording is a couple of atomic increments, cheap enough
+ * for every statement on the hot path.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR = 16;
+    // Up to 2^40 µs, about twelve days
+    private static final int BUCKETS = LINEAR + (40 - 4) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Counts and percentiles at one point in time, in milliseconds.
+     */
+    public record Snapshot(long count, double meanMillis, double p50Millis, double p95Millis, double p99Millis,
+                           double maxMillis) {
+        public static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0, 0);
+    }
+
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        buckets.incrementAndGet(bucket(micros));
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * The bucket counts so far, to compare with later ones in {@link #since}.
+     */
+    public long[] counts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    public Snapshot snapshot() {
+        return snapshot(counts(), totalNanos.get(), maxNanos.get());
+    }
+
+    /**
+     * What was recorded after {@code earlier} was taken with {@link #counts()}.
+     * The mean and maximum are estimated from the buckets.
+     */
+    public static Snapshot since(long[] earlier, long[] now) {
+        long[] delta = new long[BUCKETS];
+        long total = 0;
+        long max = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            delta[i] = now[i] - earlier[i];
+            if (delta[i] > 0) {
+                total += delta[i] * (lowerBound(i) + upperBound(i)) / 2 * 1_000;
+                max = upperBound(i) * 1_000;
+            }
+        }
+        return snapshot(delta, total, max);
+    }
+
+    private static Snapshot snapshot(long[] counts, long totalNanos, long maxNanos) {
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return Snapshot.EMPTY;
+        }
+        double maxMillis = maxNanos / 1e6;
+        return new Snapshot(count, totalNanos / 1e6 / count,
+            Math.min(maxMillis, percentile(counts, count, 0.50)),
+            Math.min(maxMillis, percentile(counts, count, 0.95)),
+            Math.min(maxMillis, percentile(counts, count, 0.99)),
+            maxMillis);
+    }
+
+    /**
+     * Upper bound of the bucket holding the {@code fraction} quantile, in milliseconds.
+     */
+    private static double percentile(long[] counts, long count, double fraction) {
+        long rank = (long) Math.ceil(count * fraction);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i) / 1e3;
+            }
+        }
+        return upperBound(counts.length - 1) / 1e3;
+    }
+
+    static int bucket(long micros) {
+        if (micros < LINEAR) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, LINEAR + (exponent - 4) * SUB_BUCKETS + subBucket);
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+        int subBucket = (bucket - LINEAR) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+        return lowerBound(bucket) + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,56 @@
+package com.school.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times one session from open to close, with the connection wait and the
+ * statements it executes, for {@link DaoMetrics}. Hibernate creates one per
+ * session, stateful or stateless, from {@code hibernate.session.events.auto}.
+ */
+public class SessionMetrics implements SessionEventListener {
+    private final String operation = DaoMetrics.currentOperation();
+    private final long opened = System.nanoTime();
+    private long connectionRequested;
+    private long statementStarted;
+    private int statements;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        connectionRequested = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        DaoMetrics.connectionAcquired(System.nanoTime() - connectionRequested);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statementEnded();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statementStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statementEnded();
+    }
+
+    @Override
+    public void end() {
+        DaoMetrics.sessionClosed(operation, System.nanoTime() - opened, statements);
+    }
+
+    private void statementEnded() {
+        statements++;
+        DaoMetrics.statementExecuted(operation, System.nanoTime() - statementStarted);
+    }
+}
@@ -0,0 +1,23 @@
+package com.school.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Remembers the last SQL Hibernate prepared on each thread, so a slow
+ * statement can be logged with its text. Installed as the SessionFactory's
+ * statement inspector; the SQL itself is passed through unchanged.
+ */
+public class SqlCapture implements StatementInspector {
+    private static final ThreadLocal<String> LAST = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        LAST.set(sql);
+        return sql;
+    }
+
+    static String lastStatement() {
+        String sql = LAST.get();
+        return sql != null ? sql : "(unknown)";
+    }
+}
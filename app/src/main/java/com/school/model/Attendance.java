@@ -0,0 +1,44 @@
+package com.school.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import java.time.LocalDate;
+
+@Data
+@Entity
+// The unique key leads with (subject_id, date) so it also serves the roll-call lookup
+@Table(name = "attendance", uniqueConstraints = @UniqueConstraint(
+    name = "uk_attendance_subject_date_student",
+    columnNames = {"subject_id", "date", "student_id"}))
+public class Attendance implements Versioned {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendance_seq")
+    @SequenceGenerator(name = "attendance_seq", sequenceName = "attendance_seq", allocationSize = 50)
+    private Long id;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Student student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subject_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Subject subject;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private Boolean present;
+}
\ No newline at end of file
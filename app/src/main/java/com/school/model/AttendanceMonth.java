@@ -0,0 +1,86 @@
+package com.school.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * One student's roll calls in one subject for a month, when attendance is
+ * stored monthly (see {@link com.school.dao.AttendanceDAO#STORAGE_PROPERTY}).
+ * Bit {@code day - 1} of each mask stands for that day of the month.
+ */
+@Data
+@Entity
+// The unique key leads with (subject_id, month_start) so it also serves the roll-call lookup
+@Table(name = "attendance_month", uniqueConstraints = @UniqueConstraint(
+    name = "uk_attendance_month_subject_month_student",
+    columnNames = {"subject_id", "month_start", "student_id"}))
+public class AttendanceMonth implements Versioned {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendance_month_seq")
+    @SequenceGenerator(name = "attendance_month_seq", sequenceName = "attendance_month_seq", allocationSize = 50)
+    private Long id;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    // Days a roll was called
+    @Column(name = "recorded_days", nullable = false)
+    private Integer recordedDays = 0;
+
+    // Days the student was present, a subset of recordedDays
+    @Column(name = "present_days", nullable = false)
+    private Integer presentDays = 0;
+
+    public boolean isRecorded(int day) {
+        return (recordedDays & bit(day)) != 0;
+    }
+
+    public boolean isPresent(int day) {
+        return (presentDays & bit(day)) != 0;
+    }
+
+    /**
+     * Records the student as present or absent on {@code day}.
+     *
+     * @return false if that was already recorded
+     */
+    public boolean mark(int day, boolean present) {
+        if (isRecorded(day) && isPresent(day) == present) {
+            return false;
+        }
+        recordedDays |= bit(day);
+        presentDays = present ? presentDays | bit(day) : presentDays & ~bit(day);
+        return true;
+    }
+
+    /**
+     * Forgets what was recorded for {@code day}.
+     *
+     * @return false if nothing was
+     */
+    public boolean unmark(int day) {
+        if (!isRecorded(day)) {
+            return false;
+        }
+        recordedDays &= ~bit(day);
+        presentDays &= ~bit(day);
+        return true;
+    }
+
+    private static int bit(int day) {
+        return 1 << (day - 1);
+    }
+}
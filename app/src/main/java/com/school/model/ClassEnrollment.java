@@ -0,0 +1,32 @@
+package com.school.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * A class taking a subject: every student of the class is on the subject's
+ * roll and grade sheet.
+ */
+@Data
+@Entity
+// The unique key leads with subject_id so it also serves the per-subject lookup
+@Table(name = "class_enrollment",
+    uniqueConstraints = @UniqueConstraint(name = "uk_class_enrollment", columnNames = {"subject_id", "class_name"}),
+    indexes = @Index(name = "idx_class_enrollment_class_name", columnList = "class_name"))
+public class ClassEnrollment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "class_enrollment_seq")
+    @SequenceGenerator(name = "class_enrollment_seq", sequenceName = "class_enrollment_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "class_name", nullable = false)
+    private String className;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subject_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Subject subject;
+}
@@ -0,0 +1,52 @@
+package com.school.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * The grades of one class in one subject and period, kept up to date by
+ * {@link com.school.dao.GradeDAO} writes. Read-only for everyone else.
+ */
+@Data
+@Entity
+@Table(name = "class_subject_summary", uniqueConstraints = @UniqueConstraint(
+    name = "uk_class_subject_summary",
+    columnNames = {"subject_id", "period", "class_name"}))
+public class ClassSubjectSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "class_name", nullable = false)
+    private String className;
+
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Column(nullable = false)
+    private String period;
+
+    @Column(name = "grade_count", nullable = false)
+    private Integer gradeCount;
+
+    @Column(name = "grade_sum", nullable = false)
+    private Double gradeSum;
+
+    @Column(name = "min_value", nullable = false)
+    private Double minValue;
+
+    @Column(name = "max_value", nullable = false)
+    private Double maxValue;
+
+    // Grades at or above GradebookDAO.PASSING_GRADE
+    @Column(name = "passed_count", nullable = false)
+    private Integer passedCount;
+
+    public double getAverage() {
+        return gradeSum / gradeCount;
+    }
+
+    public double getPassRate() {
+        return (double) passedCount / gradeCount;
+    }
+}
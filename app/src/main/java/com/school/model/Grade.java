@@ -0,0 +1,49 @@
+package com.school.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import java.util.List;
+
+@Data
+@Entity
+// The unique key leads with (subject_id, period) so it also serves the grade sheet lookup
+@Table(name = "grades", uniqueConstraints = @UniqueConstraint(
+    name = "uk_grades_subject_period_student",
+    columnNames = {"subject_id", "period", "student_id"}))
+public class Grade implements Versioned {
+    public static final List<String> PERIODS = List.of("1º Bimestre", "2º Bimestre", "3º Bimestre", "4º Bimestre");
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grades_seq")
+    @SequenceGenerator(name = "grades_seq", sequenceName = "grades_seq", allocationSize = 50)
+    private Long id;
+
+    // Bumped on every update; an update made from an older copy fails instead of overwriting this one.
+    // Rows written with plain SQL start at 0
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Student student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subject_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Subject subject;
+
+    // VALUE is a reserved word in H2
+    @Column(name = "grade_value", nullable = false)
+    private Double value;
+
+    @Column(nullable = false)
+    private String period;
+}
\ No newline at end of file
@@ -1,18 +1,27 @@
 package com.school.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDate;
 import java.util.Set;
 
 @Data
 @Entity
-@Table(name = "students")
-public class Student {
+@Table(name = "students", indexes = @Index(name = "idx_students_class_name", columnList = "className"))
+public class Student implements Versioned {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false)
     private String name;
 
@@ -29,8 +38,12 @@ public class Student {
     private String className;
 
     @OneToMany(mappedBy = "student")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<Grade> grades;
 
     @OneToMany(mappedBy = "student")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<Attendance> attendanceRecords;
 }
\ No newline at end of file
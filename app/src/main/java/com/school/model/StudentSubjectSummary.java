@@ -0,0 +1,44 @@
+package com.school.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * A student's grades in one subject across all periods, kept up to date by
+ * {@link com.school.dao.GradeDAO} writes. Read-only for everyone else.
+ */
+@Data
+@Entity
+@Table(name = "student_subject_summary", uniqueConstraints = @UniqueConstraint(
+    name = "uk_student_subject_summary",
+    columnNames = {"student_id", "subject_id"}))
+public class StudentSubjectSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Column(name = "grade_count", nullable = false)
+    private Integer gradeCount;
+
+    @Column(name = "grade_sum", nullable = false)
+    private Double gradeSum;
+
+    @Column(name = "min_value", nullable = false)
+    private Double minValue;
+
+    @Column(name = "max_value", nullable = false)
+    private Double maxValue;
+
+    /**
+     * Final average over the periods graded so far.
+     */
+    public double getAverage() {
+        return gradeSum / gradeCount;
+    }
+}
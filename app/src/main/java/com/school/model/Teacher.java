@@ -0,0 +1,41 @@
+package com.school.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import java.util.Set;
+
+@Data
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teachers")
+@Table(name = "teachers")
+public class Teacher implements Versioned {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false, unique = true)
+    private String email;
+
+    @Column(nullable = false)
+    private String department;
+
+    @OneToMany(mappedBy = "teacher")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teacher-subjects")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Subject> subjects;
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.school.model;
+
+/**
+ * An entity with an optimistic lock version, bumped by Hibernate on every update.
+ */
+public interface Versioned {
+    Long getVersion();
+
+    void setVersion(Long version);
+}
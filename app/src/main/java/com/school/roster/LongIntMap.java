@@ -0,0 +1,112 @@
+package com.school.roster;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to non-negative ints, with linear
+ * probing and no boxing: two flat arrays, whatever the number of entries.
+ * Removal shifts the following entries back instead of leaving tombstones,
+ * so lookups stay short after many removals. Not thread-safe.
+ */
+final class LongIntMap {
+    static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return the value of {@code key}, or {@link #MISSING}
+     */
+    int get(long key) {
+        for (int i = index(key); values[i] != MISSING; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * @param value zero or more
+     */
+    void put(long key, int value) {
+        int i = index(key);
+        for (; values[i] != MISSING; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        // At most half full, so probes stay short
+        if (++size * 2 > values.length) {
+            resize();
+        }
+    }
+
+    void remove(long key) {
+        int gap = index(key);
+        for (; values[gap] != MISSING; gap = (gap + 1) & mask) {
+            if (keys[gap] == key) {
+                break;
+            }
+        }
+        if (values[gap] == MISSING) {
+            return;
+        }
+        // Move back each following entry whose home lies at or before the gap
+        for (int i = (gap + 1) & mask; values[i] != MISSING; i = (i + 1) & mask) {
+            if (((i - index(keys[i])) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = MISSING;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(values, MISSING);
+        size = 0;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(values, MISSING);
+        mask = values.length - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != MISSING) {
+                int j = index(oldKeys[i]);
+                while (values[j] != MISSING) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private int index(long key) {
+        // Fibonacci hashing spreads sequential ids over the whole table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
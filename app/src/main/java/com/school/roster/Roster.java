@@ -0,0 +1,75 @@
+package com.school.roster;
+
+import java.util.List;
+
+/**
+ * Students of one or more classes in roll-call order: by class, then by
+ * name, the way the register lists them. An immutable snapshot from the
+ * {@link RosterStore}; later enrollments change the rosters handed out next,
+ * not this one. Ids are primitives and strings are decoded only when asked
+ * for, so walking a roster for its ids allocates nothing.
+ */
+public final class Roster {
+    static final Roster EMPTY = new Roster(new long[0], new int[0], new int[0], new String[0], null);
+
+    private final long[] ids;
+    private final int[] registrations;
+    private final int[] names;
+    private final String[] classNames;
+    private final TextStore text;
+
+    Roster(long[] ids, int[] registrations, int[] names, String[] classNames, TextStore text) {
+        this.ids = ids;
+        this.registrations = registrations;
+        this.names = names;
+        this.classNames = classNames;
+        this.text = text;
+    }
+
+    /**
+     * The entries of {@code parts} one after the other, all built on {@code text}.
+     */
+    static Roster join(List<Roster> parts, TextStore text) {
+        int size = 0;
+        for (Roster part : parts) {
+            size += part.size();
+        }
+        long[] ids = new long[size];
+        int[] registrations = new int[size];
+        int[] names = new int[size];
+        String[] classNames = new String[size];
+        int at = 0;
+        for (Roster part : parts) {
+            System.arraycopy(part.ids, 0, ids, at, part.size());
+            System.arraycopy(part.registrations, 0, registrations, at, part.size());
+            System.arraycopy(part.names, 0, names, at, part.size());
+            System.arraycopy(part.classNames, 0, classNames, at, part.size());
+            at += part.size();
+        }
+        return size == 0 ? EMPTY : new Roster(ids, registrations, names, classNames, text);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public long id(int index) {
+        return ids[index];
+    }
+
+    public String registration(int index) {
+        return text.get(registrations[index]);
+    }
+
+    public String name(int index) {
+        return text.get(names[index]);
+    }
+
+    public String className(int index) {
+        return classNames[index];
+    }
+}
@@ -0,0 +1,447 @@
+package com.school.roster;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Resident id, registration, name and class of every student, for the
+ * screens that list a class's roster. Each student gets a dense int slot in
+ * flat primitive arrays; ids and registrations find their slot through
+ * open-addressing tables of ints, and the strings live off the heap in a
+ * {@link TextStore}. The heap holds a few arrays however many students there
+ * are, so the store adds next to nothing to garbage collection.
+ * <p>
+ * {@link #roster} hands out immutable {@link Roster} snapshots, built on the
+ * first request after a change to the class and then returned as they are,
+ * so a lookup is a hash-map read.
+ * <p>
+ * Like {@link com.school.search.TextIndex}, the store is filled by the loader
+ * on first use and kept current by the DAO through {@link #put} and
+ * {@link #remove}; changes made before the first load are ignored. Thread-safe.
+ */
+public class RosterStore {
+    private static final int INITIAL_SLOTS = 1024;
+    private static final int INITIAL_TEXT = 64 << 10;
+    private static final int EMPTY = -1;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final Consumer<RosterStore> loader;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Per slot, with id 0 in the slots of removed students, which are reused
+    private long[] ids = new long[INITIAL_SLOTS];
+    private int[] registrations = new int[INITIAL_SLOTS];
+    private int[] registrationHashes = new int[INITIAL_SLOTS];
+    private int[] names = new int[INITIAL_SLOTS];
+    private int[] classes = new int[INITIAL_SLOTS];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private final LongIntMap slotsById = new LongIntMap(INITIAL_SLOTS);
+    // Open-addressing table of slots by registration hash, EMPTY where unused
+    private int[] slotsByRegistration = emptyTable(INITIAL_SLOTS * 2);
+    private final List<String> classNames = new ArrayList<>();
+    private final Map<String, Integer> classCodes = new HashMap<>();
+    private TextStore text = new TextStore(INITIAL_TEXT);
+    // Bytes of text no slot refers to any more
+    private int unusedText;
+    private final Map<String, Roster> rosters = new ConcurrentHashMap<>();
+    private volatile Roster everyone;
+    private volatile boolean loaded;
+    // Set while the loader runs, which holds the write lock
+    private Thread loadingThread;
+
+    /**
+     * @param loader fills an empty store, typically by {@link #put}ting every student
+     */
+    public RosterStore(Consumer<RosterStore> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Adds or replaces the student {@code id}.
+     */
+    public void put(long id, String registration, String name, String className) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded && loadingThread != Thread.currentThread()) {
+                return;
+            }
+            int slot = slotsById.get(id);
+            if (slot == LongIntMap.MISSING) {
+                slot = newSlot();
+                ids[slot] = id;
+                slotsById.put(id, slot);
+            } else if (text.matches(registrations[slot], registration) && text.matches(names[slot], name)
+                    && classNames.get(classes[slot]).equals(className)) {
+                return;
+            } else {
+                dropRosters(classNames.get(classes[slot]));
+                unlinkRegistration(slot);
+                unusedText += text.size(registrations[slot]) + text.size(names[slot]);
+            }
+            registrations[slot] = addText(registration);
+            names[slot] = addText(name);
+            registrationHashes[slot] = registration.hashCode();
+            linkRegistration(slot);
+            classes[slot] = classCodes.computeIfAbsent(className, key -> {
+                classNames.add(key);
+                return classNames.size() - 1;
+            });
+            dropRosters(className);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            if (slot == LongIntMap.MISSING) {
+                return;
+            }
+            dropRosters(classNames.get(classes[slot]));
+            unlinkRegistration(slot);
+            slotsById.remove(id);
+            ids[slot] = 0;
+            unusedText += text.size(registrations[slot]) + text.size(names[slot]);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops everything; the next lookup reloads the store. For writes that
+     * bypass the DAO, such as bulk loads.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the store now unless it already is, so the first lookup does not
+     * pay for it.
+     */
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                loadingThread = Thread.currentThread();
+                try {
+                    loader.accept(this);
+                    loaded = true;
+                } finally {
+                    loadingThread = null;
+                    if (!loaded) {
+                        clear();
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The students of {@code className}, empty if it has none.
+     */
+    public Roster roster(String className) {
+        load();
+        Roster roster = rosters.get(className);
+        if (roster != null) {
+            return roster;
+        }
+        lock.readLock().lock();
+        try {
+            // Writers drop rosters under the write lock, so none is cached out of date
+            return rosters.computeIfAbsent(className, this::build);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The students of each of {@code classNames}, by class and then by name.
+     */
+    public Roster roster(Collection<String> classNames) {
+        if (classNames.size() == 1) {
+            return roster(classNames.iterator().next());
+        }
+        load();
+        lock.readLock().lock();
+        try {
+            // Rosters cached now all read the current text store, so they can be joined
+            List<Roster> parts = new ArrayList<>();
+            for (String className : classNames) {
+                parts.add(rosters.computeIfAbsent(className, this::build));
+            }
+            parts.sort(Comparator.comparing(part -> part.isEmpty() ? "" : sortKey(part.className(0))));
+            return Roster.join(parts, text);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every student in the school, by class and then by name.
+     */
+    public Roster roster() {
+        load();
+        Roster roster = everyone;
+        if (roster != null) {
+            return roster;
+        }
+        lock.readLock().lock();
+        try {
+            synchronized (this) {
+                if (everyone == null) {
+                    everyone = build(EMPTY);
+                }
+                return everyone;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The id of the student with {@code registration}, if there is one.
+     */
+    public OptionalLong idOf(String registration) {
+        load();
+        lock.readLock().lock();
+        try {
+            int slot = findRegistration(registration);
+            return slot == EMPTY ? OptionalLong.empty() : OptionalLong.of(ids[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        load();
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Snapshot of the students of class {@code code}, or of everyone for
+     * {@link #EMPTY}, sorted by name regardless of case and accents, so
+     * "Ágata" comes before "Bruno".
+     */
+    private Roster build(String className) {
+        Integer code = classCodes.get(className);
+        return code == null ? Roster.EMPTY : build(code.intValue());
+    }
+
+    private Roster build(int code) {
+        String[] classKeys = new String[classNames.size()];
+        for (int i = 0; i < classKeys.length; i++) {
+            classKeys[i] = sortKey(classNames.get(i));
+        }
+        List<Member> members = new ArrayList<>();
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (ids[slot] != 0 && (code == EMPTY || classes[slot] == code)) {
+                String name = text.get(names[slot]);
+                members.add(new Member(slot, classKeys[classes[slot]], sortKey(name), name));
+            }
+        }
+        if (members.isEmpty()) {
+            return Roster.EMPTY;
+        }
+        members.sort(Comparator.comparing(Member::classKey)
+            .thenComparing(Member::nameKey)
+            .thenComparing(Member::name)
+            .thenComparingLong(member -> ids[member.slot()]));
+
+        int size = members.size();
+        long[] rosterIds = new long[size];
+        int[] rosterRegistrations = new int[size];
+        int[] rosterNames = new int[size];
+        String[] rosterClasses = new String[size];
+        for (int i = 0; i < size; i++) {
+            int slot = members.get(i).slot();
+            rosterIds[i] = ids[slot];
+            rosterRegistrations[i] = registrations[slot];
+            rosterNames[i] = names[slot];
+            rosterClasses[i] = classNames.get(classes[slot]);
+        }
+        return new Roster(rosterIds, rosterRegistrations, rosterNames, rosterClasses, text);
+    }
+
+    private void dropRosters(String className) {
+        rosters.remove(className);
+        everyone = null;
+    }
+
+    private int newSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = slotCount * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            registrations = Arrays.copyOf(registrations, capacity);
+            registrationHashes = Arrays.copyOf(registrationHashes, capacity);
+            names = Arrays.copyOf(names, capacity);
+            classes = Arrays.copyOf(classes, capacity);
+        }
+        return slotCount++;
+    }
+
+    /**
+     * Copies {@code value} into the text store. When it is full, the strings
+     * still in use move to a new one, which grows only if they took more than
+     * half of the old one; rosters already handed out keep reading the old one.
+     */
+    private int addText(String value) {
+        int offset = text.add(value);
+        if (offset >= 0) {
+            return offset;
+        }
+        // Room for twice the text in use, and for the value in UTF-8 at worst
+        int live = text.used() - unusedText;
+        TextStore moved = new TextStore(Math.max(text.capacity(), live * 2) + Short.BYTES + value.length() * 3);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (ids[slot] != 0) {
+                registrations[slot] = moved.add(text.get(registrations[slot]));
+                names[slot] = moved.add(text.get(names[slot]));
+            }
+        }
+        text = moved;
+        unusedText = 0;
+        // Rebuilt on the next lookup, on the new store
+        rosters.clear();
+        everyone = null;
+        return text.add(value);
+    }
+
+    private int findRegistration(String registration) {
+        int mask = slotsByRegistration.length - 1;
+        int hash = registration.hashCode();
+        for (int i = spread(hash) & mask; slotsByRegistration[i] != EMPTY; i = (i + 1) & mask) {
+            int slot = slotsByRegistration[i];
+            if (registrationHashes[slot] == hash && text.matches(registrations[slot], registration)) {
+                return slot;
+            }
+        }
+        return EMPTY;
+    }
+
+    private void linkRegistration(int slot) {
+        if (slotsById.size() * 2 > slotsByRegistration.length) {
+            int[] old = slotsByRegistration;
+            slotsByRegistration = emptyTable(old.length * 2);
+            for (int linked : old) {
+                if (linked != EMPTY) {
+                    insertRegistration(linked);
+                }
+            }
+        }
+        insertRegistration(slot);
+    }
+
+    private void insertRegistration(int slot) {
+        int mask = slotsByRegistration.length - 1;
+        int i = spread(registrationHashes[slot]) & mask;
+        while (slotsByRegistration[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        slotsByRegistration[i] = slot;
+    }
+
+    /**
+     * Removes {@code slot} from the registration table, shifting back the
+     * entries probed past it.
+     */
+    private void unlinkRegistration(int slot) {
+        int mask = slotsByRegistration.length - 1;
+        int gap = spread(registrationHashes[slot]) & mask;
+        while (slotsByRegistration[gap] != slot) {
+            if (slotsByRegistration[gap] == EMPTY) {
+                return;
+            }
+            gap = (gap + 1) & mask;
+        }
+        for (int i = (gap + 1) & mask; slotsByRegistration[i] != EMPTY; i = (i + 1) & mask) {
+            int home = spread(registrationHashes[slotsByRegistration[i]]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                slotsByRegistration[gap] = slotsByRegistration[i];
+                gap = i;
+            }
+        }
+        slotsByRegistration[gap] = EMPTY;
+    }
+
+    private void clear() {
+        Arrays.fill(ids, 0, slotCount, 0);
+        slotCount = 0;
+        freeCount = 0;
+        slotsById.clear();
+        Arrays.fill(slotsByRegistration, EMPTY);
+        classNames.clear();
+        classCodes.clear();
+        text = new TextStore(INITIAL_TEXT);
+        unusedText = 0;
+        rosters.clear();
+        everyone = null;
+    }
+
+    private static int[] emptyTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private static int spread(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    /**
+     * {@code text} in lower case without accents. A full collator orders
+     * names the same way but takes several times longer.
+     */
+    private static String sortKey(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                    .toLowerCase(Locale.ROOT);
+            }
+        }
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private record Member(int slot, String classKey, String nameKey, String name) {
+    }
+}
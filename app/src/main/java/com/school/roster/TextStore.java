@@ -0,0 +1,107 @@
+package com.school.roster;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strings kept outside the Java heap, in a direct buffer the collector never
+ * scans or copies, each addressed by its offset: an unsigned short length,
+ * then the UTF-8 bytes. Append-only; the owner moves the strings it still
+ * uses to a new store when this one fills up. A store no longer appended to
+ * never changes, so {@link Roster}s built on it stay readable. Appends are
+ * not thread-safe; reads of strings appended before are.
+ */
+final class TextStore {
+    private final ByteBuffer bytes;
+    private int used;
+
+    TextStore(int capacity) {
+        bytes = ByteBuffer.allocateDirect(capacity);
+    }
+
+    /**
+     * @return the offset of the copy, or -1 if it does not fit
+     */
+    int add(String text) {
+        byte[] utf8 = isAscii(text) ? null : text.getBytes(StandardCharsets.UTF_8);
+        int length = utf8 == null ? text.length() : utf8.length;
+        if (length > 0xFFFF) {
+            throw new IllegalArgumentException("Too long for the roster: " + text.substring(0, 40) + "...");
+        }
+        if (used + Short.BYTES + length > bytes.capacity()) {
+            return -1;
+        }
+        int offset = used;
+        bytes.putShort(offset, (short) length);
+        if (utf8 == null) {
+            for (int i = 0; i < length; i++) {
+                bytes.put(offset + Short.BYTES + i, (byte) text.charAt(i));
+            }
+        } else {
+            bytes.put(offset + Short.BYTES, utf8);
+        }
+        used += Short.BYTES + length;
+        return offset;
+    }
+
+    String get(int offset) {
+        byte[] text = new byte[length(offset)];
+        bytes.get(offset + Short.BYTES, text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether the string at {@code offset} equals {@code text}, without
+     * decoding it when both are ASCII.
+     */
+    boolean matches(int offset, String text) {
+        int length = length(offset);
+        if (length == text.length()) {
+            int i = 0;
+            for (; i < length; i++) {
+                byte b = bytes.get(offset + Short.BYTES + i);
+                if (b < 0) {
+                    break;
+                }
+                if (b != text.charAt(i)) {
+                    return false;
+                }
+            }
+            if (i == length) {
+                return true;
+            }
+        } else if (length < text.length()) {
+            // UTF-8 takes at least a byte per char
+            return false;
+        }
+        return get(offset).equals(text);
+    }
+
+    /**
+     * Bytes taken by the string at {@code offset}, length included.
+     */
+    int size(int offset) {
+        return Short.BYTES + length(offset);
+    }
+
+    int used() {
+        return used;
+    }
+
+    int capacity() {
+        return bytes.capacity();
+    }
+
+    private int length(int offset) {
+        return Short.toUnsignedInt(bytes.getShort(offset));
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
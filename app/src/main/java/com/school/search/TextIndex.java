@@ -0,0 +1,296 @@
+package com.school.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index for type-ahead search. Text is split into words,
+ * accents and case are dropped ("Conceição" is found by "conceicao") and every
+ * query word must be a prefix of some indexed word. Results are ranked: whole
+ * words beat prefixes, and matches in the first field (the name) beat the rest.
+ * <p>
+ * The index is filled by the loader on first use and kept current by the DAO
+ * through {@link #put} and {@link #remove}. Changes made before the first load
+ * are ignored, since the load reads them from the database anyway. Thread-safe.
+ */
+public class TextIndex {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final int WHOLE_WORD = 3;
+    private static final int PREFIX = 2;
+    private static final int FIRST_FIELD = 1;
+
+    private final Consumer<TextIndex> loader;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, IdList> postings = new TreeMap<>();
+    private final Map<Long, String[][]> documents = new HashMap<>();
+    private volatile boolean loaded;
+    // Set while the loader runs, which holds the write lock
+    private Thread loadingThread;
+
+    /**
+     * @param loader fills an empty index, typically by {@link #put}ting every row
+     */
+    public TextIndex(Consumer<TextIndex> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Adds or replaces the document {@code id}.
+     *
+     * @param fields searchable text, most important first; null fields are skipped
+     */
+    public void put(Long id, String... fields) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded && loadingThread != Thread.currentThread()) {
+                return;
+            }
+            removeDocument(id);
+            String[][] words = new String[fields.length][];
+            for (int i = 0; i < fields.length; i++) {
+                words[i] = tokenize(fields[i]).toArray(String[]::new);
+                for (int j = 0; j < words[i].length; j++) {
+                    String word = words[i][j];
+                    // Reuse the key instance so common words ("silva") are stored once
+                    String key = postings.ceilingKey(word);
+                    if (word.equals(key)) {
+                        words[i][j] = key;
+                    }
+                    postings.computeIfAbsent(words[i][j], k -> new IdList()).add(id);
+                }
+            }
+            documents.put(id, words);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops everything; the next search reloads the index. For writes that
+     * bypass the DAO, such as bulk imports.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the index now unless it already is, so the first search does not
+     * pay for it.
+     */
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                loadingThread = Thread.currentThread();
+                try {
+                    loader.accept(this);
+                    loaded = true;
+                } finally {
+                    loadingThread = null;
+                    if (!loaded) {
+                        postings.clear();
+                        documents.clear();
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids of the documents matching every word of {@code query}, best
+     *         match first; empty if the query has no words
+     */
+    public List<Long> search(String query) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        load();
+        // Expand only the longest (most selective) term; the others are checked per document
+        terms.sort(Comparator.comparingInt(String::length).reversed());
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = new HashMap<>();
+            for (IdList ids : postings.subMap(terms.get(0), true, terms.get(0) + Character.MAX_VALUE, true).values()) {
+                for (int i = 0; i < ids.size; i++) {
+                    Long id = ids.ids[i];
+                    if (!scores.containsKey(id)) {
+                        int score = score(documents.get(id), terms);
+                        if (score > 0) {
+                            scores.put(id, score);
+                        }
+                    }
+                }
+            }
+            List<Long> ids = new ArrayList<>(scores.keySet());
+            ids.sort(Comparator.<Long>comparingInt(scores::get).reversed().thenComparing(Comparator.naturalOrder()));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        load();
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower case, accent-free words of {@code text}. Words break on anything
+     * but letters and digits, and between letters and digits, so "R0001234"
+     * is also found by "0001".
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String plain = text;
+        if (!isAscii(text)) {
+            plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        }
+        plain = plain.toLowerCase(Locale.ROOT);
+
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < plain.length(); i++) {
+            char c = plain.charAt(i);
+            boolean digit = Character.isDigit(c);
+            if (!digit && !Character.isLetter(c)) {
+                if (start >= 0) {
+                    words.add(plain.substring(start, i));
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            } else if (Character.isDigit(plain.charAt(i - 1)) != digit) {
+                words.add(plain.substring(start, i));
+                start = i;
+            }
+        }
+        if (start >= 0) {
+            words.add(plain.substring(start));
+        }
+        return words;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sum over the terms of the best match each finds in the document, or 0 if
+     * some term matches nothing.
+     */
+    private static int score(String[][] fields, List<String> terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (int i = 0; i < fields.length; i++) {
+                for (String word : fields[i]) {
+                    int match = word.equals(term) ? WHOLE_WORD : word.startsWith(term) ? PREFIX : 0;
+                    if (match > 0) {
+                        best = Math.max(best, match + (i == 0 ? FIRST_FIELD : 0));
+                    }
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private void removeDocument(Long id) {
+        String[][] fields = documents.remove(id);
+        if (fields == null) {
+            return;
+        }
+        for (String[] words : fields) {
+            for (String word : words) {
+                IdList ids = postings.get(word);
+                if (ids != null && ids.remove(id) && ids.size == 0) {
+                    postings.remove(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorted, growable set of ids. Most words belong to a single row (emails,
+     * registrations), where this is several times smaller than a HashSet.
+     */
+    private static final class IdList {
+        private long[] ids = new long[1];
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
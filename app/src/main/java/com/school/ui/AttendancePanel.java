@@ -0,0 +1,342 @@
+// Update the AttendancePanel with enhanced functionality
+package com.school.ui;
+
+import com.school.dao.AttendanceDAO;
+import com.school.dao.StudentDAO;
+import com.school.dao.SubjectDAO;
+import com.school.dto.AttendanceRate;
+import com.school.dto.StudentRow;
+import com.school.export.Exporter;
+import com.school.model.Attendance;
+import com.school.model.Student;
+import com.school.model.Subject;
+import com.school.roster.Roster;
+import com.toedter.calendar.JDateChooser;
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AttendancePanel extends JPanel {
+    private final AttendanceDAO attendanceDAO;
+    private JTable attendanceTable;
+    private DefaultTableModel tableModel;
+    private JComboBox<Subject> subjectComboBox;
+    private JDateChooser dateChooser;
+    private final LatestLoad subjectsLoad = new LatestLoad();
+    private final LatestLoad attendanceLoad = new LatestLoad();
+    private final LatestLoad warningsLoad = new LatestLoad();
+    private final ClassFilter classFilter =
+        new ClassFilter(this::loadAttendance, e -> showError("Erro ao carregar turmas", e));
+    
+    public AttendancePanel() {
+        this.attendanceDAO = new AttendanceDAO();
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        // Header
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        
+        // Title
+        JLabel titleLabel = new JLabel("Controle de Frequência");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+        
+        // Date selection
+        JPanel datePanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        dateChooser = new JDateChooser();
+        dateChooser.setDate(new Date());
+        dateChooser.addPropertyChangeListener("date", e -> loadAttendance());
+        datePanel.add(new JLabel("Data:"));
+        datePanel.add(dateChooser);
+        headerPanel.add(datePanel, BorderLayout.EAST);
+        
+        add(headerPanel, BorderLayout.NORTH);
+
+        // Subject selection and filters
+        JPanel filtersPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        
+        // Subject dropdown
+        subjectComboBox = new JComboBox<>();
+        loadSubjects();
+        subjectComboBox.addActionListener(e -> loadClasses());
+        filtersPanel.add(new JLabel("Disciplina:"));
+        filtersPanel.add(subjectComboBox);
+        filtersPanel.add(new JLabel("Turma:"));
+        filtersPanel.add(classFilter.comboBox());
+        
+        JButton loadButton = new JButton("Carregar Lista");
+        loadButton.addActionListener(e -> loadAttendance());
+        filtersPanel.add(loadButton);
+
+        JButton exportButton = new JButton("Exportar frequência do ano");
+        exportButton.addActionListener(e -> exportAttendance());
+        filtersPanel.add(exportButton);
+
+        JButton warningButton = new JButton("Abaixo de 75%");
+        warningButton.setToolTipText("Alunos com frequência abaixo do mínimo na disciplina, no ano");
+        warningButton.addActionListener(e -> showAttendanceWarnings());
+        filtersPanel.add(warningButton);
+        
+        add(filtersPanel, BorderLayout.CENTER);
+
+        // Attendance table
+        String[] columns = {
+            "Matrícula", "Nome do Aluno", "Presente"
+        };
+        tableModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return column == 2; // Only presence is editable
+            }
+            
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column == 2 ? Boolean.class : String.class;
+            }
+        };
+        
+        attendanceTable = new JTable(tableModel);
+        attendanceTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        
+        JScrollPane scrollPane = new JScrollPane(attendanceTable);
+        add(scrollPane, BorderLayout.CENTER);
+
+        // Buttons panel
+        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        
+        JButton markAllPresentButton = new JButton("Marcar Todos Presentes");
+        markAllPresentButton.addActionListener(e -> markAllPresent());
+        buttonsPanel.add(markAllPresentButton);
+
+        JButton clearButton = new JButton("Limpar Registro");
+        clearButton.setToolTipText("Apaga a presença ou falta registrada para o aluno selecionado na data");
+        clearButton.addActionListener(e -> clearSelectedAttendance());
+        buttonsPanel.add(clearButton);
+        
+        JButton saveButton = new JButton("Salvar Frequência");
+        saveButton.addActionListener(e -> saveAttendance());
+        buttonsPanel.add(saveButton);
+        
+        add(buttonsPanel, BorderLayout.SOUTH);
+
+        // Load initial data
+        loadAttendance();
+    }
+
+    private void loadSubjects() {
+        subjectsLoad.start(
+            () -> new SubjectDAO().findAll(),
+            subjects -> {
+                // Selecting the first subject fires the combo listener, which loads its roll
+                for (Subject subject : subjects) {
+                    subjectComboBox.addItem(subject);
+                }
+            },
+            e -> showError("Erro ao carregar disciplinas", e));
+    }
+
+    private void loadClasses() {
+        Subject subject = (Subject) subjectComboBox.getSelectedItem();
+        if (subject == null) {
+            loadAttendance();
+        } else {
+            // Loads the roll once the subject's classes are in
+            classFilter.load(subject.getId());
+        }
+    }
+
+    private void exportAttendance() {
+        Subject subject = (Subject) subjectComboBox.getSelectedItem();
+        if (subject == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.withDayOfYear(1);
+        FileExport.start(this, "Exportar frequência", "frequencia " + subject.getName() + " " + today.getYear(),
+            (file, format) -> new Exporter().exportAttendance(subject.getId(), firstDay, today, file, format));
+    }
+
+    private void showAttendanceWarnings() {
+        Subject subject = (Subject) subjectComboBox.getSelectedItem();
+        if (subject == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        Long subjectId = subject.getId();
+        warningsLoad.start(() -> {
+            List<AttendanceRate> rates = attendanceDAO.findBelowAttendance(
+                AttendanceDAO.MINIMUM_ATTENDANCE, subjectId, today.withDayOfYear(1), today);
+            Map<Long, StudentRow> students = new HashMap<>();
+            for (StudentRow student : new StudentDAO().findRows(
+                    rates.stream().map(AttendanceRate::studentId).toList())) {
+                students.put(student.id(), student);
+            }
+            List<Object[]> rows = new ArrayList<>();
+            for (AttendanceRate rate : rates) {
+                StudentRow student = students.get(rate.studentId());
+                if (student == null) {
+                    continue;
+                }
+                rows.add(new Object[]{
+                    student.registration(),
+                    student.name(),
+                    String.format("%.0f%%", rate.rate() * 100),
+                    rate.absences() + " de " + rate.days()
+                });
+            }
+            return rows;
+        }, rows -> {
+            DefaultTableModel model = new DefaultTableModel(
+                new String[]{"Matrícula", "Nome", "Frequência", "Faltas"}, 0);
+            TableRows.replace(model, rows);
+            JTable table = new JTable(model);
+            table.setEnabled(false);
+            JScrollPane scrollPane = new JScrollPane(table);
+            scrollPane.setPreferredSize(new Dimension(520, 300));
+            JOptionPane.showMessageDialog(this, rows.isEmpty()
+                    ? "Nenhum aluno abaixo de 75% em " + subject.getName() + "." : scrollPane,
+                "Frequência abaixo de 75% - " + subject.getName(), JOptionPane.WARNING_MESSAGE);
+        }, e -> showError("Erro ao consultar frequência", e));
+    }
+
+    private void loadAttendance() {
+        TableRows.replace(tableModel, List.of());
+        Subject selectedSubject = (Subject) subjectComboBox.getSelectedItem();
+        LocalDate selectedDate = selectedDate();
+        
+        if (selectedSubject == null || selectedDate == null) {
+            attendanceLoad.cancel();
+            return;
+        }
+        Long subjectId = selectedSubject.getId();
+        String className = classFilter.selected();
+        attendanceLoad.start(() -> {
+            Map<Long, Attendance> recorded = new HashMap<>();
+            for (Attendance attendance : attendanceDAO.findBySubjectAndDate(subjectId, selectedDate)) {
+                recorded.put(attendance.getStudent().getId(), attendance);
+            }
+            // The roll lists the students of the subject's classes, as marked so far
+            List<Object[]> rows = new ArrayList<>();
+            Roster students = classFilter.roster(subjectId, className);
+            for (int i = 0; i < students.size(); i++) {
+                Attendance attendance = recorded.remove(students.id(i));
+                rows.add(attendance != null ? toRow(attendance) : new Object[]{
+                    students.registration(i),
+                    students.name(i),
+                    false
+                });
+            }
+            if (className == null) {
+                // Marked although their class does not take the subject (any more)
+                for (Attendance attendance : recorded.values()) {
+                    rows.add(toRow(attendance));
+                }
+            }
+            return rows;
+        }, rows -> TableRows.replace(tableModel, rows), e -> showError("Erro ao carregar frequência", e));
+    }
+
+    private LocalDate selectedDate() {
+        Date date = dateChooser.getDate();
+        return date == null ? null : date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private Object[] toRow(Attendance attendance) {
+        Student student = attendance.getStudent();
+        return new Object[]{
+            student.getRegistration(),
+            student.getName(),
+            attendance.getPresent()
+        };
+    }
+
+    private void markAllPresent() {
+        for (int i = 0; i < tableModel.getRowCount(); i++) {
+            tableModel.setValueAt(true, i, 2);
+        }
+    }
+
+    private void clearSelectedAttendance() {
+        Subject selectedSubject = (Subject) subjectComboBox.getSelectedItem();
+        LocalDate selectedDate = selectedDate();
+        int row = attendanceTable.getSelectedRow();
+        if (selectedSubject == null || row < 0) {
+            showError("Selecione um aluno", null);
+            return;
+        }
+        if (selectedDate == null) {
+            showError("Selecione uma data", null);
+            return;
+        }
+        String registration = (String) tableModel.getValueAt(attendanceTable.convertRowIndexToModel(row), 0);
+        if (JOptionPane.showConfirmDialog(this,
+                "Apagar o registro de frequência deste aluno em "
+                    + selectedDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) + "?",
+                "Confirmar Exclusão",
+                JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        Long subjectId = selectedSubject.getId();
+        UiTasks.write(() -> {
+            Student student = new StudentDAO().findByRegistration(registration);
+            if (student != null) {
+                attendanceDAO.delete(student.getId(), subjectId, selectedDate);
+            }
+        }, () -> {
+            loadAttendance();
+            showSuccess("Registro de frequência apagado!");
+        }, e -> showError("Erro ao apagar registro de frequência", e));
+    }
+
+    private void saveAttendance() {
+        Subject selectedSubject = (Subject) subjectComboBox.getSelectedItem();
+        LocalDate selectedDate = selectedDate();
+        
+        if (selectedSubject == null) {
+            showError("Selecione uma disciplina", null);
+            return;
+        }
+        if (selectedDate == null) {
+            showError("Selecione uma data", null);
+            return;
+        }
+        
+        Map<String, Boolean> presenceByRegistration = new LinkedHashMap<>();
+        
+        for (int i = 0; i < tableModel.getRowCount(); i++) {
+            String registration = (String) tableModel.getValueAt(i, 0);
+            Boolean present = (Boolean) tableModel.getValueAt(i, 2);
+            presenceByRegistration.put(registration, present);
+        }
+        
+        Long subjectId = selectedSubject.getId();
+        UiTasks.write(
+            () -> attendanceDAO.saveRoll(subjectId, selectedDate, presenceByRegistration),
+            () -> showSuccess("Frequência salva com sucesso!"),
+            e -> showError("Erro ao salvar frequência", e));
+    }
+
+    private void showError(String message, Exception e) {
+        JOptionPane.showMessageDialog(this,
+            message + (e != null ? ": " + e.getMessage() : ""),
+            "Erro",
+            JOptionPane.ERROR_MESSAGE);
+    }
+
+    private void showSuccess(String message) {
+        JOptionPane.showMessageDialog(this,
+            message,
+            "Sucesso",
+            JOptionPane.INFORMATION_MESSAGE);
+    }
+}
\ No newline at end of file
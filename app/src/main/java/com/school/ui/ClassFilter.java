@@ -0,0 +1,84 @@
+package com.school.ui;
+
+import com.school.dao.EnrollmentDAO;
+import com.school.roster.Roster;
+import javax.swing.*;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Combo box of the classes taking a subject, after an entry for all of them,
+ * that narrows a roll or grade sheet to one class. Refilled in the background
+ * when the subject changes; the listener runs once the new classes are in,
+ * not for each one added. Must only be used from the EDT, except
+ * {@link #roster}.
+ */
+class ClassFilter {
+    private static final String ALL_CLASSES = "Todas as turmas";
+
+    private final EnrollmentDAO enrollmentDAO = new EnrollmentDAO();
+    private final JComboBox<String> comboBox = new JComboBox<>(new String[]{ALL_CLASSES});
+    private final LatestLoad classesLoad = new LatestLoad();
+    private final Runnable onChange;
+    private final Consumer<Exception> onError;
+    private boolean filling;
+
+    /**
+     * @param onChange runs when the user picks a class, or the classes of a new subject are in
+     */
+    ClassFilter(Runnable onChange, Consumer<Exception> onError) {
+        this.onChange = onChange;
+        this.onError = onError;
+        comboBox.addActionListener(e -> {
+            if (!filling) {
+                onChange.run();
+            }
+        });
+    }
+
+    JComboBox<String> comboBox() {
+        return comboBox;
+    }
+
+    /**
+     * Lists the classes taking {@code subjectId}, keeping the selected one if
+     * it is among them.
+     */
+    void load(Long subjectId) {
+        classesLoad.start(() -> enrollmentDAO.findClassNames(subjectId), this::fill, onError);
+    }
+
+    /**
+     * The selected class, or null for all of them.
+     */
+    String selected() {
+        Object selected = comboBox.getSelectedItem();
+        return selected == null || ALL_CLASSES.equals(selected) ? null : (String) selected;
+    }
+
+    /**
+     * Students of {@code className} or, if null, of every class taking
+     * {@code subjectId}. Safe to call off the EDT.
+     */
+    Roster roster(Long subjectId, String className) {
+        return className == null
+            ? enrollmentDAO.findRosterBySubject(subjectId)
+            : enrollmentDAO.findRosterByClass(className);
+    }
+
+    private void fill(List<String> classNames) {
+        String selected = selected();
+        filling = true;
+        try {
+            comboBox.removeAllItems();
+            comboBox.addItem(ALL_CLASSES);
+            for (String className : classNames) {
+                comboBox.addItem(className);
+            }
+            comboBox.setSelectedItem(classNames.contains(selected) ? selected : ALL_CLASSES);
+        } finally {
+            filling = false;
+        }
+        onChange.run();
+    }
+}
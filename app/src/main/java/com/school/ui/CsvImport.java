@@ -0,0 +1,71 @@
+package com.school.ui;
+
+import com.school.importer.ImportProgress;
+import com.school.importer.ImportResult;
+import com.school.importer.RowImporter;
+import com.school.util.AsyncDataAccess;
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.nio.file.Path;
+
+/**
+ * The "import CSV" flow shared by the panels: pick a file, import it in the
+ * background behind a progress monitor that can cancel it, then say how many
+ * rows were imported and where the rejected ones went.
+ */
+class CsvImport {
+    private static final int PROGRESS_MAX = 1000;
+
+    private CsvImport() {
+    }
+
+    static void start(Component parent, String title, RowImporter<?> importer, Runnable onImported) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("Arquivos CSV", "csv"));
+        if (chooser.showOpenDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        ProgressMonitor monitor = new ProgressMonitor(parent, title, file.getFileName().toString(), 0, PROGRESS_MAX);
+        monitor.setMillisToDecideToPopup(200);
+        importer.onProgress(progress -> SwingUtilities.invokeLater(() -> showProgress(monitor, importer, progress)));
+
+        AsyncDataAccess.supply(() -> importer.importFile(file))
+            .whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                monitor.close();
+                if (error != null) {
+                    Exception e = UiTasks.unwrap(error);
+                    JOptionPane.showMessageDialog(parent, "Erro ao importar " + file.getFileName() + ": "
+                        + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                onImported.run();
+                JOptionPane.showMessageDialog(parent, describe(result), title,
+                    result.rejected() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+            }));
+    }
+
+    private static void showProgress(ProgressMonitor monitor, RowImporter<?> importer, ImportProgress progress) {
+        if (monitor.isCanceled()) {
+            importer.cancel();
+            return;
+        }
+        monitor.setNote(String.format("%,d importados, %,d rejeitados", progress.imported(), progress.rejected()));
+        // Reaching the maximum closes the monitor; the completion handler does that
+        monitor.setProgress(Math.min(PROGRESS_MAX - 1, (int) (progress.fraction() * PROGRESS_MAX)));
+    }
+
+    private static String describe(ImportResult result) {
+        StringBuilder message = new StringBuilder(String.format("%,d de %,d linhas importadas.",
+            result.imported(), result.rowsRead()));
+        if (result.cancelled()) {
+            message.append("\nImportação cancelada; as linhas já gravadas foram mantidas.");
+        }
+        if (result.rejectedRows() != null) {
+            message.append(String.format("%n%,d linhas rejeitadas, com o motivo, em:%n%s",
+                result.rejected(), result.rejectedRows()));
+        }
+        return message.toString();
+    }
+}
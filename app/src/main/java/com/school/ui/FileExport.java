@@ -0,0 +1,65 @@
+package com.school.ui;
+
+import com.school.export.ColumnarFormat;
+import com.school.export.CsvExport;
+import com.school.export.ExportFormat;
+import com.school.util.AsyncDataAccess;
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The "export" flow shared by the panels: pick where to save and in which
+ * format, export in the background, then say how many rows were written.
+ */
+class FileExport {
+    /**
+     * Writes the export to {@code file} and returns the number of rows.
+     */
+    interface Export {
+        long to(Path file, ExportFormat format) throws IOException;
+    }
+
+    private FileExport() {
+    }
+
+    static void start(Component parent, String title, String fileName, Export export) {
+        FileNameExtensionFilter csv = new FileNameExtensionFilter("Planilha CSV (*.csv)", CsvExport.INSTANCE.extension());
+        FileNameExtensionFilter columnar = new FileNameExtensionFilter("Colunar compacto (*.scol)",
+            ColumnarFormat.INSTANCE.extension());
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle(title);
+        chooser.setAcceptAllFileFilterUsed(false);
+        chooser.addChoosableFileFilter(csv);
+        chooser.addChoosableFileFilter(columnar);
+        chooser.setFileFilter(csv);
+        chooser.setSelectedFile(new File(fileName + "." + CsvExport.INSTANCE.extension()));
+        if (chooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        ExportFormat format = chooser.getFileFilter() == columnar ? ColumnarFormat.INSTANCE : CsvExport.INSTANCE;
+        Path file = withExtension(chooser.getSelectedFile().toPath(), format.extension());
+
+        parent.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        AsyncDataAccess.supply(() -> export.to(file, format))
+            .whenComplete((rows, error) -> SwingUtilities.invokeLater(() -> {
+                parent.setCursor(Cursor.getDefaultCursor());
+                if (error != null) {
+                    Exception e = UiTasks.unwrap(error);
+                    JOptionPane.showMessageDialog(parent, "Erro ao exportar " + file.getFileName() + ": "
+                        + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                JOptionPane.showMessageDialog(parent, String.format("%,d linhas exportadas para%n%s", rows, file),
+                    title, JOptionPane.INFORMATION_MESSAGE);
+            }));
+    }
+
+    private static Path withExtension(Path file, String extension) {
+        String name = file.getFileName().toString();
+        return name.toLowerCase().endsWith("." + extension) ? file : file.resolveSibling(name + "." + extension);
+    }
+}
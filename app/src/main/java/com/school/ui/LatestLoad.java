@@ -0,0 +1,48 @@
+package com.school.ui;
+
+import com.school.util.AsyncDataAccess;
+import javax.swing.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Runs a query in the background and hands its result to the EDT. Starting a
+ * new query cancels the one still in flight, so a slow, stale answer (e.g. for
+ * a subject the user already moved away from) never overwrites a newer one;
+ * one still running is left to finish and its answer is ignored. A query the
+ * busy pool dropped before it ran is started again.
+ * Must only be used from the EDT.
+ */
+class LatestLoad {
+    private CompletableFuture<?> current;
+
+    <T> void start(Callable<T> query, Consumer<T> onResult, Consumer<Exception> onError) {
+        cancel();
+        CompletableFuture<T> future = AsyncDataAccess.load(query);
+        current = future;
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (current != future) {
+                return;
+            }
+            current = null;
+            if (error == null) {
+                onResult.accept(result);
+            } else if (UiTasks.unwrap(error) instanceof CancellationException) {
+                // Dropped by a busy pool, not by us: cancel() forgets the query first
+                start(query, onResult, onError);
+            } else {
+                onError.accept(UiTasks.unwrap(error));
+            }
+        }));
+    }
+
+    void cancel() {
+        CompletableFuture<?> cancelled = current;
+        current = null;
+        if (cancelled != null) {
+            cancelled.cancel(false);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.school.ui;
 
+import com.school.journal.ChangeJournal;
 import javax.swing.*;
 import java.awt.*;
 
@@ -66,6 +67,8 @@ public class LoginFrame extends JFrame {
 
         // TODO: Implement actual authentication
         if ("admin".equals(username) && "admin".equals(password)) {
+            // Changes from now on are journaled as theirs
+            ChangeJournal.setActor(username);
             MainFrame mainFrame = new MainFrame();
             mainFrame.setVisible(true);
             this.dispose();
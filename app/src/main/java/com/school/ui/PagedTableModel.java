@@ -0,0 +1,298 @@
+package com.school.ui;
+
+import com.school.util.AsyncDataAccess;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Table model that fetches rows a page at a time, only when the table asks
+ * for them. Just the most recently used pages are kept, so memory stays flat
+ * no matter how many rows the table has.
+ * <p>
+ * Pages are fetched on background threads; rows of a page still in flight read
+ * as empty and are repainted when it arrives. Must only be used from the EDT.
+ */
+public abstract class PagedTableModel<T> extends AbstractTableModel {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_MAX_PAGES = 20;
+
+    /**
+     * Where the pages come from.
+     */
+    public interface PageSource<T> {
+        long count();
+
+        /**
+         * @param offset   index of the first row of the page
+         * @param previous last row of the page before, or null when that page
+         *                 is not loaded; keyset sources seek from it instead of
+         *                 skipping {@code offset} rows
+         */
+        List<T> fetch(long offset, T previous, int limit);
+    }
+
+    private final String[] columns;
+    private final int pageSize;
+    private final Map<Integer, List<T>> pages;
+    private final Map<Integer, CompletableFuture<?>> loading = new HashMap<>();
+    private CompletableFuture<?> counting;
+    private PageSource<T> source;
+    private int rowCount;
+    private int generation;
+    // Page 0 holds only the rows handed to setSource(source, rowCount, firstRows)
+    private boolean firstPagePartial;
+
+    protected PagedTableModel(String[] columns) {
+        this(columns, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    protected PagedTableModel(String[] columns, int pageSize, int maxPages) {
+        this.columns = columns;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(maxPages + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    protected abstract Object getColumnValue(T row, int column);
+
+    /**
+     * Called on the EDT when counting or fetching a page fails.
+     */
+    protected void onLoadError(Exception error) {
+    }
+
+    /**
+     * Keyset source over a table ordered by id: {@code after(id, limit)} returns
+     * the rows following that id, {@code at(offset, limit)} is only used when
+     * jumping to a page whose predecessor is not loaded.
+     */
+    public static <T> PageSource<T> keyset(LongSupplier count,
+                                           BiFunction<Long, Integer, List<T>> after,
+                                           BiFunction<Long, Integer, List<T>> at,
+                                           ToLongFunction<T> idOf) {
+        return new PageSource<>() {
+            @Override
+            public long count() {
+                return count.getAsLong();
+            }
+
+            @Override
+            public List<T> fetch(long offset, T previous, int limit) {
+                if (previous != null) {
+                    return after.apply(idOf.applyAsLong(previous), limit);
+                }
+                return offset == 0 ? after.apply(0L, limit) : at.apply(offset, limit);
+            }
+        };
+    }
+
+    /**
+     * Source over rows that are already in memory, such as search results.
+     */
+    public static <T> PageSource<T> list(List<T> rows) {
+        return new PageSource<>() {
+            @Override
+            public long count() {
+                return rows.size();
+            }
+
+            @Override
+            public List<T> fetch(long offset, T previous, int limit) {
+                int from = (int) Math.min(offset, rows.size());
+                return rows.subList(from, Math.min(from + limit, rows.size()));
+            }
+        };
+    }
+
+    /**
+     * Source over a list of ids that is already known, such as ranked search
+     * hits: only the rows of the pages actually shown are read.
+     */
+    public static <T> PageSource<T> ids(List<Long> ids, Function<List<Long>, List<T>> rowsFor) {
+        return new PageSource<>() {
+            @Override
+            public long count() {
+                return ids.size();
+            }
+
+            @Override
+            public List<T> fetch(long offset, T previous, int limit) {
+                int from = (int) Math.min(offset, ids.size());
+                return rowsFor.apply(ids.subList(from, Math.min(from + limit, ids.size())));
+            }
+        };
+    }
+
+    public void setSource(PageSource<T> source) {
+        this.source = source;
+        refresh();
+    }
+
+    /**
+     * Installs a source whose row count and first rows the caller already has,
+     * e.g. from the background task that ran a search, so they show without
+     * another round trip. The rest of the first page is fetched when the table
+     * scrolls to it.
+     */
+    public void setSource(PageSource<T> source, long rowCount, List<T> firstRows) {
+        this.source = source;
+        generation++;
+        cancelLoads();
+        pages.clear();
+        this.rowCount = (int) Math.min(Integer.MAX_VALUE, rowCount);
+        if (!firstRows.isEmpty()) {
+            pages.put(0, firstRows);
+        }
+        firstPagePartial = firstRows.size() < Math.min(pageSize, this.rowCount);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Drops every loaded page and re-counts the rows, e.g. after a save.
+     * Loads still in flight for the old data are cancelled.
+     */
+    public void refresh() {
+        int requested = ++generation;
+        cancelLoads();
+        pages.clear();
+        firstPagePartial = false;
+        rowCount = 0;
+        fireTableDataChanged();
+        if (source == null) {
+            return;
+        }
+        countRows(requested, source);
+    }
+
+    private void countRows(int requested, PageSource<T> current) {
+        CompletableFuture<Long> count = AsyncDataAccess.load(current::count);
+        counting = count;
+        count.whenComplete((rows, error) -> SwingUtilities.invokeLater(() -> {
+            if (requested != generation) {
+                return;
+            }
+            counting = null;
+            if (error != null) {
+                Exception cause = UiTasks.unwrap(error);
+                if (cause instanceof CancellationException) {
+                    // Dropped by a busy pool, not by us: the count is still wanted
+                    countRows(requested, current);
+                } else {
+                    onLoadError(cause);
+                }
+                return;
+            }
+            rowCount = (int) Math.min(Integer.MAX_VALUE, rows);
+            fireTableDataChanged();
+        }));
+    }
+
+    /**
+     * @return the row, or null while its page is still being fetched
+     */
+    public T getRow(int row) {
+        int pageIndex = row / pageSize;
+        List<T> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+        int index = row % pageSize;
+        if (index < page.size()) {
+            return page.get(index);
+        }
+        if (pageIndex == 0 && firstPagePartial) {
+            requestPage(0);
+        }
+        return null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        T item = getRow(row);
+        return item == null ? null : getColumnValue(item, column);
+    }
+
+    private void requestPage(int pageIndex) {
+        if (loading.containsKey(pageIndex) || source == null) {
+            return;
+        }
+        List<T> previousPage = pageIndex == 0 ? null : pages.get(pageIndex - 1);
+        T previous = previousPage == null || previousPage.isEmpty()
+            ? null
+            : previousPage.get(previousPage.size() - 1);
+        long offset = (long) pageIndex * pageSize;
+        PageSource<T> current = source;
+        int requested = generation;
+
+        CompletableFuture<List<T>> fetch = AsyncDataAccess.load(
+            () -> current.fetch(offset, previous, pageSize));
+        loading.put(pageIndex, fetch);
+        fetch.whenComplete((page, error) -> SwingUtilities.invokeLater(() -> {
+            if (requested != generation) {
+                return;
+            }
+            loading.remove(pageIndex);
+            int first = pageIndex * pageSize;
+            int last = Math.min(first + pageSize, rowCount) - 1;
+            if (error != null && UiTasks.unwrap(error) instanceof CancellationException) {
+                // Dropped by a busy pool: repainting asks for it again if it is still in view
+                if (first <= last) {
+                    fireTableRowsUpdated(first, last);
+                }
+                return;
+            }
+            if (pageIndex == 0) {
+                firstPagePartial = false;
+            }
+            if (error != null) {
+                // Keep the page empty until the next refresh instead of retrying on every repaint
+                pages.put(pageIndex, List.of());
+                onLoadError(UiTasks.unwrap(error));
+                return;
+            }
+            pages.put(pageIndex, page);
+            if (first <= last) {
+                fireTableRowsUpdated(first, last);
+            }
+        }));
+    }
+
+    private void cancelLoads() {
+        if (counting != null) {
+            counting.cancel(false);
+            counting = null;
+        }
+        loading.values().forEach(load -> load.cancel(false));
+        loading.clear();
+    }
+}
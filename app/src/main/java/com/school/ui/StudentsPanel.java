@@ -1,17 +1,18 @@
 package com.school.ui;
 
 import com.school.dao.StudentDAO;
+import com.school.dto.StudentRow;
+import com.school.importer.StudentImporter;
 import com.school.model.Student;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
-import java.util.List;
 
 public class StudentsPanel extends JPanel {
     private final StudentDAO studentDAO;
     private JTable studentsTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<StudentRow> tableModel;
+    private TypeAheadSearch<StudentRow> typeAhead;
 
     public StudentsPanel() {
         this.studentDAO = new StudentDAO();
@@ -30,6 +31,11 @@ public class StudentsPanel extends JPanel {
         addButton.addActionListener(e -> showStudentDialog(null));
         buttonPanel.add(addButton);
 
+        JButton importButton = new JButton("Importar CSV");
+        importButton.addActionListener(e ->
+            CsvImport.start(this, "Importando alunos", new StudentImporter(), this::loadStudents));
+        buttonPanel.add(importButton);
+
         // Combine header and button
         JPanel topPanel = new JPanel(new BorderLayout());
         topPanel.add(headerPanel, BorderLayout.WEST);
@@ -51,13 +57,29 @@ public class StudentsPanel extends JPanel {
 
         // Students Table
         String[] columns = {"Nome", "Matrícula", "Email", "Data de Nascimento", "Turma", "Ações"};
-        tableModel = new DefaultTableModel(columns, 0) {
+        tableModel = new PagedTableModel<>(columns) {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+            protected Object getColumnValue(StudentRow student, int column) {
+                return switch (column) {
+                    case 0 -> student.name();
+                    case 1 -> student.registration();
+                    case 2 -> student.email();
+                    case 3 -> student.birthDate();
+                    case 4 -> student.className();
+                    default -> "Ações";
+                };
+            }
+
+            @Override
+            protected void onLoadError(Exception error) {
+                showError("Erro ao carregar alunos", error);
             }
         };
         
+        typeAhead = new TypeAheadSearch<>("Alunos", searchField, tableModel,
+            studentDAO::preloadSearchIndex, studentDAO::searchIds, studentDAO::findRows,
+            this::loadStudents, e -> showError("Erro ao buscar alunos", e));
+
         studentsTable = new JTable(tableModel);
         studentsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         
@@ -69,38 +91,13 @@ public class StudentsPanel extends JPanel {
     }
 
     private void loadStudents() {
-        tableModel.setRowCount(0);
-        try {
-            List<Student> students = studentDAO.findAll();
-            for (Student student : students) {
-                addStudentToTable(student);
-            }
-        } catch (Exception e) {
-            showError("Erro ao carregar alunos", e);
-        }
-    }
-
-    private void addStudentToTable(Student student) {
-        tableModel.addRow(new Object[]{
-            student.getName(),
-            student.getRegistration(),
-            student.getEmail(),
-            student.getBirthDate(),
-            student.getClassName(),
-            "Ações"
-        });
+        typeAhead.cancel();
+        tableModel.setSource(PagedTableModel.keyset(
+            studentDAO::count, studentDAO::findPage, studentDAO::findPageAt, StudentRow::id));
     }
 
     private void searchStudents(String query) {
-        try {
-            List<Student> students = studentDAO.search(query);
-            tableModel.setRowCount(0);
-            for (Student student : students) {
-                addStudentToTable(student);
-            }
-        } catch (Exception e) {
-            showError("Erro ao buscar alunos", e);
-        }
+        typeAhead.searchNow(query);
     }
 
     private void showStudentDialog(Student student) {
@@ -155,15 +152,21 @@ public class StudentsPanel extends JPanel {
                     newStudent.setBirthDate(LocalDate.parse(fields[3].getText().trim()));
                     newStudent.setClassName(fields[4].getText().trim());
 
-                    if (student == null) {
-                        studentDAO.save(newStudent);
-                    } else {
-                        studentDAO.update(newStudent);
-                    }
-
-                    loadStudents();
-                    dialog.dispose();
-                    showSuccess("Aluno salvo com sucesso!");
+                    saveButton.setEnabled(false);
+                    UiTasks.write(() -> {
+                        if (student == null) {
+                            studentDAO.save(newStudent);
+                        } else {
+                            studentDAO.update(newStudent);
+                        }
+                    }, () -> {
+                        loadStudents();
+                        dialog.dispose();
+                        showSuccess("Aluno salvo com sucesso!");
+                    }, ex -> {
+                        saveButton.setEnabled(true);
+                        showError("Erro ao salvar aluno", ex);
+                    });
                 }
             } catch (Exception ex) {
                 showError("Erro ao salvar aluno", ex);
@@ -0,0 +1,186 @@
+package com.school.ui;
+
+import com.school.dao.EnrollmentDAO;
+import com.school.dao.StudentDAO;
+import com.school.dao.SubjectDAO;
+import com.school.dto.SubjectRow;
+import com.school.model.Subject;
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+public class SubjectsPanel extends JPanel {
+    private final SubjectDAO subjectDAO;
+    private JTable subjectsTable;
+    private PagedTableModel<SubjectRow> tableModel;
+    private TypeAheadSearch<SubjectRow> typeAhead;
+    private final EnrollmentDAO enrollmentDAO = new EnrollmentDAO();
+    private final LatestLoad classesLoad = new LatestLoad();
+    private final String[] defaultSubjects = {
+        "Língua Portuguesa",
+        "Língua Inglesa",
+        "Literatura",
+        "História",
+        "Geografia",
+        "Sociologia",
+        "Filosofia",
+        "Matemática",
+        "Física",
+        "Química",
+        "Biologia",
+        "Artes",
+        "Educação Física"
+    };
+
+    public SubjectsPanel() {
+        this.subjectDAO = new SubjectDAO();
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        // Title Panel
+        JPanel titlePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JLabel titleLabel = new JLabel("Disciplinas");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
+        titlePanel.add(titleLabel);
+
+        // Button Panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JButton initializeButton = new JButton("Adicionar Disciplinas Padrão");
+        initializeButton.addActionListener(e -> initializeDefaultSubjects());
+        buttonPanel.add(initializeButton);
+        JButton classesButton = new JButton("Turmas da Disciplina");
+        classesButton.setToolTipText("Turmas que cursam a disciplina selecionada");
+        classesButton.addActionListener(e -> editClasses());
+        buttonPanel.add(classesButton);
+
+        // Top Panel combining title and button
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.add(titlePanel, BorderLayout.WEST);
+        topPanel.add(buttonPanel, BorderLayout.EAST);
+        add(topPanel, BorderLayout.NORTH);
+
+        // Search Panel
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JTextField searchField = new JTextField(30);
+        JButton searchButton = new JButton("Buscar");
+
+        searchField.addActionListener(e -> typeAhead.searchNow(searchField.getText()));
+        searchButton.addActionListener(e -> typeAhead.searchNow(searchField.getText()));
+
+        searchPanel.add(new JLabel("Buscar: "));
+        searchPanel.add(searchField);
+        searchPanel.add(searchButton);
+
+        // Table
+        String[] columns = {"Disciplina", "Carga Horária"};
+        tableModel = new PagedTableModel<>(columns) {
+            @Override
+            protected Object getColumnValue(SubjectRow subject, int column) {
+                return column == 0 ? subject.name() : subject.workload();
+            }
+
+            @Override
+            protected void onLoadError(Exception error) {
+                JOptionPane.showMessageDialog(SubjectsPanel.this,
+                    "Erro ao carregar disciplinas: " + error.getMessage(),
+                    "Erro",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        };
+        typeAhead = new TypeAheadSearch<>("Disciplinas", searchField, tableModel,
+            subjectDAO::preloadSearchIndex, subjectDAO::searchIds, subjectDAO::findRows,
+            this::loadSubjects,
+            e -> JOptionPane.showMessageDialog(this,
+                "Erro ao buscar disciplinas: " + e.getMessage(),
+                "Erro",
+                JOptionPane.ERROR_MESSAGE));
+
+        subjectsTable = new JTable(tableModel);
+        JScrollPane scrollPane = new JScrollPane(subjectsTable);
+
+        JPanel centerPanel = new JPanel(new BorderLayout());
+        centerPanel.add(searchPanel, BorderLayout.NORTH);
+        centerPanel.add(scrollPane, BorderLayout.CENTER);
+        add(centerPanel, BorderLayout.CENTER);
+
+        // Load existing subjects
+        loadSubjects();
+    }
+
+    private void loadSubjects() {
+        typeAhead.cancel();
+        tableModel.setSource(PagedTableModel.keyset(
+            subjectDAO::count, subjectDAO::findPage, subjectDAO::findPageAt, SubjectRow::id));
+    }
+
+    /**
+     * Lets the user pick the classes taking the selected subject, whose
+     * students then make up its roll and grade sheet.
+     */
+    private void editClasses() {
+        int row = subjectsTable.getSelectedRow();
+        SubjectRow subject = row < 0 ? null : tableModel.getRow(subjectsTable.convertRowIndexToModel(row));
+        if (subject == null) {
+            JOptionPane.showMessageDialog(this, "Selecione uma disciplina", "Turmas", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        classesLoad.start(
+            () -> new ClassChoice(new StudentDAO().findClassNames(), enrollmentDAO.findClassNames(subject.id())),
+            choice -> {
+                // Classes without students can still be enrolled
+                TreeSet<String> allClasses = new TreeSet<>(choice.classNames());
+                allClasses.addAll(choice.enrolled());
+                List<String> classNames = new ArrayList<>(allClasses);
+                JList<String> list = new JList<>(classNames.toArray(new String[0]));
+                list.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+                list.setSelectedIndices(choice.enrolled().stream().mapToInt(classNames::indexOf).toArray());
+                JScrollPane scrollPane = new JScrollPane(list);
+                scrollPane.setPreferredSize(new Dimension(260, 300));
+                if (JOptionPane.showConfirmDialog(this, scrollPane, "Turmas que cursam " + subject.name(),
+                        JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+                    return;
+                }
+                List<String> selected = list.getSelectedValuesList();
+                UiTasks.write(() -> enrollmentDAO.setClasses(subject.id(), selected),
+                    () -> JOptionPane.showMessageDialog(this,
+                        "Turmas atualizadas com sucesso!",
+                        "Sucesso",
+                        JOptionPane.INFORMATION_MESSAGE),
+                    e -> JOptionPane.showMessageDialog(this,
+                        "Erro ao salvar turmas: " + e.getMessage(),
+                        "Erro",
+                        JOptionPane.ERROR_MESSAGE));
+            },
+            e -> JOptionPane.showMessageDialog(this,
+                "Erro ao carregar turmas: " + e.getMessage(),
+                "Erro",
+                JOptionPane.ERROR_MESSAGE));
+    }
+
+    private record ClassChoice(List<String> classNames, List<String> enrolled) {
+    }
+
+    private void initializeDefaultSubjects() {
+        UiTasks.write(() -> {
+            List<Subject> subjects = new ArrayList<>();
+            for (String subjectName : defaultSubjects) {
+                Subject subject = new Subject();
+                subject.setName(subjectName);
+                subject.setWorkload(80); // Default workload
+                subjects.add(subject);
+            }
+            subjectDAO.saveAll(subjects);
+        }, () -> {
+            loadSubjects();
+            JOptionPane.showMessageDialog(this,
+                "Disciplinas adicionadas com sucesso!",
+                "Sucesso",
+                JOptionPane.INFORMATION_MESSAGE);
+        }, e -> JOptionPane.showMessageDialog(this,
+            "Erro ao adicionar disciplinas: " + e.getMessage(),
+            "Erro",
+            JOptionPane.ERROR_MESSAGE));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.school.ui;
+
+import javax.swing.table.DefaultTableModel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * Replaces all rows of a DefaultTableModel with a single change event, instead
+ * of one event (and one repaint) per addRow.
+ */
+class TableRows {
+    private TableRows() {
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static void replace(DefaultTableModel model, List<Object[]> rows) {
+        Vector<Vector> data = model.getDataVector();
+        data.clear();
+        data.ensureCapacity(rows.size());
+        for (Object[] row : rows) {
+            data.add(new Vector<>(Arrays.asList(row)));
+        }
+        model.fireTableDataChanged();
+    }
+}
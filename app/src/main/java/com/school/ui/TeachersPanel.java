@@ -1,16 +1,18 @@
 package com.school.ui;
 
 import com.school.dao.TeacherDAO;
+import com.school.dto.TeacherRow;
 import com.school.model.Teacher;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableCellRenderer;
 import java.awt.*;
-import java.util.List;
 
 public class TeachersPanel extends JPanel {
     private final TeacherDAO teacherDAO;
     private JTable teachersTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<TeacherRow> tableModel;
+    private TypeAheadSearch<TeacherRow> typeAhead;
+    private final LatestLoad editLoad = new LatestLoad();
 
     public TeachersPanel() {
         this.teacherDAO = new TeacherDAO();
@@ -50,13 +52,28 @@ public class TeachersPanel extends JPanel {
 
         // Teachers Table
         String[] columns = {"Nome", "Email", "Departamento", "Disciplinas", "Ações"};
-        tableModel = new DefaultTableModel(columns, 0) {
+        tableModel = new PagedTableModel<>(columns) {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+            protected Object getColumnValue(TeacherRow teacher, int column) {
+                return switch (column) {
+                    case 0 -> teacher.name();
+                    case 1 -> teacher.email();
+                    case 2 -> teacher.department();
+                    case 3 -> teacher.subjects();
+                    default -> "Ações";
+                };
+            }
+
+            @Override
+            protected void onLoadError(Exception error) {
+                showError("Erro ao carregar professores", error);
             }
         };
         
+        typeAhead = new TypeAheadSearch<>("Professores", searchField, tableModel,
+            teacherDAO::preloadSearchIndex, teacherDAO::searchIds, teacherDAO::findRows,
+            this::loadTeachers, e -> showError("Erro ao buscar professores", e));
+
         teachersTable = new JTable(tableModel);
         teachersTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         
@@ -75,32 +92,36 @@ public class TeachersPanel extends JPanel {
         teachersTable.getColumn("Ações").setCellEditor(new ButtonEditor(new JCheckBox()) {
             @Override
             protected void editItem(int row) {
-                Teacher teacher = getTeacherAtRow(row);
+                TeacherRow teacher = getTeacherAtRow(row);
                 if (teacher != null) {
-                    showTeacherDialog(teacher);
+                    // The table only holds projections; edit the current entity
+                    editLoad.start(
+                        () -> teacherDAO.findById(teacher.id()),
+                        entity -> {
+                            if (entity != null) {
+                                showTeacherDialog(entity);
+                            }
+                        },
+                        e -> showError("Erro ao recuperar dados do professor", e));
                 }
             }
 
             @Override
             protected void deleteItem(int row) {
-                Teacher teacher = getTeacherAtRow(row);
+                TeacherRow teacher = getTeacherAtRow(row);
                 if (teacher != null && confirmDelete()) {
-                    try {
-                        teacherDAO.delete(teacher.getId());
+                    UiTasks.write(() -> teacherDAO.delete(teacher.id()), () -> {
                         loadTeachers();
                         showSuccess("Professor removido com sucesso!");
-                    } catch (Exception e) {
-                        showError("Erro ao remover professor", e);
-                    }
+                    }, e -> showError("Erro ao remover professor", e));
                 }
             }
         });
     }
 
-    private Teacher getTeacherAtRow(int row) {
+    private TeacherRow getTeacherAtRow(int row) {
         try {
-            String email = (String) tableModel.getValueAt(row, 1);
-            return teacherDAO.findByEmail(email);
+            return tableModel.getRow(row);
         } catch (Exception e) {
             showError("Erro ao recuperar dados do professor", e);
             return null;
@@ -108,39 +129,13 @@ public class TeachersPanel extends JPanel {
     }
 
     private void loadTeachers() {
-        tableModel.setRowCount(0);
-        try {
-            List<Teacher> teachers = teacherDAO.findAll();
-            for (Teacher teacher : teachers) {
-                addTeacherToTable(teacher);
-            }
-        } catch (Exception e) {
-            showError("Erro ao carregar professores", e);
-        }
-    }
-
-    private void addTeacherToTable(Teacher teacher) {
-        tableModel.addRow(new Object[]{
-            teacher.getName(),
-            teacher.getEmail(),
-            teacher.getDepartment(),
-            String.join(", ", teacher.getSubjects().stream()
-                .map(subject -> subject.getName())
-                .toList()),
-            "Ações"
-        });
+        typeAhead.cancel();
+        tableModel.setSource(PagedTableModel.keyset(
+            teacherDAO::count, teacherDAO::findPage, teacherDAO::findPageAt, TeacherRow::id));
     }
 
     private void searchTeachers(String query) {
-        try {
-            List<Teacher> teachers = teacherDAO.search(query);
-            tableModel.setRowCount(0);
-            for (Teacher teacher : teachers) {
-                addTeacherToTable(teacher);
-            }
-        } catch (Exception e) {
-            showError("Erro ao buscar professores", e);
-        }
+        typeAhead.searchNow(query);
     }
 
     private void showTeacherDialog(Teacher teacher) {
@@ -191,15 +186,21 @@ public class TeachersPanel extends JPanel {
                     newTeacher.setEmail(fields[1].getText().trim());
                     newTeacher.setDepartment(fields[2].getText().trim());
 
-                    if (teacher == null) {
-                        teacherDAO.save(newTeacher);
-                    } else {
-                        teacherDAO.update(newTeacher);
-                    }
-
-                    loadTeachers();
-                    dialog.dispose();
-                    showSuccess("Professor salvo com sucesso!");
+                    saveButton.setEnabled(false);
+                    UiTasks.write(() -> {
+                        if (teacher == null) {
+                            teacherDAO.save(newTeacher);
+                        } else {
+                            teacherDAO.update(newTeacher);
+                        }
+                    }, () -> {
+                        loadTeachers();
+                        dialog.dispose();
+                        showSuccess("Professor salvo com sucesso!");
+                    }, ex -> {
+                        saveButton.setEnabled(true);
+                        showError("Erro ao salvar professor", ex);
+                    });
                 }
             } catch (Exception ex) {
                 showError("Erro ao salvar professor", ex);
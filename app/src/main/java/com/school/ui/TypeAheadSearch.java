@@ -0,0 +1,126 @@
+package com.school.ui;
+
+import com.school.util.AsyncDataAccess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Search-as-you-type for a paged table. The search runs once typing pauses
+ * for {@link #DEBOUNCE_MILLIS}, or right away on {@link #searchNow}; a newer
+ * search cancels the one in flight. The background task returns the ranked
+ * ids together with the first {@link #FIRST_ROWS} rows, so those show as soon
+ * as the search finishes and the rest are read page by page while scrolling.
+ * <p>
+ * The time from the last keystroke to the first rows is logged at debug level.
+ * Must only be used from the EDT.
+ */
+class TypeAheadSearch<T> {
+    static final int DEBOUNCE_MILLIS = 250;
+    static final int FIRST_ROWS = 50;
+
+    private static final Logger logger = LoggerFactory.getLogger(TypeAheadSearch.class);
+
+    private record Hits<T>(List<Long> ids, List<T> firstRows) {
+    }
+
+    private final String name;
+    private final PagedTableModel<T> model;
+    private final Function<String, List<Long>> searchIds;
+    private final Function<List<Long>, List<T>> findRows;
+    private final Runnable showAll;
+    private final Consumer<Exception> onError;
+    private final LatestLoad load = new LatestLoad();
+    private final Timer debounce;
+    private long typedAt;
+
+    /**
+     * @param name    what is searched, for the log
+     * @param preload prepares the search (e.g. builds the index); run in the
+     *                background the first time the field gets the focus
+     * @param showAll restores the unfiltered table when the query is cleared
+     */
+    TypeAheadSearch(String name, JTextField field, PagedTableModel<T> model,
+                    Runnable preload,
+                    Function<String, List<Long>> searchIds,
+                    Function<List<Long>, List<T>> findRows,
+                    Runnable showAll, Consumer<Exception> onError) {
+        this.name = name;
+        this.model = model;
+        this.searchIds = searchIds;
+        this.findRows = findRows;
+        this.showAll = showAll;
+        this.onError = onError;
+        this.debounce = new Timer(DEBOUNCE_MILLIS, e -> search(field.getText()));
+        debounce.setRepeats(false);
+
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusGained(FocusEvent e) {
+                field.removeFocusListener(this);
+                AsyncDataAccess.run(preload);
+            }
+        });
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                typed();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                typed();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                typed();
+            }
+        });
+    }
+
+    /**
+     * Searches without waiting for the debounce, e.g. on Enter.
+     */
+    void searchNow(String query) {
+        typedAt = System.nanoTime();
+        search(query);
+    }
+
+    /**
+     * Drops the pending and in-flight searches, e.g. before reloading the table.
+     */
+    void cancel() {
+        debounce.stop();
+        load.cancel();
+    }
+
+    private void typed() {
+        typedAt = System.nanoTime();
+        debounce.restart();
+    }
+
+    private void search(String query) {
+        cancel();
+        if (query.isBlank()) {
+            showAll.run();
+            return;
+        }
+        long started = typedAt;
+        load.start(() -> {
+            List<Long> ids = searchIds.apply(query);
+            return new Hits<>(ids, findRows.apply(ids.subList(0, Math.min(FIRST_ROWS, ids.size()))));
+        }, hits -> {
+            model.setSource(PagedTableModel.ids(hits.ids(), findRows), hits.ids().size(), hits.firstRows());
+            logger.debug("{} search \"{}\": {} matches, first rows {} ms after the last keystroke",
+                name, query, hits.ids().size(), (System.nanoTime() - started) / 1_000_000);
+        }, onError);
+    }
+}
@@ -0,0 +1,36 @@
+package com.school.ui;
+
+import com.school.util.AsyncDataAccess;
+import javax.swing.*;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Helpers for running database writes from Swing listeners without blocking
+ * the EDT.
+ */
+class UiTasks {
+    private UiTasks() {
+    }
+
+    /**
+     * Runs {@code work} in the background, then {@code onSuccess} or
+     * {@code onError} on the EDT.
+     */
+    static void write(Runnable work, Runnable onSuccess, Consumer<Exception> onError) {
+        AsyncDataAccess.run(work).whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                onSuccess.run();
+            } else {
+                onError.accept(unwrap(error));
+            }
+        }));
+    }
+
+    static Exception unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+            ? error.getCause()
+            : error;
+        return cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+    }
+}
@@ -0,0 +1,106 @@
+package com.school.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs DAO calls on small, bounded pools of background threads so the Swing
+ * Event Dispatch Thread never waits on the database. Screen loads, which a
+ * newer load makes stale, and everything else (writes, imports, exports) run
+ * on separate pools, so a burst of loads can never drop or hold up a write.
+ * <p>
+ * Cancelling a returned future skips its task if it has not started yet. A
+ * task already running is never interrupted: an interrupt inside an H2 query
+ * closes the file store's channel and fails every later query, so the task
+ * runs to the end and its result is dropped.
+ */
+public class AsyncDataAccess {
+    private static final int LOAD_THREADS = 4;
+    private static final int TASK_THREADS = 2;
+    private static final int LOAD_QUEUE = 16;
+    private static final int TASK_QUEUE = 64;
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    // When full, the oldest waiting load, by then the stalest, is dropped
+    private static final ThreadPoolExecutor loads = executor(LOAD_THREADS, LOAD_QUEUE, (task, pool) -> {
+        if (pool.isShutdown()) {
+            ((Task<?>) task).result.cancel(false);
+            return;
+        }
+        Runnable oldest = pool.getQueue().poll();
+        if (oldest != null) {
+            ((Task<?>) oldest).result.cancel(false);
+        }
+        pool.execute(task);
+    });
+    // When full, the task fails at once: running it on the caller, the EDT, would freeze the screen
+    private static final ThreadPoolExecutor tasks = executor(TASK_THREADS, TASK_QUEUE, (task, pool) ->
+        ((Task<?>) task).result.completeExceptionally(
+            new RejectedExecutionException("Too many database tasks waiting; try again shortly")));
+
+    /**
+     * A task and the future it completes.
+     */
+    private record Task<T>(Callable<T> work, CompletableFuture<T> result) implements Runnable {
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                // Cancelled while it waited
+                return;
+            }
+            try {
+                result.complete(work.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor executor(int threads, int queue, RejectedExecutionHandler onFull) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queue), task -> {
+                Thread thread = new Thread(task, "dao-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, onFull);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Runs {@code task} in the background. If many tasks are waiting already
+     * it is not run, and the future fails with a
+     * {@link RejectedExecutionException} for the caller to report.
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> task) {
+        return submit(tasks, task);
+    }
+
+    public static CompletableFuture<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a read for a screen in the background. If many loads are waiting
+     * already, the oldest one is dropped and its future cancelled, so stale
+     * requests cannot pile up behind the one the user is waiting for.
+     */
+    public static <T> CompletableFuture<T> load(Callable<T> query) {
+        return submit(loads, query);
+    }
+
+    private static <T> CompletableFuture<T> submit(ThreadPoolExecutor executor, Callable<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(new Task<>(work, result));
+        return result;
+    }
+}
@@ -5,13 +5,22 @@ import org.hibernate.Transaction;
 
 public class DatabaseInitializer {
     public static void initialize() {
+        if (HibernateUtil.isFileStorage()) {
+            // Persistent data: only apply pending migrations, Hibernate validates the result
+            try {
+                new SchemaMigrator(HibernateUtil.getDataSource()).migrate();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to initialize database: " + e.getMessage(), e);
+            }
+        }
+
         Transaction transaction = null;
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             transaction = session.beginTransaction();
-            
+
             // Test database connection
             session.createNativeQuery("SELECT 1").uniqueResult();
-            
+
             transaction.commit();
         } catch (Exception e) {
             if (transaction != null) {
@@ -20,4 +29,4 @@ public class DatabaseInitializer {
             throw new RuntimeException("Failed to initialize database: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
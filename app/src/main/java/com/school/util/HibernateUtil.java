@@ -0,0 +1,187 @@
+package com.school.util;
+
+import com.school.journal.ChangeJournal;
+import com.school.metrics.DaoMetrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+public class HibernateUtil {
+    private static final Logger logger = LoggerFactory.getLogger(HibernateUtil.class);
+    private static final String POOL_PREFIX = "hibernate.hikari.";
+
+    /** Storage backend: "memory" (default, schema rebuilt on every start) or "file". */
+    public static final String STORAGE_PROPERTY = "school.storage";
+    /** Database file location for file storage, without the .mv.db suffix. */
+    public static final String DB_PATH_PROPERTY = "school.db.path";
+    /** H2 page cache size in KB for file storage. */
+    public static final String CACHE_SIZE_PROPERTY = "school.db.cacheSizeKb";
+
+    private static volatile SessionFactory sessionFactory;
+    private static Configuration configuration;
+    private static HikariDataSource dataSource;
+
+    /**
+     * Snapshot of the connection pool counters.
+     *
+     * @param waiting threads currently blocked waiting for a connection
+     */
+    public record PoolMetrics(int active, int idle, int total, int waiting) {
+    }
+
+    /**
+     * Snapshot of one second-level or query cache region's counters.
+     */
+    public record CacheMetrics(String region, long hits, long misses, long puts) {
+    }
+
+    /**
+     * Returns the shared SessionFactory, building it on first use.
+     *
+     * @throws IllegalStateException if the pool or the SessionFactory cannot be built
+     */
+    public static SessionFactory getSessionFactory() {
+        SessionFactory result = sessionFactory;
+        if (result == null) {
+            synchronized (HibernateUtil.class) {
+                result = sessionFactory;
+                if (result == null) {
+                    result = buildSessionFactory();
+                    sessionFactory = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the pooled DataSource, starting the pool on first use. Unlike
+     * {@link #getSessionFactory()} this does not touch the schema.
+     */
+    public static synchronized DataSource getDataSource() {
+        if (dataSource == null) {
+            Configuration config = loadConfiguration();
+            try {
+                dataSource = new HikariDataSource(createPoolConfig(config.getProperties()));
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Failed to start connection pool: " + e.getMessage(), e);
+            }
+            configuration = config;
+        }
+        return dataSource;
+    }
+
+    /**
+     * Opens a connection to the same database outside the pool, for a long
+     * maintenance job: held from the pool it would trip the leak detection
+     * threshold and keep a connection from the screens. The caller closes it.
+     */
+    public static Connection openDedicatedConnection() throws SQLException {
+        HikariDataSource pool = (HikariDataSource) getDataSource();
+        return DriverManager.getConnection(pool.getJdbcUrl(), pool.getUsername(), pool.getPassword());
+    }
+
+    public static boolean isFileStorage() {
+        return "file".equalsIgnoreCase(System.getProperty(STORAGE_PROPERTY, "memory"));
+    }
+
+    public static PoolMetrics getPoolMetrics() {
+        getDataSource();
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new PoolMetrics(
+            pool.getActiveConnections(),
+            pool.getIdleConnections(),
+            pool.getTotalConnections(),
+            pool.getThreadsAwaitingConnection());
+    }
+
+    /**
+     * Hit, miss and put counts of every cache region since startup.
+     */
+    public static List<CacheMetrics> getCacheMetrics() {
+        Statistics statistics = getSessionFactory().getStatistics();
+        List<CacheMetrics> metrics = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics counters = statistics.getCacheRegionStatistics(region);
+            if (counters != null) {
+                metrics.add(new CacheMetrics(region,
+                    counters.getHitCount(), counters.getMissCount(), counters.getPutCount()));
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Closes the change journal, the SessionFactory and the connection pool. A later call to
+     * {@link #getSessionFactory()} builds fresh ones.
+     */
+    public static synchronized void shutdown() {
+        DaoMetrics.stop();
+        ChangeJournal.closeShared();
+        if (sessionFactory != null) {
+            sessionFactory.close();
+            sessionFactory = null;
+        }
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+            configuration = null;
+        }
+    }
+
+    private static SessionFactory buildSessionFactory() {
+        DataSource pool = getDataSource();
+        configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, pool);
+        try {
+            SessionFactory factory = configuration.buildSessionFactory();
+            DaoMetrics.start(factory.getStatistics());
+            logger.info("SessionFactory started with pool {} ({} storage)",
+                dataSource.getPoolName(), isFileStorage() ? "file" : "memory");
+            return factory;
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to build SessionFactory: " + e.getMessage(), e);
+        }
+    }
+
+    private static Configuration loadConfiguration() {
+        Configuration config = new Configuration();
+        config.configure();
+        if (isFileStorage()) {
+            // MVStore file database; the schema is owned by SchemaMigrator
+            String path = System.getProperty(DB_PATH_PROPERTY, "./data/school_db");
+            String cacheSize = System.getProperty(CACHE_SIZE_PROPERTY, "65536");
+            config.setProperty(POOL_PREFIX + "jdbcUrl", "jdbc:h2:file:" + path + ";CACHE_SIZE=" + cacheSize);
+            config.setProperty(AvailableSettings.HBM2DDL_AUTO, "validate");
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("hibernate.")) {
+                config.setProperty(key, System.getProperty(key));
+            }
+        }
+        return config;
+    }
+
+    private static HikariConfig createPoolConfig(Properties settings) {
+        Properties poolProperties = new Properties();
+        for (String key : settings.stringPropertyNames()) {
+            if (key.startsWith(POOL_PREFIX)) {
+                poolProperties.setProperty(key.substring(POOL_PREFIX.length()), settings.getProperty(key));
+            }
+        }
+        return new HikariConfig(poolProperties);
+    }
+}
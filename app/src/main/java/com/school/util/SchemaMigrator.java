@@ -0,0 +1,92 @@
+package com.school.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Applies the numbered scripts under {@code db/migration/} (V1.sql, V2.sql, ...)
+ * that the database has not seen yet. Applied versions are recorded in
+ * {@code schema_version}; existing tables are never dropped or rebuilt.
+ */
+public class SchemaMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+    private static final String SCRIPT_PATH = "db/migration/V%d.sql";
+
+    private final DataSource dataSource;
+
+    public SchemaMigrator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return the schema version after migrating
+     */
+    public int migrate() {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT PRIMARY KEY, " +
+                    "applied_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL)");
+            }
+            int version = currentVersion(connection);
+            String script;
+            while ((script = loadScript(version + 1)) != null) {
+                apply(connection, version + 1, script);
+                version++;
+            }
+            return version;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema migration failed: " + e.getMessage(), e);
+        }
+    }
+
+    private int currentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private void apply(Connection connection, int version, String script) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : script.split(";\\s*(\\R|$)")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO schema_version (version) VALUES (?)")) {
+                insert.setInt(1, version);
+                insert.executeUpdate();
+            }
+            connection.commit();
+            logger.info("Applied schema migration V{}", version);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("V" + version + ".sql: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private String loadScript(int version) {
+        String path = String.format(SCRIPT_PATH, version);
+        try (InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(path)) {
+            return in == null ? null : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + path, e);
+        }
+    }
+}
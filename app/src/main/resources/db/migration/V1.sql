@@ -0,0 +1,51 @@
+-- Baseline schema
+CREATE TABLE teachers (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    department VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE subjects (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    teacher_id BIGINT NOT NULL,
+    workload INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_subjects_teacher FOREIGN KEY (teacher_id) REFERENCES teachers
+);
+
+CREATE TABLE students (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    registration VARCHAR(255) NOT NULL UNIQUE,
+    birthDate DATE NOT NULL,
+    className VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE grades (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    student_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    grade_value FLOAT(53) NOT NULL,
+    period VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_grades_student FOREIGN KEY (student_id) REFERENCES students,
+    CONSTRAINT fk_grades_subject FOREIGN KEY (subject_id) REFERENCES subjects
+);
+
+CREATE SEQUENCE attendance_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE attendance (
+    id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    present BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_attendance_student FOREIGN KEY (student_id) REFERENCES students,
+    CONSTRAINT fk_attendance_subject FOREIGN KEY (subject_id) REFERENCES subjects
+);
@@ -0,0 +1,18 @@
+-- Composite keys for the grade sheet and roll-call lookups; drop duplicates first
+DELETE FROM attendance a WHERE EXISTS (
+    SELECT 1 FROM attendance b
+    WHERE b.subject_id = a.subject_id AND b.date = a.date
+      AND b.student_id = a.student_id AND b.id > a.id);
+
+ALTER TABLE attendance ADD CONSTRAINT uk_attendance_subject_date_student
+    UNIQUE (subject_id, date, student_id);
+
+DELETE FROM grades g WHERE EXISTS (
+    SELECT 1 FROM grades h
+    WHERE h.subject_id = g.subject_id AND h.period = g.period
+      AND h.student_id = g.student_id AND h.id > g.id);
+
+ALTER TABLE grades ADD CONSTRAINT uk_grades_subject_period_student
+    UNIQUE (subject_id, period, student_id);
+
+CREATE INDEX idx_students_class_name ON students (className);
@@ -0,0 +1,10 @@
+-- Pooled sequences for students and grades so Hibernate can batch their inserts.
+-- Each sequence value is the top of a block of 50 ids, so start one block past
+-- the current maximum.
+CREATE SEQUENCE students_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE students_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM students);
+ALTER TABLE students ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE grades_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE grades_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM grades);
+ALTER TABLE grades ALTER COLUMN id DROP IDENTITY;
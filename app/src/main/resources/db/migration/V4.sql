@@ -0,0 +1,39 @@
+-- Gradebook summaries maintained incrementally by GradeDAO, backfilled from the existing grades
+CREATE TABLE student_subject_summary (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    student_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    grade_count INTEGER NOT NULL,
+    grade_sum FLOAT(53) NOT NULL,
+    min_value FLOAT(53) NOT NULL,
+    max_value FLOAT(53) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_student_subject_summary UNIQUE (student_id, subject_id)
+);
+
+CREATE TABLE class_subject_summary (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    class_name VARCHAR(255) NOT NULL,
+    subject_id BIGINT NOT NULL,
+    period VARCHAR(255) NOT NULL,
+    grade_count INTEGER NOT NULL,
+    grade_sum FLOAT(53) NOT NULL,
+    min_value FLOAT(53) NOT NULL,
+    max_value FLOAT(53) NOT NULL,
+    passed_count INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_class_subject_summary UNIQUE (subject_id, period, class_name)
+);
+
+INSERT INTO student_subject_summary (student_id, subject_id, grade_count, grade_sum, min_value, max_value)
+SELECT student_id, subject_id, COUNT(*), SUM(grade_value), MIN(grade_value), MAX(grade_value)
+FROM grades
+GROUP BY student_id, subject_id;
+
+-- 6.0 is GradebookDAO.PASSING_GRADE
+INSERT INTO class_subject_summary
+    (class_name, subject_id, period, grade_count, grade_sum, min_value, max_value, passed_count)
+SELECT s.className, g.subject_id, g.period, COUNT(*), SUM(g.grade_value), MIN(g.grade_value), MAX(g.grade_value),
+       SUM(CASE WHEN g.grade_value >= 6.0 THEN 1 ELSE 0 END)
+FROM grades g JOIN students s ON s.id = g.student_id
+GROUP BY s.className, g.subject_id, g.period;
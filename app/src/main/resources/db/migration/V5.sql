@@ -0,0 +1,17 @@
+-- Attendance packed into one row of day bitmasks per student, subject and
+-- month, used instead of the attendance table when attendance is stored
+-- monthly (see AttendanceDAO.STORAGE_PROPERTY)
+CREATE SEQUENCE attendance_month_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE attendance_month (
+    id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    recorded_days INTEGER NOT NULL,
+    present_days INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_attendance_month_subject_month_student UNIQUE (subject_id, month_start, student_id),
+    CONSTRAINT fk_attendance_month_student FOREIGN KEY (student_id) REFERENCES students,
+    CONSTRAINT fk_attendance_month_subject FOREIGN KEY (subject_id) REFERENCES subjects
+);
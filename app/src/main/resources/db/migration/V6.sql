@@ -0,0 +1,8 @@
+-- Version columns for optimistic locking: Hibernate bumps them on every
+-- update and rejects updates made from an older copy
+ALTER TABLE students ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE teachers ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE subjects ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE grades ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE attendance ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE attendance_month ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
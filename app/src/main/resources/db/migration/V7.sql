@@ -0,0 +1,27 @@
+-- Which classes take which subjects, backfilled from the classes of the
+-- students graded or called in each subject so far
+CREATE TABLE class_enrollment (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    class_name VARCHAR(255) NOT NULL,
+    subject_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_class_enrollment UNIQUE (subject_id, class_name),
+    CONSTRAINT fk_class_enrollment_subject FOREIGN KEY (subject_id) REFERENCES subjects
+);
+
+CREATE INDEX idx_class_enrollment_class_name ON class_enrollment (class_name);
+
+INSERT INTO class_enrollment (class_name, subject_id)
+SELECT DISTINCT s.className, taken.subject_id
+FROM (
+    SELECT student_id, subject_id FROM grades
+    UNION SELECT student_id, subject_id FROM attendance
+    UNION SELECT student_id, subject_id FROM attendance_month
+) taken
+JOIN students s ON s.id = taken.student_id;
+
+-- A pooled sequence like the other tables', so enrollments are inserted in
+-- JDBC batches; one block past the rows backfilled above
+CREATE SEQUENCE class_enrollment_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE class_enrollment_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM class_enrollment);
+ALTER TABLE class_enrollment ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,92 @@
+package com.school.benchmark;
+
+import com.school.dao.AttendanceDAO;
+import com.school.dto.AttendanceRate;
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Early-warning latency over a semester of roll calls (1,000 students, 8
+ * subjects, 100 school days, 800k rows): students below 75% in any subject
+ * counted by a GROUP BY over the attendance table, against the in-memory
+ * {@link com.school.analytics.AttendanceIndex}, plus the index's top-20 query.
+ * <pre>java -jar target/benchmarks.jar AttendanceAnalyticsBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-Dhibernate.show_sql=false"})
+public class AttendanceAnalyticsBenchmark {
+    private static final int STUDENTS = 1_000;
+    private static final int SUBJECTS = 8;
+    private static final int DAYS = 100;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 2, 5);
+
+    private final AttendanceDAO attendanceDAO = new AttendanceDAO();
+    private LocalDate from;
+    private LocalDate to;
+    private int calls;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        DatabaseInitializer.initialize();
+        BenchmarkData.insertStudents(STUDENTS);
+        List<Long> subjectIds = new ArrayList<>();
+        for (int i = 0; i < SUBJECTS; i++) {
+            subjectIds.add(BenchmarkData.createSubject("Disciplina " + i).getId());
+        }
+        BenchmarkData.insertAttendance(subjectIds, FIRST_DAY, DAYS);
+        // The last two months of the semester
+        from = FIRST_DAY.plusMonths(3);
+        to = FIRST_DAY.plusMonths(5);
+        attendanceDAO.preloadAttendanceIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        HibernateUtil.shutdown();
+    }
+
+    /**
+     * The range end moves back a day per call, up to a month: H2 would
+     * otherwise hand back the previous result of an identical query.
+     */
+    private LocalDate to() {
+        return to.minusDays(calls++ % 30);
+    }
+
+    @Benchmark
+    public List<Object[]> groupByBelow() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "SELECT a.student.id, a.subject.id, SUM(CASE WHEN a.present THEN 1 ELSE 0 END), COUNT(a) " +
+                "FROM Attendance a WHERE a.date BETWEEN :from AND :to " +
+                "GROUP BY a.student.id, a.subject.id " +
+                "HAVING SUM(CASE WHEN a.present THEN 1.0 ELSE 0.0 END) < COUNT(a) * cast(:threshold as Double)",
+                Object[].class)
+                .setParameter("from", from)
+                .setParameter("to", to())
+                .setParameter("threshold", AttendanceDAO.MINIMUM_ATTENDANCE)
+                .list();
+        }
+    }
+
+    @Benchmark
+    public List<AttendanceRate> indexBelow() {
+        return attendanceDAO.findBelowAttendance(AttendanceDAO.MINIMUM_ATTENDANCE, null, from, to());
+    }
+
+    @Benchmark
+    public List<AttendanceRate> indexLowest20() {
+        return attendanceDAO.findLowestAttendance(20, null, from, to());
+    }
+}
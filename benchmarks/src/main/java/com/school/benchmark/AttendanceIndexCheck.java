@@ -0,0 +1,212 @@
+package com.school.benchmark;
+
+import com.school.analytics.AttendanceIndex;
+import com.school.dao.AttendanceDAO;
+import com.school.dao.StudentDAO;
+import com.school.dto.AttendanceRate;
+import com.school.model.Attendance;
+import com.school.model.AttendanceMonth;
+import com.school.model.Student;
+import com.school.model.Subject;
+import com.school.util.HibernateUtil;
+import org.hibernate.Session;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Checks that the in-memory attendance index matches counts taken from the
+ * attendance table after a random mix of roll calls, edits, deletes and bulk
+ * saves, over random date ranges, and exits with status 1 if they differ.
+ * With {@code -Dschool.attendance.storage=monthly} it checks the monthly
+ * layout instead, where edits and deletes go by student, subject and day.
+ * <pre>java -cp target/benchmarks.jar com.school.benchmark.AttendanceIndexCheck</pre>
+ */
+public class AttendanceIndexCheck {
+    private static final String[] CLASSES = {"9º A", "9º B"};
+    private static final int STUDENTS_PER_CLASS = 30;
+    private static final int OPERATIONS = 1_500;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 366;
+
+    public static void main(String[] args) {
+        System.setProperty("hibernate.show_sql", "false");
+        try {
+            Random random = new Random(42);
+            AttendanceDAO attendanceDAO = new AttendanceDAO();
+            List<Subject> subjects = List.of(
+                BenchmarkData.createSubject("Matemática"), BenchmarkData.createSubject("História"));
+            for (String className : CLASSES) {
+                BenchmarkData.createStudents(className, STUDENTS_PER_CLASS);
+            }
+            List<Student> students = new StudentDAO().findAll();
+            attendanceDAO.preloadAttendanceIndex();
+
+            long start = System.nanoTime();
+            int failed = 0;
+            for (int i = 0; i < OPERATIONS; i++) {
+                Subject subject = subjects.get(random.nextInt(subjects.size()));
+                int operation = random.nextInt(10);
+                try {
+                    if (operation < 6) {
+                        Map<String, Boolean> roll = new HashMap<>();
+                        for (Student student : students) {
+                            if (random.nextInt(4) > 0) {
+                                roll.put(student.getRegistration(), random.nextInt(5) > 0);
+                            }
+                        }
+                        attendanceDAO.saveRoll(subject.getId(), randomDay(random), roll);
+                    } else if (operation < 8) {
+                        Attendance attendance = randomAttendance(random);
+                        if (attendance != null) {
+                            attendance.setPresent(!attendance.getPresent());
+                            if (operation == 7) {
+                                attendance.setDate(randomDay(random));
+                            }
+                            attendanceDAO.update(attendance);
+                        }
+                    } else if (operation == 8) {
+                        Attendance attendance = randomAttendance(random);
+                        if (attendance != null) {
+                            attendanceDAO.delete(attendance.getStudent().getId(), attendance.getSubject().getId(),
+                                attendance.getDate());
+                        }
+                    } else {
+                        List<Attendance> batch = new ArrayList<>();
+                        LocalDate day = randomDay(random);
+                        for (Student student : students.subList(0, random.nextInt(students.size()))) {
+                            Attendance attendance = new Attendance();
+                            attendance.setStudent(student);
+                            attendance.setSubject(subject);
+                            attendance.setDate(day);
+                            attendance.setPresent(random.nextBoolean());
+                            batch.add(attendance);
+                        }
+                        attendanceDAO.saveAll(batch);
+                    }
+                } catch (RuntimeException e) {
+                    // A date already taken by another roll call: rolled back, so the index must not change either
+                    failed++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%,d operations (%d rolled back) in %d ms, %d student/subject pairs%n",
+                OPERATIONS, failed, elapsed / 1_000_000, attendanceDAO.findBelowAttendance(2, null, null, null).size());
+
+            int ranges = 0;
+            for (int i = 0; i < 50; i++) {
+                LocalDate from = i == 0 ? null : randomDay(random);
+                LocalDate to = i == 0 || from == null ? null : from.plusDays(random.nextInt(DAYS));
+                Long subjectId = i % 3 == 0 ? null : subjects.get(i % 2).getId();
+                List<AttendanceRate> expected = fromTable(subjectId, from, to);
+                List<AttendanceRate> actual = attendanceDAO.findBelowAttendance(2, subjectId, from, to);
+                List<AttendanceRate> lowest = attendanceDAO.findLowestAttendance(10, subjectId, from, to);
+                if (!actual.equals(expected) || !lowest.equals(expected.subList(0, Math.min(10, expected.size())))) {
+                    System.err.printf("Index differs from the table for %s..%s, subject %s:%n%s%n%s%n",
+                        from, to, subjectId, expected, actual);
+                    System.exit(1);
+                }
+                for (AttendanceRate rate : expected) {
+                    if (!rate.equals(attendanceDAO.findAttendanceRate(rate.studentId(), rate.subjectId(), from, to))) {
+                        System.err.println("Rate differs from the table: " + rate);
+                        System.exit(1);
+                    }
+                }
+                ranges++;
+            }
+            System.out.printf("index matches the attendance table over %d date ranges%n", ranges);
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
+
+    private static LocalDate randomDay(Random random) {
+        return FIRST_DAY.plusDays(random.nextInt(DAYS));
+    }
+
+    private static Attendance randomAttendance(Random random) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            if ("monthly".equals(System.getProperty(AttendanceDAO.STORAGE_PROPERTY))) {
+                return randomDayRecorded(session, random);
+            }
+            long count = session.createQuery("SELECT COUNT(a) FROM Attendance a", Long.class).uniqueResult();
+            if (count == 0) {
+                return null;
+            }
+            return session.createQuery("FROM Attendance a ORDER BY a.id", Attendance.class)
+                .setFirstResult(random.nextInt((int) count))
+                .setMaxResults(1)
+                .uniqueResult();
+        }
+    }
+
+    private static Attendance randomDayRecorded(Session session, Random random) {
+        List<AttendanceMonth> months = session.createQuery("FROM AttendanceMonth m ORDER BY m.id", AttendanceMonth.class)
+            .list();
+        if (months.isEmpty()) {
+            return null;
+        }
+        AttendanceMonth month = months.get(random.nextInt(months.size()));
+        List<Integer> days = new ArrayList<>();
+        for (int day = 1; day <= month.getMonthStart().lengthOfMonth(); day++) {
+            if (month.isRecorded(day)) {
+                days.add(day);
+            }
+        }
+        int day = days.get(random.nextInt(days.size()));
+        Attendance attendance = new Attendance();
+        attendance.setStudent(session.get(Student.class, month.getStudentId()));
+        attendance.setSubject(session.get(Subject.class, month.getSubjectId()));
+        attendance.setDate(month.getMonthStart().withDayOfMonth(day));
+        attendance.setPresent(month.isPresent(day));
+        return attendance;
+    }
+
+    private static List<AttendanceRate> fromTable(Long subjectId, LocalDate from, LocalDate to) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            List<AttendanceRate> rates = new ArrayList<>();
+            if ("monthly".equals(System.getProperty(AttendanceDAO.STORAGE_PROPERTY))) {
+                rates.addAll(fromMonths(session, subjectId, from, to));
+            }
+            for (Object[] row : session.createQuery(
+                    "SELECT a.student.id, a.subject.id, SUM(CASE WHEN a.present THEN 1 ELSE 0 END), COUNT(a) " +
+                    "FROM Attendance a " +
+                    "WHERE (:subjectId IS NULL OR a.subject.id = :subjectId) " +
+                    "AND (:from IS NULL OR a.date >= :from) AND (:to IS NULL OR a.date <= :to) " +
+                    "GROUP BY a.student.id, a.subject.id", Object[].class)
+                    .setParameter("subjectId", subjectId)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .list()) {
+                rates.add(new AttendanceRate((Long) row[0], (Long) row[1],
+                    ((Number) row[2]).intValue(), ((Number) row[3]).intValue()));
+            }
+            rates.sort(AttendanceIndex.WORST_FIRST);
+            return rates;
+        }
+    }
+
+    private static List<AttendanceRate> fromMonths(Session session, Long subjectId, LocalDate from, LocalDate to) {
+        Map<List<Long>, int[]> counts = new HashMap<>();
+        for (AttendanceMonth month : session.createQuery("FROM AttendanceMonth m", AttendanceMonth.class).list()) {
+            if (subjectId != null && !subjectId.equals(month.getSubjectId())) {
+                continue;
+            }
+            for (int day = 1; day <= month.getMonthStart().lengthOfMonth(); day++) {
+                LocalDate date = month.getMonthStart().withDayOfMonth(day);
+                if (month.isRecorded(day) && (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to))) {
+                    int[] count = counts.computeIfAbsent(List.of(month.getStudentId(), month.getSubjectId()),
+                        key -> new int[2]);
+                    count[0] += month.isPresent(day) ? 1 : 0;
+                    count[1]++;
+                }
+            }
+        }
+        List<AttendanceRate> rates = new ArrayList<>();
+        counts.forEach((key, count) -> rates.add(new AttendanceRate(key.get(0), key.get(1), count[0], count[1])));
+        return rates;
+    }
+}
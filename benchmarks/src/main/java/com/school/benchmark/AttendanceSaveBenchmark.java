@@ -0,0 +1,106 @@
+package com.school.benchmark;
+
+import com.school.dao.AttendanceDAO;
+import com.school.dao.StudentDAO;
+import com.school.model.Subject;
+import com.school.util.HibernateUtil;
+import org.openjdk.jmh.annotations.*;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second when saving a 40-student roll call: the old path, a
+ * registration lookup per row and IDENTITY ids, against the single-query
+ * {@link AttendanceDAO#saveRoll} path with pooled sequence ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttendanceSaveBenchmark {
+    private static final int ROLL_SIZE = 40;
+
+    private final AttendanceDAO attendanceDAO = new AttendanceDAO();
+    private final StudentDAO studentDAO = new StudentDAO();
+    private Subject subject;
+    private List<String> registrations;
+    private LocalDate date;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        subject = BenchmarkData.createSubject("Matemática");
+        registrations = BenchmarkData.createStudents("1A", ROLL_SIZE);
+        date = LocalDate.of(2024, 2, 1);
+        // The attendance table as it was with IDENTITY ids
+        try (Connection connection = HibernateUtil.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS attendance_identity (" +
+                "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "version BIGINT DEFAULT 0 NOT NULL, " +
+                "student_id BIGINT NOT NULL REFERENCES students, " +
+                "subject_id BIGINT NOT NULL REFERENCES subjects, " +
+                "date DATE NOT NULL, " +
+                "present BOOLEAN NOT NULL, " +
+                "justification VARCHAR(255), " +
+                "UNIQUE (student_id, subject_id, date))");
+        }
+    }
+
+    /**
+     * The old path: a session per row to look up the student, then the rows
+     * inserted into an IDENTITY table the way Hibernate has to for IDENTITY
+     * ids, one statement per row that reads its key back, never batched.
+     * Plain JDBC skips Hibernate's own per-entity work, so if anything this
+     * baseline is faster than the old code was.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROLL_SIZE)
+    public void perRowLookup() throws SQLException {
+        date = date.plusDays(1);
+        List<Long> studentIds = new ArrayList<>(ROLL_SIZE);
+        for (String registration : registrations) {
+            studentIds.add(studentDAO.findByRegistration(registration).getId());
+        }
+        try (Connection connection = HibernateUtil.getDataSource().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO attendance_identity (student_id, subject_id, date, present) VALUES (?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (Long studentId : studentIds) {
+                    insert.setLong(1, studentId);
+                    insert.setLong(2, subject.getId());
+                    insert.setDate(3, Date.valueOf(date));
+                    insert.setBoolean(4, true);
+                    insert.executeUpdate();
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        keys.next();
+                    }
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROLL_SIZE)
+    public int bulkRoll() {
+        date = date.plusDays(1);
+        Map<String, Boolean> presenceByRegistration = new LinkedHashMap<>();
+        for (String registration : registrations) {
+            presenceByRegistration.put(registration, true);
+        }
+        return attendanceDAO.saveRoll(subject.getId(), date, presenceByRegistration);
+    }
+}
@@ -0,0 +1,150 @@
+package com.school.benchmark;
+
+import com.school.dao.AttendanceDAO;
+import com.school.model.Attendance;
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import org.openjdk.jmh.annotations.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row-per-entry attendance against monthly day bitmasks
+ * ({@link AttendanceDAO#STORAGE_PROPERTY}), on a file database holding a
+ * semester of roll calls (1,000 students, 4 subjects, 100 school days, 400k
+ * entries) saved through {@link AttendanceDAO#saveRoll}. Seeding prints the
+ * time taken, the table's disk space and the database file size; the
+ * benchmarks read one roll call, export one subject's month and save a roll
+ * again with one student changed.
+ * <pre>java -jar target/benchmarks.jar AttendanceStorageBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx1g", "-Dhibernate.show_sql=false"})
+public class AttendanceStorageBenchmark {
+    private static final int STUDENTS = 1_000;
+    private static final int SUBJECTS = 4;
+    private static final int DAYS = 100;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 2, 5);
+
+    @Param({"rows", "monthly"})
+    public String storage;
+
+    // Created in setup: the DAO reads the storage property when its class is loaded
+    private AttendanceDAO attendanceDAO;
+    private Path directory;
+    private final List<Long> subjectIds = new ArrayList<>();
+    private final List<LocalDate> days = new ArrayList<>();
+    private final List<String> registrations = new ArrayList<>();
+    private int calls;
+
+    @Setup(Level.Trial)
+    public void seed() throws IOException, SQLException {
+        directory = Files.createTempDirectory("attendance-" + storage);
+        System.setProperty(HibernateUtil.STORAGE_PROPERTY, "file");
+        System.setProperty(HibernateUtil.DB_PATH_PROPERTY, directory.resolve("school_db").toString());
+        System.setProperty(HibernateUtil.CACHE_SIZE_PROPERTY, "16384");
+        System.setProperty(AttendanceDAO.STORAGE_PROPERTY, storage);
+        attendanceDAO = new AttendanceDAO();
+        DatabaseInitializer.initialize();
+        BenchmarkData.insertStudents(STUDENTS);
+        for (int i = 0; i < SUBJECTS; i++) {
+            subjectIds.add(BenchmarkData.createSubject("Disciplina " + i).getId());
+        }
+        for (int i = 0; i < STUDENTS; i++) {
+            registrations.add(String.format("R%07d", i));
+        }
+        for (LocalDate day = FIRST_DAY; days.size() < DAYS; day = day.plusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days.add(day);
+            }
+        }
+
+        long start = System.nanoTime();
+        for (Long subjectId : subjectIds) {
+            for (int day = 0; day < DAYS; day++) {
+                attendanceDAO.saveRoll(subjectId, days.get(day), roll(day, -1));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        String table = "monthly".equals(storage) ? "ATTENDANCE_MONTH" : "ATTENDANCE";
+        try (Connection connection = HibernateUtil.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT SYNC");
+            long tableBytes;
+            try (ResultSet rs = statement.executeQuery("SELECT DISK_SPACE_USED('" + table + "')")) {
+                rs.next();
+                tableBytes = rs.getLong(1);
+            }
+            long entries = (long) STUDENTS * SUBJECTS * DAYS;
+            System.out.printf("%n%s: %,d entries saved in %d ms; %s %,d KB (%.1f bytes/entry), database file %,d KB%n",
+                storage, entries, elapsed / 1_000_000, table.toLowerCase(), tableBytes / 1024,
+                (double) tableBytes / entries, Files.size(directory.resolve("school_db.mv.db")) / 1024);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() throws IOException {
+        HibernateUtil.shutdown();
+        try (var files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Absent when (student + day) % 12 == 0; {@code flipped} inverts one student.
+     */
+    private Map<String, Boolean> roll(int day, int flipped) {
+        Map<String, Boolean> roll = new HashMap<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            roll.put(registrations.get(i), ((i + day) % 12 != 0) != (i == flipped));
+        }
+        return roll;
+    }
+
+    @Benchmark
+    public List<Attendance> findBySubjectAndDate() {
+        int call = calls++;
+        return attendanceDAO.findBySubjectAndDate(subjectIds.get(call % SUBJECTS), days.get(call % DAYS));
+    }
+
+    @Benchmark
+    public long exportMonth() {
+        int call = calls++;
+        LocalDate monthStart = FIRST_DAY.withDayOfMonth(1).plusMonths((call / SUBJECTS) % 4);
+        long[] rows = new long[1];
+        attendanceDAO.forEachExportRow(subjectIds.get(call % SUBJECTS), monthStart,
+            monthStart.plusMonths(1).minusDays(1), row -> rows[0]++);
+        return rows[0];
+    }
+
+    /**
+     * Saves a recorded roll again with one student's presence inverted and
+     * back on alternate calls, so every call changes exactly one entry.
+     */
+    @Benchmark
+    public int saveRollChangingOne() {
+        int call = calls++;
+        int day = (call / 2) % DAYS;
+        return attendanceDAO.saveRoll(subjectIds.get((call / 2) % SUBJECTS), days.get(day),
+            roll(day, call % 2 == 0 ? (call / 2) % STUDENTS : -1));
+    }
+}
@@ -0,0 +1,199 @@
+package com.school.benchmark;
+
+import com.school.dao.StudentDAO;
+import com.school.dao.SubjectDAO;
+import com.school.dao.TeacherDAO;
+import com.school.model.Student;
+import com.school.model.Subject;
+import com.school.model.Teacher;
+import com.school.util.HibernateUtil;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds the benchmark database through the regular DAOs, or plain JDBC for bulk data.
+ */
+final class BenchmarkData {
+    private static final String[] FIRST_NAMES = {
+        "João", "Maria", "José", "Ana", "Antônio", "Francisca", "Luís", "Márcia", "Sérgio", "Lúcia",
+        "Cláudio", "Fátima", "Vinícius", "Letícia", "André", "Beatriz", "Ígor", "Mônica", "Caio", "Júlia"
+    };
+    private static final String[] SURNAMES = {
+        "Silva", "Santos", "Oliveira", "Souza", "Conceição", "Gonçalves", "Araújo", "Simões", "Brandão",
+        "Assunção", "Lima", "Pereira", "Carvalho", "Gomes", "Ribeiro", "Almeida", "Magalhães", "Estêvão"
+    };
+    private BenchmarkData() {
+    }
+
+    static Subject createSubject(String name) {
+        return createSubject(name, createTeacher("Professor " + name));
+    }
+
+    static Teacher createTeacher(String name) {
+        Teacher teacher = new Teacher();
+        teacher.setName(name);
+        teacher.setEmail(name.toLowerCase().replace(' ', '.') + "-" + System.nanoTime() + "@escola.test");
+        teacher.setDepartment("Benchmark");
+        new TeacherDAO().save(teacher);
+        return teacher;
+    }
+
+    static Subject createSubject(String name, Teacher teacher) {
+        Subject subject = new Subject();
+        subject.setName(name);
+        subject.setTeacher(teacher);
+        subject.setWorkload(80);
+        new SubjectDAO().save(subject);
+        return subject;
+    }
+
+    static List<String> createStudents(String className, int count) {
+        List<Student> students = new ArrayList<>(count);
+        List<String> registrations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String registration = className + "-" + i;
+            Student student = new Student();
+            student.setName("Aluno " + registration);
+            student.setEmail(registration.toLowerCase() + "@escola.test");
+            student.setRegistration(registration);
+            student.setBirthDate(LocalDate.of(2010, 1, 1).plusDays(i % 365));
+            student.setClassName(className);
+            students.add(student);
+            registrations.add(registration);
+        }
+        new StudentDAO().saveAll(students);
+        return registrations;
+    }
+
+    /**
+     * Tops the students table up to {@code count} rows with plain JDBC batches,
+     * for datasets too large to insert one entity at a time.
+     */
+    static void insertStudents(int count) throws SQLException {
+        try (Connection connection = HibernateUtil.getDataSource().getConnection()) {
+            int existing;
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM students")) {
+                rs.next();
+                existing = rs.getInt(1);
+            }
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO students (id, name, email, registration, birthDate, className) " +
+                    "VALUES (NEXT VALUE FOR students_seq, ?, ?, ?, ?, ?)")) {
+                for (int i = existing; i < count; i++) {
+                    insert.setString(1, studentName(i));
+                    insert.setString(2, "aluno" + i + "@escola.test");
+                    insert.setString(3, String.format("R%07d", i));
+                    insert.setDate(4, Date.valueOf(LocalDate.of(2008, 1, 1).plusDays(i % 3650)));
+                    insert.setString(5, (i % 12 + 1) + "º " + (char) ('A' + i % 4));
+                    insert.addBatch();
+                    if (i % 1000 == 999) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    /**
+     * Records a roll call for every student in each of {@code subjectIds} on
+     * {@code days} consecutive weekdays starting at {@code firstDay}, with
+     * plain JDBC batches. About one in twelve entries is an absence, and one
+     * student in twenty also misses every third day.
+     *
+     * @return the number of rows inserted
+     */
+    static long insertAttendance(List<Long> subjectIds, LocalDate firstDay, int days) throws SQLException {
+        List<Long> studentIds = new ArrayList<>();
+        try (Connection connection = HibernateUtil.getDataSource().getConnection()) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT id FROM students ORDER BY id")) {
+                while (rs.next()) {
+                    studentIds.add(rs.getLong(1));
+                }
+            }
+            connection.setAutoCommit(false);
+            long rows = 0;
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO attendance (id, student_id, subject_id, date, present) " +
+                    "VALUES (NEXT VALUE FOR attendance_seq, ?, ?, ?, ?)")) {
+                LocalDate date = firstDay;
+                for (int day = 0; day < days; day++) {
+                    while (date.getDayOfWeek().getValue() > 5) {
+                        date = date.plusDays(1);
+                    }
+                    for (Long subjectId : subjectIds) {
+                        for (int student = 0; student < studentIds.size(); student++) {
+                            insert.setLong(1, studentIds.get(student));
+                            insert.setLong(2, subjectId);
+                            insert.setDate(3, Date.valueOf(date));
+                            insert.setBoolean(4, (student + day) % 12 != 0 && (student % 20 != 0 || day % 3 != 0));
+                            insert.addBatch();
+                            if (++rows % 1000 == 0) {
+                                insert.executeBatch();
+                            }
+                        }
+                    }
+                    connection.commit();
+                    date = date.plusDays(1);
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+            return rows;
+        }
+    }
+
+    /**
+     * Grades every student in {@code subjectId} for {@code period} with one
+     * INSERT ... SELECT, values 0.0 to 10.0 spread by student. Bypasses GradeDAO,
+     * so the gradebook summaries do not include these grades.
+     *
+     * @return the number of rows inserted
+     */
+    static int insertGrades(Long subjectId, String period) throws SQLException {
+        try (Connection connection = HibernateUtil.getDataSource().getConnection()) {
+            connection.setAutoCommit(false);
+            int rows;
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO grades (id, student_id, subject_id, grade_value, period) " +
+                    "SELECT NEXT VALUE FOR grades_seq, id, ?, MOD(id, 101) / 10.0, ? FROM students")) {
+                insert.setLong(1, subjectId);
+                insert.setString(2, period);
+                rows = insert.executeUpdate();
+            }
+            connection.commit();
+            return rows;
+        }
+    }
+
+    /**
+     * Deterministic Portuguese name with accents, so text search sees realistic data.
+     */
+    static String studentName(int i) {
+        return FIRST_NAMES[i % FIRST_NAMES.length] + " "
+            + SURNAMES[i / FIRST_NAMES.length % SURNAMES.length] + " "
+            + SURNAMES[i / (FIRST_NAMES.length * SURNAMES.length) % SURNAMES.length];
+    }
+
+    /**
+     * Heap in use after a few full collections, so only reachable objects count.
+     */
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,180 @@
+package com.school.benchmark;
+
+import com.school.dao.ConcurrentEditException;
+import com.school.dao.GradeDAO;
+import com.school.dao.GradebookDAO;
+import com.school.dao.StudentDAO;
+import com.school.model.Grade;
+import com.school.model.Student;
+import com.school.model.Subject;
+import com.school.util.HibernateUtil;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Many teachers editing one grade sheet at once through
+ * {@link GradeDAO#saveSheet}. Each editor loads the sheet, adds its own amount
+ * to a few random grades and saves; conflicting grades are re-applied over
+ * the other editor's value, as a teacher would after being told. At the end
+ * every grade must equal the sum of all the amounts added to it, so a single
+ * lost update fails the check, and the gradebook summaries must match a full
+ * recomputation. Exits with status 1 otherwise.
+ * <pre>java -cp target/benchmarks.jar com.school.benchmark.ConcurrentGradeEditing [editors=16] [saves=200] [students=200]</pre>
+ * A small sheet ({@code students} of 10 or so) makes most saves collide.
+ */
+public class ConcurrentGradeEditing {
+    private static final String PERIOD = Grade.PERIODS.get(0);
+    private static final int GRADES_PER_SAVE = 5;
+
+    private final GradeDAO gradeDAO = new GradeDAO();
+    private final Long subjectId;
+    private final List<Long> studentIds;
+    // Sum of the amounts each editor added to each student's grade
+    private final AtomicLongArray expected;
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    private ConcurrentGradeEditing(Long subjectId, List<Long> studentIds) {
+        this.subjectId = subjectId;
+        this.studentIds = studentIds;
+        this.expected = new AtomicLongArray(studentIds.size());
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("hibernate.show_sql", "false");
+        int editors = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int saves = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int students = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        try {
+            StudentDAO studentDAO = new StudentDAO();
+            Subject subject = BenchmarkData.createSubject("Matemática");
+            List<Long> studentIds = studentDAO.findByRegistrations(BenchmarkData.createStudents("9º A", students))
+                .stream().map(Student::getId).toList();
+            checkStaleUpdate(studentDAO, studentIds.get(0));
+
+            ConcurrentGradeEditing run = new ConcurrentGradeEditing(subject.getId(), studentIds);
+            ExecutorService pool = Executors.newFixedThreadPool(editors);
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int editor = 0; editor < editors; editor++) {
+                int id = editor;
+                futures.add(pool.submit(() -> run.edit(id, saves)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            pool.shutdown();
+
+            System.out.printf("%d editors, %,d saves of %d grades on a %d-student sheet in %,d ms: %,.0f saves/s%n",
+                editors, editors * saves, GRADES_PER_SAVE, students, elapsed / 1_000_000,
+                editors * saves / (elapsed / 1e9));
+            System.out.printf("%,d grades came back as conflicts and were re-applied, " +
+                "%,d saves lost every retry and were resubmitted%n", run.conflicts.get(), run.exhausted.get());
+            boolean ok = run.checkNoLostUpdates();
+            List<String> incremental = GradebookCheck.snapshot();
+            new GradebookDAO().rebuild();
+            if (!incremental.equals(GradebookCheck.snapshot())) {
+                System.err.println("Summaries drifted from the grades");
+                ok = false;
+            } else {
+                System.out.println("summaries match a full recomputation");
+            }
+            if (!ok) {
+                System.exit(1);
+            }
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
+
+    /**
+     * Two copies of one student read together: the first update wins, the
+     * second must be refused, and the first copy can go on being edited.
+     */
+    private static void checkStaleUpdate(StudentDAO studentDAO, Long id) {
+        Student first = studentDAO.findById(id);
+        Student second = studentDAO.findById(id);
+        first.setName(first.getName() + " (1)");
+        studentDAO.update(first);
+        second.setName(second.getName() + " (2)");
+        try {
+            studentDAO.update(second);
+            throw new IllegalStateException("A stale student update overwrote a newer one");
+        } catch (ConcurrentEditException expected) {
+            // The copy read before the first update is stale
+        }
+        first.setName(first.getName() + " (3)");
+        studentDAO.update(first);
+        System.out.println("stale student update refused: " + studentDAO.findById(id).getName());
+    }
+
+    private void edit(int editor, int saves) {
+        // Distinct per editor, so two editors never want the same value by accident
+        long amount = 1 + editor * 1_000L;
+        SplittableRandom random = new SplittableRandom(editor);
+        for (int save = 0; save < saves; save++) {
+            Map<Long, Grade> sheet = new HashMap<>();
+            for (Grade grade : gradeDAO.findBySubjectAndPeriod(subjectId, PERIOD)) {
+                sheet.put(grade.getStudent().getId(), grade);
+            }
+            Map<Long, GradeDAO.GradeEdit> edits = new HashMap<>();
+            while (edits.size() < Math.min(GRADES_PER_SAVE, studentIds.size())) {
+                int index = random.nextInt(studentIds.size());
+                Long studentId = studentIds.get(index);
+                if (!edits.containsKey(studentId)) {
+                    Grade grade = sheet.get(studentId);
+                    edits.put(studentId, new GradeDAO.GradeEdit(studentId,
+                        grade != null ? grade.getVersion() : null,
+                        (grade != null ? grade.getValue() : 0) + amount));
+                    expected.addAndGet(index, amount);
+                }
+            }
+            List<GradeDAO.GradeEdit> pending = new ArrayList<>(edits.values());
+            while (!pending.isEmpty()) {
+                try {
+                    List<GradeDAO.GradeEdit> retry = new ArrayList<>();
+                    for (GradeDAO.GradeConflict conflict : gradeDAO.saveSheet(subjectId, PERIOD, pending).conflicts()) {
+                        retry.add(new GradeDAO.GradeEdit(conflict.studentId(), conflict.version(),
+                            (conflict.theirs() != null ? conflict.theirs() : 0) + amount));
+                    }
+                    conflicts.addAndGet(retry.size());
+                    pending = retry;
+                } catch (ConcurrentEditException e) {
+                    // Nothing was saved; the same edits come back as conflicts next time
+                    exhausted.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private boolean checkNoLostUpdates() {
+        Map<Long, Double> stored = new HashMap<>();
+        for (Grade grade : gradeDAO.findBySubjectAndPeriod(subjectId, PERIOD)) {
+            stored.put(grade.getStudent().getId(), grade.getValue());
+        }
+        int lost = 0;
+        for (int i = 0; i < studentIds.size(); i++) {
+            double value = stored.getOrDefault(studentIds.get(i), 0.0);
+            if (value != expected.get(i)) {
+                if (lost++ < 10) {
+                    System.err.printf("student %d: grade %.0f, expected %d%n", studentIds.get(i), value, expected.get(i));
+                }
+            }
+        }
+        if (lost > 0) {
+            System.err.println(lost + " grades lost updates");
+            return false;
+        }
+        System.out.println("no lost updates: every grade equals the sum of the amounts added to it");
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+package com.school.benchmark;
+
+import com.school.dao.AttendanceDAO;
+import com.school.dao.GradeDAO;
+import com.school.dao.StudentDAO;
+import com.school.dto.StudentRow;
+import com.school.model.Attendance;
+import com.school.model.Grade;
+import com.school.model.Student;
+import com.school.model.Subject;
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import org.openjdk.jmh.annotations.*;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regression baseline for the DAO calls behind the panels, at 1k, 10k and
+ * 100k students: the students list (all entities, and the first keyset page
+ * the students table shows), text search, a grade sheet graded for every
+ * student, and saving a 40-student roll call with {@code saveAll}.
+ * <pre>java -jar target/benchmarks.jar DaoBenchmark</pre>
+ * Narrow it down with JMH's own options, e.g. {@code DaoBenchmark.gradeSheet -p students=100000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-Dhibernate.show_sql=false"})
+public class DaoBenchmark {
+    private static final int ROLL_SIZE = 40;
+    private static final String PERIOD = Grade.PERIODS.get(0);
+    private static final String[] QUERIES = {"maria", "santos lima", "conceicao", "R00012", "júlia mag"};
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 2, 5);
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    private final StudentDAO studentDAO = new StudentDAO();
+    private final GradeDAO gradeDAO = new GradeDAO();
+    private final AttendanceDAO attendanceDAO = new AttendanceDAO();
+    private Subject subject;
+    private List<Student> roll;
+    private int calls;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        DatabaseInitializer.initialize();
+        BenchmarkData.insertStudents(students);
+        subject = BenchmarkData.createSubject("Matemática");
+        BenchmarkData.insertGrades(subject.getId(), PERIOD);
+        roll = studentDAO.findAll().subList(0, ROLL_SIZE);
+        // Build the search index outside the measurement
+        studentDAO.preloadSearchIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public List<Student> studentsFindAll() {
+        return studentDAO.findAll();
+    }
+
+    @Benchmark
+    public List<StudentRow> studentsFirstPage() {
+        return studentDAO.findPage(0L, 100);
+    }
+
+    @Benchmark
+    public List<Long> studentsSearch() {
+        return studentDAO.searchIds(QUERIES[calls++ % QUERIES.length]);
+    }
+
+    @Benchmark
+    public List<Grade> gradeSheet() {
+        return gradeDAO.findBySubjectAndPeriod(subject.getId(), PERIOD);
+    }
+
+    /**
+     * One roll call per call, each on a day not recorded before, so the
+     * unique key never clashes.
+     */
+    @Benchmark
+    public void attendanceSaveAll() {
+        LocalDate day = FIRST_DAY.plusDays(calls++);
+        List<Attendance> entries = new ArrayList<>(ROLL_SIZE);
+        for (int i = 0; i < ROLL_SIZE; i++) {
+            Attendance attendance = new Attendance();
+            attendance.setStudent(roll.get(i));
+            attendance.setSubject(subject);
+            attendance.setDate(day);
+            attendance.setPresent(i % 12 != 0);
+            entries.add(attendance);
+        }
+        attendanceDAO.saveAll(entries);
+    }
+}
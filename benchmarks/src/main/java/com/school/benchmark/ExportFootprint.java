@@ -0,0 +1,87 @@
+package com.school.benchmark;
+
+import com.school.export.ColumnarFormat;
+import com.school.export.CsvExport;
+import com.school.export.ExportFormat;
+import com.school.export.Exporter;
+import com.school.model.Subject;
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Time and file size of exporting a school year of attendance, in CSV and in
+ * the columnar format, from file storage. Run it with a heap far smaller than
+ * the rows exported to show the export does not grow with the data:
+ * <pre>java -Xmx64m -cp target/benchmarks.jar com.school.benchmark.ExportFootprint [students] [days] [subjects]</pre>
+ */
+public class ExportFootprint {
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int subjects = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        Path directory = Files.createTempDirectory("export");
+        System.setProperty(HibernateUtil.STORAGE_PROPERTY, "file");
+        System.setProperty(HibernateUtil.DB_PATH_PROPERTY, directory.resolve("school_db").toString());
+        // Keep the embedded database's page cache out of the heap being measured
+        System.setProperty(HibernateUtil.CACHE_SIZE_PROPERTY, "8192");
+        System.setProperty("hibernate.show_sql", "false");
+        try {
+            DatabaseInitializer.initialize();
+            BenchmarkData.insertStudents(students);
+            List<Long> subjectIds = new ArrayList<>();
+            for (int i = 0; i < subjects; i++) {
+                Subject subject = BenchmarkData.createSubject("Disciplina " + i);
+                subjectIds.add(subject.getId());
+            }
+            LocalDate firstDay = LocalDate.of(2024, 2, 5);
+            long rows = BenchmarkData.insertAttendance(subjectIds, firstDay, days);
+            System.out.printf("%,d attendance rows, max heap %,d MB%n", rows, Runtime.getRuntime().maxMemory() >> 20);
+
+            Exporter exporter = new Exporter();
+            // Warm up with one subject's first month in each format
+            for (ExportFormat format : List.of(CsvExport.INSTANCE, ColumnarFormat.INSTANCE)) {
+                exporter.exportAttendance(subjectIds.get(0), firstDay, firstDay.plusMonths(1),
+                    directory.resolve("aquecimento." + format.extension()), format);
+            }
+            for (ExportFormat format : List.of(CsvExport.INSTANCE, ColumnarFormat.INSTANCE)) {
+                Path file = directory.resolve("frequencia." + format.extension());
+                long start = System.nanoTime();
+                long exported = exporter.exportAttendance(null, firstDay, firstDay.plusYears(1), file, format);
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("%-4s %,d rows in %,d ms, %,d KB%n", format.extension(),
+                    exported, elapsed / 1_000_000, Files.size(file) / 1024);
+            }
+
+            long start = System.nanoTime();
+            long read = 0;
+            try (ColumnarFormat.Reader reader = ColumnarFormat.read(FileChannel.open(directory.resolve("frequencia.scol")))) {
+                while (reader.next() != null) {
+                    read++;
+                }
+            }
+            System.out.printf("scol read back: %,d rows in %,d ms%n", read, (System.nanoTime() - start) / 1_000_000);
+            if (read != rows) {
+                System.exit(1);
+            }
+        } finally {
+            HibernateUtil.shutdown();
+            deleteRecursively(directory);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (var files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
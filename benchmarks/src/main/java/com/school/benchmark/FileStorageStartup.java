@@ -0,0 +1,44 @@
+package com.school.benchmark;
+
+import com.school.dao.StudentDAO;
+import com.school.model.Student;
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Startup time and memory footprint of file storage with a 50k-student
+ * database. Startup is a one-off cost, so this is a plain main instead of a
+ * JMH benchmark:
+ * <pre>java -cp target/benchmarks.jar com.school.benchmark.FileStorageStartup [dbPath] [students]</pre>
+ */
+public class FileStorageStartup {
+    public static void main(String[] args) throws Exception {
+        Path dbPath = Path.of(args.length > 0 ? args[0] : "target/bench-data/school_db").toAbsolutePath();
+        int students = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        System.setProperty(HibernateUtil.STORAGE_PROPERTY, "file");
+        System.setProperty(HibernateUtil.DB_PATH_PROPERTY, dbPath.toString());
+        System.setProperty("hibernate.show_sql", "false");
+
+        DatabaseInitializer.initialize();
+        BenchmarkData.insertStudents(students);
+        HibernateUtil.shutdown();
+
+        long heapBefore = BenchmarkData.usedHeap();
+        long start = System.nanoTime();
+        DatabaseInitializer.initialize();
+        long initialized = System.nanoTime();
+        List<Student> roster = new StudentDAO().findAll();
+        long listed = System.nanoTime();
+        long heapAfter = BenchmarkData.usedHeap();
+        int loaded = roster.size();
+        HibernateUtil.shutdown();
+
+        System.out.printf("database file:        %,d KB%n", Files.size(Path.of(dbPath + ".mv.db")) / 1024);
+        System.out.printf("initialize():         %d ms%n", (initialized - start) / 1_000_000);
+        System.out.printf("first student list:   %d ms (%,d rows)%n", (listed - initialized) / 1_000_000, loaded);
+        System.out.printf("retained heap growth: %,d KB%n", (heapAfter - heapBefore) / 1024);
+    }
+}
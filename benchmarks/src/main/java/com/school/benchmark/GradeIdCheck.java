@@ -0,0 +1,70 @@
+package com.school.benchmark;
+
+import com.school.dao.GradeDAO;
+import com.school.dao.StudentDAO;
+import com.school.dao.UnitOfWork;
+import com.school.model.Grade;
+import com.school.model.Student;
+import com.school.model.Subject;
+import com.school.util.HibernateUtil;
+import org.hibernate.Session;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that grade ids taken by {@link GradeDAO#upsertSheet} and by
+ * Hibernate's generator never collide, starting from an empty database so
+ * the first ids come from a fresh sequence, and exits with status 1 if any
+ * id is repeated or not positive.
+ * <pre>java -cp target/benchmarks.jar com.school.benchmark.GradeIdCheck</pre>
+ */
+public class GradeIdCheck {
+    private static final int STUDENTS = 300;
+    private static final int SHEETS = 6;
+
+    public static void main(String[] args) {
+        System.setProperty("hibernate.show_sql", "false");
+        try {
+            GradeDAO gradeDAO = new GradeDAO();
+            Subject subject = BenchmarkData.createSubject("Matemática");
+            List<Student> students = new StudentDAO().findByRegistrations(BenchmarkData.createStudents("1A", STUDENTS));
+
+            // Each sheet takes its first grades from the upsert, the first one
+            // straight off the fresh sequence, then some from the generator
+            for (int i = 0; i < SHEETS; i++) {
+                String period = "Avaliação " + i;
+                Map<Long, Double> sheet = new HashMap<>();
+                for (Student student : students.subList(0, STUDENTS / 2)) {
+                    sheet.put(student.getId(), 7.0);
+                }
+                gradeDAO.upsertSheet(subject.getId(), period, sheet);
+                try (UnitOfWork work = UnitOfWork.begin()) {
+                    for (Student student : students.subList(STUDENTS / 2, STUDENTS)) {
+                        Grade grade = new Grade();
+                        grade.setStudent(student);
+                        grade.setSubject(subject);
+                        grade.setPeriod(period);
+                        grade.setValue(8.0);
+                        gradeDAO.save(work, grade);
+                    }
+                    work.commit();
+                }
+            }
+
+            Object[] ids;
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                ids = session.createQuery("SELECT COUNT(g), COUNT(DISTINCT g.id), MIN(g.id) FROM Grade g", Object[].class)
+                    .uniqueResult();
+            }
+            System.out.printf("%,d grades, %,d distinct ids, lowest %d%n", ids[0], ids[1], ids[2]);
+            if ((Long) ids[0] != (long) STUDENTS * SHEETS || !ids[0].equals(ids[1]) || (Long) ids[2] < 1) {
+                System.err.println("Grade ids collide or are out of range");
+                System.exit(1);
+            }
+            System.out.println("grade ids are unique and positive");
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
+}
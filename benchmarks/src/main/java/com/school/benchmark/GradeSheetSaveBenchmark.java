@@ -0,0 +1,72 @@
+package com.school.benchmark;
+
+import com.school.dao.GradeDAO;
+import com.school.dao.StudentDAO;
+import com.school.dao.UnitOfWork;
+import com.school.model.Grade;
+import com.school.model.Student;
+import com.school.model.Subject;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second when saving a 40-student grade sheet: one transaction per
+ * grade against the whole sheet in one {@link UnitOfWork}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradeSheetSaveBenchmark {
+    private static final int SHEET_SIZE = 40;
+
+    private final GradeDAO gradeDAO = new GradeDAO();
+    private Subject subject;
+    private List<Student> students;
+    private int sheet;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        subject = BenchmarkData.createSubject("Matemática");
+        students = new StudentDAO().findByRegistrations(BenchmarkData.createStudents("1A", SHEET_SIZE));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHEET_SIZE)
+    public void commitPerGrade() {
+        for (Grade grade : nextSheet()) {
+            gradeDAO.save(grade);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHEET_SIZE)
+    public void unitOfWork() {
+        List<Grade> grades = nextSheet();
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            grades.forEach(grade -> gradeDAO.save(work, grade));
+            work.commit();
+        }
+    }
+
+    /**
+     * A sheet for a period not used before, so the unique key never clashes.
+     */
+    private List<Grade> nextSheet() {
+        String period = "Avaliação " + ++sheet;
+        List<Grade> grades = new ArrayList<>(SHEET_SIZE);
+        for (Student student : students) {
+            Grade grade = new Grade();
+            grade.setStudent(student);
+            grade.setSubject(subject);
+            grade.setValue(7.5);
+            grade.setPeriod(period);
+            grades.add(grade);
+        }
+        return grades;
+    }
+}
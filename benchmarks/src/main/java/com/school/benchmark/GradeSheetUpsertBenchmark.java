@@ -0,0 +1,93 @@
+package com.school.benchmark;
+
+import com.school.dao.GradeDAO;
+import com.school.dao.StudentDAO;
+import com.school.model.Grade;
+import com.school.model.Student;
+import com.school.model.Subject;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving a whole 2,000-student grade sheet of which {@code changed} grades
+ * differ from the stored ones: {@link GradeDAO#upsertSheet}, which diffs the
+ * sheet and writes the changes with batched MERGE, against
+ * {@link GradeDAO#saveSheet}, which merges each grade through its entity.
+ * <pre>java -jar target/benchmarks.jar GradeSheetUpsertBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Dhibernate.show_sql=false"})
+public class GradeSheetUpsertBenchmark {
+    private static final int SHEET_SIZE = 2_000;
+    private static final String PERIOD = Grade.PERIODS.get(0);
+
+    @Param({"0", "200", "2000"})
+    private int changed;
+
+    private final GradeDAO gradeDAO = new GradeDAO();
+    private Long subjectId;
+    private List<Long> studentIds;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        Subject subject = BenchmarkData.createSubject("Matemática");
+        subjectId = subject.getId();
+        studentIds = new StudentDAO().findByRegistrations(BenchmarkData.createStudents("1A", SHEET_SIZE)).stream()
+            .map(Student::getId)
+            .toList();
+        gradeDAO.upsertSheet(subjectId, PERIOD, nextSheet());
+    }
+
+    /**
+     * The versions {@link GradeDAO#saveSheet} needs, read before each call
+     * outside the measurement.
+     */
+    @State(Scope.Thread)
+    public static class Versions {
+        final Map<Long, Long> byStudent = new HashMap<>();
+
+        @Setup(Level.Invocation)
+        public void read(GradeSheetUpsertBenchmark benchmark) {
+            byStudent.clear();
+            for (Grade grade : benchmark.gradeDAO.findBySubjectAndPeriod(benchmark.subjectId, PERIOD)) {
+                byStudent.put(grade.getStudent().getId(), grade.getVersion());
+            }
+        }
+    }
+
+    @Benchmark
+    public int upsertSheet() {
+        return gradeDAO.upsertSheet(subjectId, PERIOD, nextSheet());
+    }
+
+    @Benchmark
+    public int saveSheet(Versions versions) {
+        List<GradeDAO.GradeEdit> edits = new ArrayList<>(SHEET_SIZE);
+        nextSheet().forEach((studentId, value) ->
+            edits.add(new GradeDAO.GradeEdit(studentId, versions.byStudent.get(studentId), value)));
+        return gradeDAO.saveSheet(subjectId, PERIOD, edits).saved();
+    }
+
+    /**
+     * The whole sheet, with the first {@code changed} grades flipped between
+     * two values from one call to the next and the rest always the same.
+     */
+    private Map<Long, Double> nextSheet() {
+        double flipped = ++round % 2 == 0 ? 6.0 : 8.0;
+        Map<Long, Double> sheet = new LinkedHashMap<>();
+        for (int i = 0; i < studentIds.size(); i++) {
+            sheet.put(studentIds.get(i), i < changed ? flipped : 7.0);
+        }
+        return sheet;
+    }
+}
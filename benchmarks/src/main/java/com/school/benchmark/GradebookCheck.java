@@ -0,0 +1,160 @@
+package com.school.benchmark;
+
+import com.school.dao.GradeDAO;
+import com.school.dao.GradebookDAO;
+import com.school.dao.StudentDAO;
+import com.school.dao.UnitOfWork;
+import com.school.model.Grade;
+import com.school.model.Student;
+import com.school.model.Subject;
+import com.school.util.HibernateUtil;
+import org.hibernate.Session;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks that the incrementally maintained gradebook summaries match a full
+ * recomputation after a random mix of grade inserts, edits, deletes, whole
+ * sheet upserts and class changes, and exits with status 1 if they drift.
+ * <pre>java -cp target/benchmarks.jar com.school.benchmark.GradebookCheck</pre>
+ */
+public class GradebookCheck {
+    private static final String[] PERIODS = {"1º Bimestre", "2º Bimestre", "3º Bimestre", "4º Bimestre"};
+    private static final String[] CLASSES = {"9º A", "9º B", "9º C"};
+    private static final int STUDENTS_PER_CLASS = 30;
+    private static final int OPERATIONS = 2_000;
+
+    private static final List<String> SNAPSHOT = List.of(
+        "SELECT s.studentId, s.subjectId, s.gradeCount, s.gradeSum, s.minValue, s.maxValue " +
+        "FROM StudentSubjectSummary s ORDER BY s.studentId, s.subjectId",
+        "SELECT c.className, c.subjectId, c.period, c.gradeCount, c.gradeSum, c.minValue, c.maxValue, " +
+        "c.passedCount FROM ClassSubjectSummary c ORDER BY c.className, c.subjectId, c.period");
+
+    public static void main(String[] args) {
+        System.setProperty("hibernate.show_sql", "false");
+        try {
+            Random random = new Random(42);
+            GradeDAO gradeDAO = new GradeDAO();
+            StudentDAO studentDAO = new StudentDAO();
+            List<Subject> subjects = List.of(
+                BenchmarkData.createSubject("Matemática"), BenchmarkData.createSubject("História"));
+            for (String className : CLASSES) {
+                BenchmarkData.createStudents(className, STUDENTS_PER_CLASS);
+            }
+            List<Student> students = studentDAO.findAll();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                int operation = random.nextInt(10);
+                if (operation == 0) {
+                    Student student = students.get(random.nextInt(students.size()));
+                    student.setClassName(CLASSES[random.nextInt(CLASSES.length)]);
+                    studentDAO.update(student);
+                } else if (operation == 1) {
+                    upsertSheet(gradeDAO, random, students,
+                        subjects.get(random.nextInt(subjects.size())), PERIODS[random.nextInt(PERIODS.length)]);
+                } else {
+                    saveSheet(gradeDAO, random, students,
+                        subjects.get(random.nextInt(subjects.size())), PERIODS[random.nextInt(PERIODS.length)]);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            List<String> incremental = snapshot();
+            new GradebookDAO().rebuild();
+            List<String> rebuilt = snapshot();
+
+            System.out.printf("%,d operations in %d ms, %d summary rows%n",
+                OPERATIONS, elapsed / 1_000_000, rebuilt.size());
+            if (!incremental.equals(rebuilt)) {
+                List<String> drifted = new ArrayList<>(incremental);
+                drifted.removeAll(rebuilt);
+                System.err.println("Summaries drifted from the grades:\n" + String.join("\n", drifted));
+                System.exit(1);
+            }
+            System.out.println("summaries match a full recomputation");
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
+
+    /**
+     * Inserts, edits or deletes a few grades of one sheet in a single unit of work.
+     */
+    private static void saveSheet(GradeDAO gradeDAO, Random random, List<Student> students,
+                                  Subject subject, String period) {
+        List<Grade> sheet = gradeDAO.findBySubjectAndPeriod(subject.getId(), period);
+        // Hibernate flushes inserts before deletes, so a deleted grade is not re-added in the same unit
+        Set<Long> graded = new HashSet<>();
+        sheet.forEach(grade -> graded.add(grade.getStudent().getId()));
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            for (int i = 0; i < 5; i++) {
+                int choice = random.nextInt(4);
+                if (choice == 0 && !sheet.isEmpty()) {
+                    gradeDAO.delete(work, sheet.remove(random.nextInt(sheet.size())).getId());
+                } else if (choice == 1 && !sheet.isEmpty()) {
+                    Grade grade = sheet.get(random.nextInt(sheet.size()));
+                    grade.setValue(randomValue(random));
+                    gradeDAO.update(work, grade);
+                } else {
+                    Student student = students.get(random.nextInt(students.size()));
+                    if (!graded.add(student.getId())) {
+                        continue;
+                    }
+                    Grade grade = new Grade();
+                    grade.setStudent(student);
+                    grade.setSubject(subject);
+                    grade.setPeriod(period);
+                    grade.setValue(randomValue(random));
+                    gradeDAO.save(work, grade);
+                    sheet.add(grade);
+                }
+            }
+            work.commit();
+        }
+    }
+
+    /**
+     * Upserts a whole sheet in which about a third of the students get a new
+     * grade, a tenth lose theirs and the rest are left out.
+     */
+    private static void upsertSheet(GradeDAO gradeDAO, Random random, List<Student> students,
+                                    Subject subject, String period) {
+        Map<Long, Double> sheet = new HashMap<>();
+        for (Student student : students) {
+            int choice = random.nextInt(10);
+            if (choice < 3) {
+                sheet.put(student.getId(), randomValue(random));
+            } else if (choice == 3) {
+                sheet.put(student.getId(), null);
+            }
+        }
+        gradeDAO.upsertSheet(subject.getId(), period, sheet);
+    }
+
+    private static double randomValue(Random random) {
+        return Math.round(random.nextDouble() * 100) / 10.0;
+    }
+
+    static List<String> snapshot() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            List<String> rows = new ArrayList<>();
+            for (String query : SNAPSHOT) {
+                for (Object[] row : session.createQuery(query, Object[].class).list()) {
+                    StringBuilder line = new StringBuilder();
+                    for (Object value : row) {
+                        // Rounded so that float error from adding up sums does not count as drift
+                        line.append(value instanceof Double d ? String.format("%.6f", d) : value).append(' ');
+                    }
+                    rows.add(line.toString());
+                }
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.school.benchmark;
+
+import com.school.importer.GradeImporter;
+import com.school.importer.ImportResult;
+import com.school.importer.RowImporter;
+import com.school.importer.StudentImporter;
+import com.school.model.Grade;
+import com.school.model.Subject;
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Time to import an enrollment-sized roster and a grade sheet for it from CSV,
+ * with a few bad rows mixed in. Bulk loading is a one-off, so this is a plain
+ * main instead of a JMH benchmark:
+ * <pre>java -cp target/benchmarks.jar com.school.benchmark.ImportThroughput [students] [batchSize]</pre>
+ */
+public class ImportThroughput {
+    public static void main(String[] args) throws IOException {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : RowImporter.DEFAULT_BATCH_SIZE;
+        System.setProperty("hibernate.show_sql", "false");
+        Path directory = Files.createTempDirectory("import");
+        try {
+            DatabaseInitializer.initialize();
+            Subject subject = BenchmarkData.createSubject("Matemática");
+
+            Path roster = directory.resolve("alunos.csv");
+            try (BufferedWriter out = Files.newBufferedWriter(roster, StandardCharsets.UTF_8)) {
+                out.write("nome;email;matrícula;nascimento;turma\r\n");
+                for (int i = 0; i < students; i++) {
+                    // Every 1000th row repeats the registration of the row before it
+                    int registration = i % 1000 == 999 ? i - 1 : i;
+                    out.write(String.format("%s;aluno%d@escola.test;R%07d;%s;%dº %c\r\n",
+                        BenchmarkData.studentName(i), i, registration,
+                        LocalDate.of(2008, 1, 1).plusDays(i % 3650), i % 12 + 1, (char) ('A' + i % 4)));
+                }
+            }
+            long start = System.nanoTime();
+            ImportResult imported = new StudentImporter().batchSize(batchSize).importFile(roster);
+            report("students", imported, System.nanoTime() - start);
+
+            Path sheet = directory.resolve("notas.csv");
+            try (BufferedWriter out = Files.newBufferedWriter(sheet, StandardCharsets.UTF_8)) {
+                out.write("matrícula,disciplina,período,nota\r\n");
+                for (int i = 0; i < students; i++) {
+                    out.write(String.format("R%07d,%s,%s,\"%d,%d\"\r\n",
+                        i, subject.getName(), Grade.PERIODS.get(0), i % 100 / 10, i % 10));
+                }
+            }
+            start = System.nanoTime();
+            imported = new GradeImporter().batchSize(batchSize).importFile(sheet);
+            report("grades", imported, System.nanoTime() - start);
+        } finally {
+            HibernateUtil.shutdown();
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static void report(String what, ImportResult result, long nanos) throws IOException {
+        System.out.printf("%-9s %,d rows in %,d ms (%,d rows/s), %,d rejected, e.g. %s%n",
+            what, result.imported(), nanos / 1_000_000, result.imported() * 1_000_000_000L / nanos,
+            result.rejected(),
+            result.rejectedRows() == null ? "-" : Files.readAllLines(result.rejectedRows()).get(1));
+    }
+}
@@ -0,0 +1,299 @@
+package com.school.benchmark;
+
+import com.school.dao.AttendanceDAO;
+import com.school.dao.GradeDAO;
+import com.school.dao.JournalReplay;
+import com.school.dao.StudentDAO;
+import com.school.journal.ChangeEvent;
+import com.school.journal.ChangeJournal;
+import com.school.journal.JournalEntry;
+import com.school.model.Grade;
+import com.school.model.Student;
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks the change journal end to end and times it. A school year from
+ * {@link SchoolDataGenerator}, written around the DAOs, is seeded into an
+ * empty journal; editors then change grades and save roll calls from many
+ * threads through the DAOs, which journal every commit with group commit.
+ * An edited grade's history must name who changed it. Finally the journal
+ * is reopened, as after a restart, the tables are rebuilt from it, and
+ * students, grades, attendance and summaries must come back the same.
+ * Exits with status 1 otherwise. Also times bare appends and syncs from one
+ * and from many threads, to show commits sharing fsyncs.
+ * <pre>java -cp target/benchmarks.jar com.school.benchmark.JournalReplayCheck [students=1000] [attendanceDays=200] [editors=8]</pre>
+ * The journal goes to a temporary directory unless {@code -Dschool.journal.dir} says otherwise.
+ * At full size, run it on file storage ({@code -Dschool.storage=file -Dschool.db.path=...}) or
+ * with a larger heap: the rebuild keeps the old rows until it commits.
+ */
+public class JournalReplayCheck {
+    private static final int SAVES_PER_EDITOR = 50;
+    private static final int GRADES_PER_SAVE = 3;
+    private static final int SYNCS_PER_THREAD = 500;
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int attendanceDays = args.length > 1 ? Integer.parseInt(args[1]) : SchoolDataGenerator.SCHOOL_YEAR_DAYS;
+        int editors = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        System.setProperty("hibernate.show_sql", "false");
+        if (System.getProperty(ChangeJournal.DIR_PROPERTY) == null) {
+            System.setProperty(ChangeJournal.DIR_PROPERTY, Files.createTempDirectory("journal").toString());
+        }
+        boolean ok = true;
+        try {
+            timeGroupCommit(1);
+            timeGroupCommit(editors);
+
+            DatabaseInitializer.initialize();
+            long start = System.nanoTime();
+            SchoolDataGenerator.Result year = new SchoolDataGenerator(
+                SchoolDataGenerator.Shape.of(students, attendanceDays), 42).generate();
+            System.out.printf("generated %,d students, %,d grades, %,d roll-call entries in %,d ms%n",
+                year.students(), year.grades(), year.attendanceEntries(), (System.nanoTime() - start) / 1_000_000);
+            start = System.nanoTime();
+            long seeded = new JournalReplay().seed();
+            System.out.printf("seeded the journal with %,d events in %,d ms%n", seeded,
+                (System.nanoTime() - start) / 1_000_000);
+
+            edit(editors);
+            ok &= checkHistory();
+
+            Map<String, String> before = digest();
+            List<String> summariesBefore = GradebookCheck.snapshot();
+            long size = ChangeJournal.shared().size();
+            // Reopened as after a restart, so the rebuild reads what recovery finds
+            ChangeJournal.closeShared();
+            JournalReplay.Result result = new JournalReplay().rebuild();
+            System.out.printf("rebuilt %,d students, %,d grades and %,d roll-call entries from %,d events " +
+                    "(%,d MB of journal) in %,d ms%n", result.students(), result.grades(), result.attendanceEntries(),
+                result.events(), size >> 20, result.millis());
+            Map<String, String> after = digest();
+            for (String table : before.keySet()) {
+                if (!before.get(table).equals(after.get(table))) {
+                    System.err.println(table + " differs after the rebuild: " + before.get(table) + " then " +
+                        after.get(table));
+                    ok = false;
+                }
+            }
+            if (!summariesBefore.equals(GradebookCheck.snapshot())) {
+                System.err.println("Summaries differ after the rebuild");
+                ok = false;
+            }
+            if (ok) {
+                System.out.println("students, grades, attendance and summaries match after the rebuild: " + after);
+            }
+        } finally {
+            HibernateUtil.shutdown();
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Appends and syncs one event at a time from {@code threads} threads, to
+     * a journal of its own: with group commit, more threads share each fsync.
+     */
+    private static void timeGroupCommit(int threads) throws Exception {
+        Path directory = Files.createTempDirectory("journal-sync");
+        try (ChangeJournal journal = ChangeJournal.open(directory)) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long studentId = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < SYNCS_PER_THREAD; i++) {
+                        journal.sync(journal.append("benchmark",
+                            List.of(new ChangeEvent.GradeSet(studentId, 1, "1º Bimestre", (double) (i % 10)))));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            pool.shutdown();
+            System.out.printf("%d thread(s): %,d synced appends in %,d ms, %,.0f commits/s%n", threads,
+                threads * SYNCS_PER_THREAD, elapsed / 1_000_000, threads * SYNCS_PER_THREAD / (elapsed / 1e9));
+        }
+    }
+
+    /**
+     * Editors change random grades and save roll calls for days after the
+     * school year, every commit journaled.
+     */
+    private static void edit(int editors) throws Exception {
+        List<Long> subjectIds = new ArrayList<>();
+        List<List<String>> classes = new ArrayList<>();
+        try (Connection connection = HibernateUtil.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT DISTINCT subject_id FROM grades ORDER BY 1")) {
+                while (rs.next()) {
+                    subjectIds.add(rs.getLong(1));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT className, registration FROM students ORDER BY className, registration")) {
+                String className = null;
+                while (rs.next()) {
+                    if (!rs.getString(1).equals(className)) {
+                        className = rs.getString(1);
+                        classes.add(new ArrayList<>());
+                    }
+                    classes.get(classes.size() - 1).add(rs.getString(2));
+                }
+            }
+        }
+        GradeDAO gradeDAO = new GradeDAO();
+        AttendanceDAO attendanceDAO = new AttendanceDAO();
+        LocalDate firstDay = LocalDate.of(SchoolDataGenerator.FIRST_DAY.getYear(), 12, 1);
+        AtomicLong commits = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(editors);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int e = 0; e < editors; e++) {
+            int editor = e;
+            futures.add(pool.submit(() -> {
+                SplittableRandom random = new SplittableRandom(editor);
+                for (int save = 0; save < SAVES_PER_EDITOR; save++) {
+                    if (save % 5 == 0) {
+                        // A roll call of the editor's own class, on a day nobody else calls it
+                        List<String> registrations = classes.get(editor % classes.size());
+                        Map<String, Boolean> roll = new HashMap<>();
+                        registrations.forEach(registration -> roll.put(registration, random.nextInt(10) > 0));
+                        attendanceDAO.saveRoll(subjectIds.get(editor % subjectIds.size()),
+                            firstDay.plusDays(editor * SAVES_PER_EDITOR + save), roll);
+                    } else {
+                        Long subjectId = subjectIds.get(random.nextInt(subjectIds.size()));
+                        String period = Grade.PERIODS.get(random.nextInt(Grade.PERIODS.size()));
+                        List<Grade> sheet = gradeDAO.findBySubjectAndPeriod(subjectId, period);
+                        List<GradeDAO.GradeEdit> edits = new ArrayList<>();
+                        for (int i = 0; i < GRADES_PER_SAVE; i++) {
+                            Grade grade = sheet.get(random.nextInt(sheet.size()));
+                            edits.add(new GradeDAO.GradeEdit(grade.getStudent().getId(), grade.getVersion(),
+                                Math.round(random.nextDouble() * 100) / 10.0));
+                        }
+                        // Conflicting edits are dropped: the other editor's grade stays
+                        gradeDAO.saveSheet(subjectId, period, edits.stream().distinct().toList());
+                    }
+                    commits.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        System.out.printf("%d editors: %,d journaled commits in %,d ms, %,.0f commits/s%n", editors, commits.get(),
+            elapsed / 1_000_000, commits.get() / (elapsed / 1e9));
+    }
+
+    /**
+     * A grade changed twice and a student renamed by a named user: the
+     * grade's history must show the seeded value, then both changes as theirs.
+     */
+    private static boolean checkHistory() {
+        GradeDAO gradeDAO = new GradeDAO();
+        StudentDAO studentDAO = new StudentDAO();
+        ChangeJournal.setActor("secretaria");
+        Student student = studentDAO.findAll().get(0);
+        student.setName(student.getName() + " Filho");
+        studentDAO.update(student);
+        Grade grade = gradeDAO.findBySubjectAndPeriod(
+            firstSubjectOf(student.getId()), Grade.PERIODS.get(0)).stream()
+            .filter(g -> g.getStudent().getId().equals(student.getId()))
+            .findFirst().orElseThrow();
+        for (double value : new double[]{3.5, 4.5}) {
+            Grade current = gradeDAO.findById(grade.getId());
+            current.setValue(value);
+            gradeDAO.update(current);
+        }
+        List<JournalEntry> history = gradeDAO.findHistory(student.getId(), grade.getSubject().getId(),
+            grade.getPeriod());
+        List<String> actors = history.stream().map(JournalEntry::actor).toList();
+        boolean ok = history.size() >= 3 && actors.get(0).equals(JournalReplay.SEED_ACTOR)
+            && actors.get(actors.size() - 1).equals("secretaria")
+            && ((ChangeEvent.GradeSet) history.get(history.size() - 1).event()).value() == 4.5;
+        for (JournalEntry entry : history) {
+            System.out.printf("  %s %-18s %s%n", entry.recordedAt(), entry.actor(),
+                ((ChangeEvent.GradeSet) entry.event()).value());
+        }
+        if (!ok) {
+            System.err.println("The grade's history does not show who changed it: " + actors);
+        }
+        return ok;
+    }
+
+    private static Long firstSubjectOf(Long studentId) {
+        try (Connection connection = HibernateUtil.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT MIN(subject_id) FROM grades WHERE student_id = " + studentId)) {
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Row count and digest of the journaled tables, ids of grades and
+     * attendance left out since a rebuild assigns new ones.
+     */
+    private static Map<String, String> digest() throws SQLException, NoSuchAlgorithmException {
+        Map<String, String> digests = new LinkedHashMap<>();
+        try (Connection connection = HibernateUtil.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            digests.put("students", digest(statement, "SELECT id, name, email, registration, birthDate, className " +
+                "FROM students ORDER BY id"));
+            digests.put("grades", digest(statement, "SELECT subject_id, period, student_id, grade_value " +
+                "FROM grades ORDER BY subject_id, period, student_id"));
+            digests.put("attendance", digest(statement, "SELECT subject_id, date, student_id, present " +
+                "FROM attendance ORDER BY subject_id, date, student_id"));
+            digests.put("attendance_month", digest(statement, "SELECT subject_id, month_start, student_id, " +
+                "recorded_days, present_days FROM attendance_month ORDER BY subject_id, month_start, student_id"));
+        }
+        return digests;
+    }
+
+    private static String digest(Statement statement, String sql) throws SQLException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        long rows = 0;
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    digest.update(String.valueOf(rs.getObject(i)).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                }
+                rows++;
+            }
+        }
+        return rows + " rows " + HexFormat.of().formatHex(digest.digest(), 0, 6);
+    }
+}
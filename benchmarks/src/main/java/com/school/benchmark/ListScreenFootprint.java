@@ -0,0 +1,78 @@
+package com.school.benchmark;
+
+import com.school.dao.StudentDAO;
+import com.school.dto.StudentRow;
+import com.school.model.Student;
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import java.util.List;
+
+/**
+ * Time and retained heap of the students list loaded as managed entities
+ * versus as {@link StudentRow} projections, over the whole table and over one
+ * table page:
+ * <pre>java -cp target/benchmarks.jar com.school.benchmark.ListScreenFootprint [students]</pre>
+ */
+public class ListScreenFootprint {
+    private static final int PAGE_SIZE = 100;
+    private static final int PAGE_ROUNDS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        System.setProperty("hibernate.show_sql", "false");
+        DatabaseInitializer.initialize();
+        BenchmarkData.insertStudents(students);
+        StudentDAO studentDAO = new StudentDAO();
+        try {
+            // Warm up both paths before measuring
+            studentDAO.findAll();
+            studentDAO.findPage(0L, Integer.MAX_VALUE);
+
+            long start = System.nanoTime();
+            List<Student> entities = studentDAO.findAll();
+            long entityMillis = (System.nanoTime() - start) / 1_000_000;
+            int entityCount = entities.size();
+            long heapHeld = BenchmarkData.usedHeap();
+            entities = null;
+            // The in-memory database shares the heap, so measure what releasing the list frees
+            long entityHeap = heapHeld - BenchmarkData.usedHeap();
+
+            start = System.nanoTime();
+            List<StudentRow> rows = studentDAO.findPage(0L, Integer.MAX_VALUE);
+            long rowMillis = (System.nanoTime() - start) / 1_000_000;
+            int rowCount = rows.size();
+            heapHeld = BenchmarkData.usedHeap();
+            rows = null;
+            long rowHeap = heapHeld - BenchmarkData.usedHeap();
+
+            System.out.printf("%-22s %10s %12s%n", "whole table", "time", "heap");
+            System.out.printf("%-22s %7d ms %,9d KB  (%,d rows)%n", "entities", entityMillis, entityHeap / 1024, entityCount);
+            System.out.printf("%-22s %7d ms %,9d KB  (%,d rows)%n", "projections", rowMillis, rowHeap / 1024, rowCount);
+
+            System.out.printf("%n%-22s %10s%n", PAGE_SIZE + "-row page", "avg time");
+            System.out.printf("%-22s %7.2f ms%n", "entities", pageMillis(() -> {
+                try (var session = HibernateUtil.getSessionFactory().openSession()) {
+                    session.createQuery("FROM Student s WHERE s.id > :afterId ORDER BY s.id", Student.class)
+                        .setParameter("afterId", (long) (students / 2))
+                        .setMaxResults(PAGE_SIZE)
+                        .list();
+                }
+            }));
+            System.out.printf("%-22s %7.2f ms%n", "projections",
+                pageMillis(() -> studentDAO.findPage((long) (students / 2), PAGE_SIZE)));
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
+
+    private static double pageMillis(Runnable page) {
+        for (int i = 0; i < PAGE_ROUNDS; i++) {
+            page.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < PAGE_ROUNDS; i++) {
+            page.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / PAGE_ROUNDS;
+    }
+}
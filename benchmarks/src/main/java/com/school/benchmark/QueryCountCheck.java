@@ -0,0 +1,125 @@
+package com.school.benchmark;
+
+import com.school.dao.AttendanceDAO;
+import com.school.dao.GradeDAO;
+import com.school.dao.StudentDAO;
+import com.school.dao.SubjectDAO;
+import com.school.dao.TeacherDAO;
+import com.school.model.Grade;
+import com.school.model.Student;
+import com.school.model.Subject;
+import com.school.model.Teacher;
+import com.school.util.HibernateUtil;
+import org.hibernate.stat.Statistics;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each screen load issues, at two data sizes, and
+ * exits with status 1 if any count grows with the number of rows (an N+1).
+ * <pre>java -cp target/benchmarks.jar com.school.benchmark.QueryCountCheck</pre>
+ */
+public class QueryCountCheck {
+    private static final int PAGE_SIZE = 100;
+    private static final String PERIOD = "1º Bimestre";
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    private final StudentDAO studentDAO = new StudentDAO();
+    private final TeacherDAO teacherDAO = new TeacherDAO();
+    private final SubjectDAO subjectDAO = new SubjectDAO();
+    private final GradeDAO gradeDAO = new GradeDAO();
+    private final AttendanceDAO attendanceDAO = new AttendanceDAO();
+    private Subject rollSubject;
+    private int seeded;
+
+    public static void main(String[] args) {
+        System.setProperty("hibernate.generate_statistics", "true");
+        System.setProperty("hibernate.show_sql", "false");
+        QueryCountCheck check = new QueryCountCheck();
+        try {
+            check.seedTo(5);
+            Map<String, Long> small = check.countScreenLoads();
+            check.seedTo(50);
+            Map<String, Long> large = check.countScreenLoads();
+
+            boolean grows = false;
+            System.out.printf("%-14s %10s %10s%n", "screen", "5 rows", "50 rows");
+            for (String screen : small.keySet()) {
+                boolean screenGrows = large.get(screen) > small.get(screen);
+                grows |= screenGrows;
+                System.out.printf("%-14s %10d %10d%s%n", screen, small.get(screen), large.get(screen),
+                    screenGrows ? "   <- grows with row count" : "");
+            }
+            if (grows) {
+                System.exit(1);
+            }
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
+
+    private Map<String, Long> countScreenLoads() {
+        Map<String, Runnable> screens = new LinkedHashMap<>();
+        screens.put("Alunos", () -> {
+            studentDAO.count();
+            studentDAO.findPage(0L, PAGE_SIZE);
+        });
+        screens.put("Professores", () -> {
+            teacherDAO.count();
+            teacherDAO.findPage(0L, PAGE_SIZE);
+        });
+        screens.put("Disciplinas", () -> {
+            subjectDAO.count();
+            subjectDAO.findPage(0L, PAGE_SIZE);
+        });
+        screens.put("Notas", () -> {
+            subjectDAO.findAll().forEach(Subject::toString);
+            for (Grade grade : gradeDAO.findBySubjectAndPeriod(rollSubject.getId(), PERIOD)) {
+                grade.getStudent().getName();
+            }
+        });
+        screens.put("Frequência", () -> attendanceDAO.findBySubjectAndDate(rollSubject.getId(), DATE)
+            .forEach(attendance -> attendance.getStudent().getName()));
+
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Runnable> screen : screens.entrySet()) {
+            statistics.clear();
+            screen.getValue().run();
+            counts.put(screen.getKey(), statistics.getPrepareStatementCount());
+        }
+        return counts;
+    }
+
+    /**
+     * Grows every table to {@code rows} teachers, students, grades and roll entries.
+     */
+    private void seedTo(int rows) {
+        if (rollSubject == null) {
+            rollSubject = BenchmarkData.createSubject("Matemática");
+        }
+        for (int i = seeded; i < rows; i++) {
+            Teacher teacher = BenchmarkData.createTeacher("Professor " + i);
+            BenchmarkData.createSubject("Física " + i, teacher);
+            BenchmarkData.createSubject("Química " + i, teacher);
+        }
+        List<String> registrations = BenchmarkData.createStudents("Q" + rows, rows - seeded);
+        Map<String, Boolean> roll = new LinkedHashMap<>();
+        List<Grade> grades = new ArrayList<>();
+        for (Student student : studentDAO.findByRegistrations(registrations)) {
+            Grade grade = new Grade();
+            grade.setStudent(student);
+            grade.setSubject(rollSubject);
+            grade.setValue(7.5);
+            grade.setPeriod(PERIOD);
+            grades.add(grade);
+            roll.put(student.getRegistration(), true);
+        }
+        gradeDAO.saveAll(grades);
+        attendanceDAO.saveRoll(rollSubject.getId(), DATE, roll);
+        seeded = rows;
+    }
+}
@@ -0,0 +1,61 @@
+package com.school.benchmark;
+
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query-plan regression check for the hot DAO lookups: runs H2's EXPLAIN on
+ * each query and exits with status 1 if any of them falls back to a table scan.
+ * <pre>java -cp target/benchmarks.jar com.school.benchmark.QueryPlanCheck</pre>
+ */
+public class QueryPlanCheck {
+    private static final Map<String, String> HOT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        HOT_QUERIES.put("GradeDAO.findBySubjectAndPeriod",
+            "SELECT * FROM grades WHERE subject_id = 1 AND period = '1º Bimestre'");
+        HOT_QUERIES.put("AttendanceDAO.findBySubjectAndDate",
+            "SELECT * FROM attendance WHERE subject_id = 1 AND date = DATE '2024-03-01'");
+        HOT_QUERIES.put("StudentDAO.findByRegistration",
+            "SELECT * FROM students WHERE registration = 'R0000001'");
+        HOT_QUERIES.put("students by class",
+            "SELECT * FROM students WHERE className = '1º A'");
+        HOT_QUERIES.put("EnrollmentDAO.findClassNames",
+            "SELECT class_name FROM class_enrollment WHERE subject_id = 1");
+        HOT_QUERIES.put("EnrollmentDAO.findSubjectIds",
+            "SELECT subject_id FROM class_enrollment WHERE class_name = '1º A'");
+    }
+
+    public static void main(String[] args) throws SQLException {
+        DatabaseInitializer.initialize();
+        List<String> failures = new ArrayList<>();
+        try (Connection connection = HibernateUtil.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> query : HOT_QUERIES.entrySet()) {
+                try (ResultSet rs = statement.executeQuery("EXPLAIN " + query.getValue())) {
+                    rs.next();
+                    String plan = rs.getString(1);
+                    boolean scan = plan.contains(".tableScan");
+                    System.out.printf("%-40s %s%n", query.getKey(), scan ? "TABLE SCAN" : "index");
+                    if (scan) {
+                        failures.add(query.getKey() + ":\n" + plan);
+                    }
+                }
+            }
+        } finally {
+            HibernateUtil.shutdown();
+        }
+        if (!failures.isEmpty()) {
+            System.err.println("Queries without a usable index:\n" + String.join("\n", failures));
+            System.exit(1);
+        }
+    }
+}
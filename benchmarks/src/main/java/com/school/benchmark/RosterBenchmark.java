@@ -0,0 +1,78 @@
+package com.school.benchmark;
+
+import com.school.dao.StudentDAO;
+import com.school.dto.StudentRow;
+import com.school.model.Student;
+import com.school.roster.Roster;
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import org.hibernate.StatelessSession;
+import org.openjdk.jmh.annotations.*;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A class's roster over 100k students in 12 classes of about 8,300: the attendance screen's
+ * old {@link StudentDAO#findAll} of every entity, a query for the class's
+ * rows, and {@link StudentDAO#findRoster}, alone and walked for its ids. Run
+ * with {@code -prof gc} to compare the bytes allocated per call.
+ * <pre>java -jar target/benchmarks.jar RosterBenchmark -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-Dhibernate.show_sql=false"})
+public class RosterBenchmark {
+    private static final int STUDENTS = 100_000;
+    private static final String CLASS_NAME = "7º C";
+
+    private final StudentDAO studentDAO = new StudentDAO();
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        DatabaseInitializer.initialize();
+        BenchmarkData.insertStudents(STUDENTS);
+        // Load the store outside the measurement
+        studentDAO.findRoster(CLASS_NAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public List<Student> findAll() {
+        return studentDAO.findAll();
+    }
+
+    @Benchmark
+    public List<StudentRow> classQuery() {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            return session.createQuery(
+                "SELECT new com.school.dto.StudentRow(s.id, s.name, s.registration, s.email, s.birthDate, s.className) " +
+                "FROM Student s WHERE s.className = :className ORDER BY s.name",
+                StudentRow.class)
+                .setParameter("className", CLASS_NAME)
+                .list();
+        }
+    }
+
+    @Benchmark
+    public Roster roster() {
+        return studentDAO.findRoster(CLASS_NAME);
+    }
+
+    @Benchmark
+    public long rosterIds() {
+        Roster roster = studentDAO.findRoster(CLASS_NAME);
+        long sum = 0;
+        for (int i = 0; i < roster.size(); i++) {
+            sum += roster.id(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,354 @@
+package com.school.benchmark;
+
+import com.school.dao.AttendanceDAO;
+import com.school.dao.GradebookDAO;
+import com.school.dao.SubjectDAO;
+import com.school.dao.TeacherDAO;
+import com.school.model.Grade;
+import com.school.model.Subject;
+import com.school.model.Teacher;
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fills an empty database with a synthetic school year for load and scale
+ * testing: teachers, subjects, classes of {@value #CLASS_SIZE} students, a
+ * grade per student, class subject and bimester, and daily roll calls.
+ * The same shape and seed always produce the same data, ids included.
+ * <p>
+ * Teachers and subjects go through their DAOs; students, the subjects each
+ * class takes, grades and roll calls are written one class at a time with
+ * plain JDBC batches, in the attendance layout chosen by
+ * {@link AttendanceDAO#STORAGE_PROPERTY}. The
+ * gradebook summaries are rebuilt at the end. Students' ability and
+ * absenteeism vary, so rankings and early warnings have something to find.
+ * <pre>java -cp target/benchmarks.jar com.school.benchmark.SchoolDataGenerator [students] [attendanceDays] [seed]</pre>
+ * Add {@code -Dschool.storage=file -Dschool.db.path=...} to keep the
+ * result for profiling the application against it.
+ */
+public class SchoolDataGenerator {
+    public static final int CLASS_SIZE = 35;
+    // Brazilian school year: starts in February, recess in July
+    public static final LocalDate FIRST_DAY = LocalDate.of(2024, 2, 5);
+    public static final int SCHOOL_YEAR_DAYS = 200;
+
+    private static final String[] SUBJECTS = {
+        "Língua Portuguesa", "Matemática", "História", "Geografia", "Ciências", "Língua Inglesa",
+        "Arte", "Educação Física", "Física", "Química", "Biologia", "Filosofia", "Sociologia"
+    };
+    private static final String[] DEPARTMENTS = {
+        "Linguagens", "Matemática", "Ciências Humanas", "Ciências Humanas", "Ciências da Natureza", "Linguagens",
+        "Linguagens", "Linguagens", "Ciências da Natureza", "Ciências da Natureza", "Ciências da Natureza",
+        "Ciências Humanas", "Ciências Humanas"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Ana", "Maria", "João", "Pedro", "Lucas", "Gabriel", "Júlia", "Beatriz", "Mateus", "Laura",
+        "Letícia", "Rafael", "Guilherme", "Larissa", "Vitória", "Felipe", "Isabela", "Gustavo", "Camila", "Thiago",
+        "Sofia", "Enzo", "Valentina", "Heitor", "Lívia", "Davi", "Manuela", "Bernardo", "Helena", "Caio"
+    };
+    private static final String[] SURNAMES = {
+        "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+        "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa",
+        "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas",
+        "Cardoso", "Ramos", "Gonçalves", "Araújo", "Teixeira", "Conceição", "Magalhães", "Brandão"
+    };
+    private static final int CLASSES_PER_COMMIT = 20;
+
+    /**
+     * @param subjectsPerClass how many of the subjects each class takes, rotating through them
+     * @param attendanceDays   school days with a roll call, from {@link #FIRST_DAY}; up to a full year
+     */
+    public record Shape(int students, int teachers, int subjects, int subjectsPerClass, int attendanceDays) {
+        public Shape {
+            if (students <= 0 || subjects <= 0 || teachers <= 0) {
+                throw new IllegalArgumentException("Students, teachers and subjects must be positive");
+            }
+            if (subjectsPerClass <= 0 || subjectsPerClass > subjects) {
+                throw new IllegalArgumentException("Each class takes between 1 and " + subjects + " subjects");
+            }
+            if (attendanceDays < 0 || attendanceDays > SCHOOL_YEAR_DAYS) {
+                throw new IllegalArgumentException("Attendance covers 0 to " + SCHOOL_YEAR_DAYS + " school days");
+            }
+        }
+
+        /**
+         * A school of {@code students} with a teacher per 25 students, every
+         * subject of the curriculum, eight of them per class, and
+         * {@code attendanceDays} of roll calls.
+         */
+        public static Shape of(int students, int attendanceDays) {
+            return new Shape(students, Math.max(SUBJECTS.length, students / 25), SUBJECTS.length, 8, attendanceDays);
+        }
+
+        public int classes() {
+            return (students + CLASS_SIZE - 1) / CLASS_SIZE;
+        }
+    }
+
+    /**
+     * Row counts written by {@link #generate}.
+     */
+    public record Result(int students, long grades, long attendanceEntries, long attendanceRows) {
+    }
+
+    private final Shape shape;
+    private final long seed;
+    private final boolean monthly = "monthly".equals(System.getProperty(AttendanceDAO.STORAGE_PROPERTY, "rows"));
+    private final List<LocalDate> schoolDays = new ArrayList<>();
+    private int students;
+    private long grades;
+    private long attendanceEntries;
+    private long attendanceRows;
+
+    public SchoolDataGenerator(Shape shape, long seed) {
+        this.shape = shape;
+        this.seed = seed;
+        for (LocalDate day = FIRST_DAY; schoolDays.size() < shape.attendanceDays(); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY
+                    && day.getMonth() != Month.JULY) {
+                schoolDays.add(day);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int attendanceDays = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        System.setProperty("hibernate.show_sql", "false");
+        try {
+            DatabaseInitializer.initialize();
+            Shape shape = Shape.of(students, attendanceDays);
+            long start = System.nanoTime();
+            Result result = new SchoolDataGenerator(shape, seed).generate();
+            System.out.printf("%,d students in %,d classes, %,d teachers, %,d subjects, %,d grades, " +
+                    "%,d roll-call entries (%,d rows) in %d ms%n",
+                result.students(), shape.classes(), shape.teachers(), shape.subjects(), result.grades(),
+                result.attendanceEntries(), result.attendanceRows(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the database already has students
+     */
+    public Result generate() throws SQLException {
+        try (Connection connection = HibernateUtil.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM students")) {
+            rs.next();
+            if (rs.getLong(1) > 0) {
+                throw new IllegalStateException("The generator needs a database without students");
+            }
+        }
+        List<Long> subjectIds = createSubjects(createTeachers());
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int first = 0; first < shape.classes(); first += CLASSES_PER_COMMIT) {
+            insertClasses(first, Math.min(first + CLASSES_PER_COMMIT, shape.classes()), subjectIds, random);
+        }
+        new GradebookDAO().rebuild();
+        return new Result(students, grades, attendanceEntries, attendanceRows);
+    }
+
+    /**
+     * Classes {@code from} to {@code to}, exclusive, in one transaction.
+     */
+    private void insertClasses(int from, int to, List<Long> subjectIds, SplittableRandom random) throws SQLException {
+        try (Connection connection = HibernateUtil.getDataSource().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement studentInsert = connection.prepareStatement(
+                     "INSERT INTO students (id, name, email, registration, birthDate, className) " +
+                     "VALUES (NEXT VALUE FOR students_seq, ?, ?, ?, ?, ?)", new String[]{"ID"});
+                 PreparedStatement gradeInsert = connection.prepareStatement(
+                     "INSERT INTO grades (id, student_id, subject_id, grade_value, period) " +
+                     "VALUES (NEXT VALUE FOR grades_seq, ?, ?, ?, ?)");
+                 PreparedStatement enrollmentInsert = connection.prepareStatement(
+                     "INSERT INTO class_enrollment (id, class_name, subject_id) " +
+                     "VALUES (NEXT VALUE FOR class_enrollment_seq, ?, ?)");
+                 PreparedStatement attendanceInsert = connection.prepareStatement(monthly
+                     ? "INSERT INTO attendance_month (id, student_id, subject_id, month_start, recorded_days, " +
+                       "present_days) VALUES (NEXT VALUE FOR attendance_month_seq, ?, ?, ?, ?, ?)"
+                     : "INSERT INTO attendance (id, student_id, subject_id, date, present) " +
+                       "VALUES (NEXT VALUE FOR attendance_seq, ?, ?, ?, ?)")) {
+                for (int classIndex = from; classIndex < to; classIndex++) {
+                    int year = classIndex % 9 + 1;
+                    String className = year + "º " + section(classIndex / 9);
+                    int size = Math.min(CLASS_SIZE, shape.students() - students);
+
+                    double[] ability = new double[size];
+                    double[] absenceRate = new double[size];
+                    for (int i = 0; i < size; i++, students++) {
+                        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                        String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+                        String name = first + " " + surname + " " + SURNAMES[random.nextInt(SURNAMES.length)];
+                        studentInsert.setString(1, name);
+                        studentInsert.setString(2, ascii(first + "." + surname) + students + "@aluno.escola.test");
+                        studentInsert.setString(3, String.format("%d%07d", FIRST_DAY.getYear(), students));
+                        // Six years old in the first year, born any day of the year
+                        studentInsert.setDate(4, Date.valueOf(LocalDate.of(FIRST_DAY.getYear() - 6 - year, 1, 1)
+                            .plusDays(random.nextInt(365))));
+                        studentInsert.setString(5, className);
+                        studentInsert.addBatch();
+                        ability[i] = clamp(7.0 + random.nextGaussian() * 1.5);
+                        // Most students rarely miss a class, a few miss a lot
+                        double kind = random.nextDouble();
+                        absenceRate[i] = kind < 0.85 ? 0.03 : kind < 0.97 ? 0.10 : 0.30;
+                    }
+                    studentInsert.executeBatch();
+                    long[] studentIds = new long[size];
+                    try (ResultSet keys = studentInsert.getGeneratedKeys()) {
+                        for (int i = 0; keys.next(); i++) {
+                            studentIds[i] = keys.getLong(1);
+                        }
+                    }
+
+                    for (int k = 0; k < shape.subjectsPerClass(); k++) {
+                        long subjectId = subjectIds.get((classIndex + k) % subjectIds.size());
+                        enrollmentInsert.setString(1, className);
+                        enrollmentInsert.setLong(2, subjectId);
+                        enrollmentInsert.addBatch();
+                        // Some subjects suit a student better than others
+                        double[] affinity = new double[size];
+                        for (int i = 0; i < size; i++) {
+                            affinity[i] = random.nextGaussian() * 0.8;
+                        }
+                        for (String period : Grade.PERIODS) {
+                            for (int i = 0; i < size; i++) {
+                                double value = clamp(ability[i] + affinity[i] + random.nextGaussian());
+                                gradeInsert.setLong(1, studentIds[i]);
+                                gradeInsert.setLong(2, subjectId);
+                                gradeInsert.setDouble(3, Math.round(value * 10) / 10.0);
+                                gradeInsert.setString(4, period);
+                                gradeInsert.addBatch();
+                                grades++;
+                            }
+                        }
+                        gradeInsert.executeBatch();
+                        enrollmentInsert.executeBatch();
+                        if (monthly) {
+                            insertMonths(attendanceInsert, studentIds, subjectId, absenceRate, random);
+                        } else {
+                            insertRows(attendanceInsert, studentIds, subjectId, absenceRate, random);
+                        }
+                    }
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    private List<Teacher> createTeachers() {
+        List<Teacher> teachers = new ArrayList<>(shape.teachers());
+        SplittableRandom random = new SplittableRandom(seed - 1);
+        for (int i = 0; i < shape.teachers(); i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+            Teacher teacher = new Teacher();
+            teacher.setName(first + " " + surname);
+            teacher.setEmail(ascii(first + "." + surname) + i + "@escola.test");
+            teacher.setDepartment(DEPARTMENTS[i % DEPARTMENTS.length]);
+            teachers.add(teacher);
+        }
+        new TeacherDAO().saveAll(teachers);
+        return teachers;
+    }
+
+    /**
+     * The curriculum's subjects, numbered once there are more than it has;
+     * teacher {@code i} teaches subject {@code i}, plus every Nth after it.
+     */
+    private List<Long> createSubjects(List<Teacher> teachers) {
+        List<Subject> subjects = new ArrayList<>(shape.subjects());
+        for (int i = 0; i < shape.subjects(); i++) {
+            Subject subject = new Subject();
+            subject.setName(SUBJECTS[i % SUBJECTS.length] + (i < SUBJECTS.length ? "" : " " + (i / SUBJECTS.length + 1)));
+            subject.setTeacher(teachers.get(i % teachers.size()));
+            subject.setWorkload(i % SUBJECTS.length < 2 ? 160 : 80);
+            subjects.add(subject);
+        }
+        new SubjectDAO().saveAll(subjects);
+        return subjects.stream().map(Subject::getId).toList();
+    }
+
+    private void insertRows(PreparedStatement insert, long[] studentIds, long subjectId, double[] absenceRate,
+                              SplittableRandom random) throws SQLException {
+        for (LocalDate day : schoolDays) {
+            Date date = Date.valueOf(day);
+            for (int i = 0; i < studentIds.length; i++) {
+                insert.setLong(1, studentIds[i]);
+                insert.setLong(2, subjectId);
+                insert.setDate(3, date);
+                insert.setBoolean(4, random.nextDouble() >= absenceRate[i]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        attendanceEntries += (long) schoolDays.size() * studentIds.length;
+        attendanceRows += (long) schoolDays.size() * studentIds.length;
+    }
+
+    private void insertMonths(PreparedStatement insert, long[] studentIds, long subjectId, double[] absenceRate,
+                                SplittableRandom random) throws SQLException {
+        Map<LocalDate, int[][]> months = new LinkedHashMap<>();
+        for (LocalDate day : schoolDays) {
+            // recorded and present masks of every student; bit d - 1 is day d, as in AttendanceMonth
+            int[][] masks = months.computeIfAbsent(day.withDayOfMonth(1), month -> new int[2][studentIds.length]);
+            int bit = 1 << (day.getDayOfMonth() - 1);
+            for (int i = 0; i < studentIds.length; i++) {
+                masks[0][i] |= bit;
+                if (random.nextDouble() >= absenceRate[i]) {
+                    masks[1][i] |= bit;
+                }
+            }
+        }
+        for (Map.Entry<LocalDate, int[][]> month : months.entrySet()) {
+            Date monthStart = Date.valueOf(month.getKey());
+            for (int i = 0; i < studentIds.length; i++) {
+                insert.setLong(1, studentIds[i]);
+                insert.setLong(2, subjectId);
+                insert.setDate(3, monthStart);
+                insert.setInt(4, month.getValue()[0][i]);
+                insert.setInt(5, month.getValue()[1][i]);
+                insert.addBatch();
+            }
+        }
+        insert.executeBatch();
+        attendanceEntries += (long) schoolDays.size() * studentIds.length;
+        attendanceRows += (long) months.size() * studentIds.length;
+    }
+
+    /**
+     * A, B, ..., Z, AA, AB, ...: schools with many classes per year.
+     */
+    private static String section(int index) {
+        StringBuilder section = new StringBuilder();
+        for (int i = index; i >= 0; i = i / 26 - 1) {
+            section.insert(0, (char) ('A' + i % 26));
+        }
+        return section.toString();
+    }
+
+    private static double clamp(double grade) {
+        return Math.max(0, Math.min(10, grade));
+    }
+
+    private static String ascii(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase();
+    }
+}
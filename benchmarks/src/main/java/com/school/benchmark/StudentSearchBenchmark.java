@@ -0,0 +1,62 @@
+package com.school.benchmark;
+
+import com.school.dao.StudentDAO;
+import com.school.util.DatabaseInitializer;
+import com.school.util.HibernateUtil;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over 200k students, sampled so JMH reports p50/p99: the old
+ * {@code LIKE '%q%'} scan over three columns against {@link StudentDAO#searchIds}.
+ * Both return the ids of every match; the panel then reads only the shown page.
+ * <pre>java -jar target/benchmarks.jar StudentSearchBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-Dhibernate.show_sql=false"})
+public class StudentSearchBenchmark {
+    private static final int STUDENTS = 200_000;
+
+    @Param({"magalhães", "ana conceicao", "R0123"})
+    public String query;
+
+    private final StudentDAO studentDAO = new StudentDAO();
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        DatabaseInitializer.initialize();
+        BenchmarkData.insertStudents(STUDENTS);
+        // Build the index outside the measurement
+        studentDAO.searchIds("warmup");
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public List<Long> likeScan() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                "SELECT s.id FROM Student s WHERE LOWER(s.name) LIKE LOWER(:query) " +
+                "OR LOWER(s.email) LIKE LOWER(:query) " +
+                "OR LOWER(s.registration) LIKE LOWER(:query)",
+                Long.class)
+                .setParameter("query", "%" + query + "%")
+                .list();
+        }
+    }
+
+    @Benchmark
+    public List<Long> index() {
+        return studentDAO.searchIds(query);
+    }
+}
@@ -0,0 +1,67 @@
+package com.school.ui;
+
+import org.openjdk.jmh.annotations.*;
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filling the attendance table with a roll of 1k, 10k and 100k students, the
+ * panel's path when no roll was called yet: one {@code addRow} per student,
+ * as the panels used to, against {@link TableRows#replace}. The model is
+ * shown by a JTable, which handles every change event it fires. Rows are
+ * built up front, so no database is involved.
+ * <p>
+ * In the panels' package so it can call the package-private {@link TableRows}.
+ * <pre>java -jar target/benchmarks.jar TableFillBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-Djava.awt.headless=true"})
+public class TableFillBenchmark {
+    private static final String[] COLUMNS = {"Matrícula", "Nome do Aluno", "Presente", "Justificativa"};
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    private List<Object[]> rows;
+    private DefaultTableModel model;
+
+    @Setup(Level.Trial)
+    public void rows() {
+        rows = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            rows.add(new Object[]{String.format("R%07d", i), "Aluno " + i, false, ""});
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTable() {
+        model = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column == 2 ? Boolean.class : String.class;
+            }
+        };
+        new JTable(model);
+    }
+
+    @Benchmark
+    public DefaultTableModel addRowPerStudent() {
+        for (Object[] row : rows) {
+            model.addRow(row);
+        }
+        return model;
+    }
+
+    @Benchmark
+    public DefaultTableModel replaceAll() {
+        TableRows.replace(model, rows);
+        return model;
+    }
+}
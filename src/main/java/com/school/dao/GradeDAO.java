@@ -1,48 +0,0 @@
-package com.school.dao;
-
-import com.school.model.Grade;
-import com.school.util.HibernateUtil;
-import org.hibernate.Session;
-import org.hibernate.Transaction;
-import java.util.List;
-
-public class GradeDAO {
-    public void save(Grade grade) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.persist(grade);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw e;
-        }
-    }
-
-    public void update(Grade grade) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.merge(grade);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw e;
-        }
-    }
-
-    public List<Grade> findBySubjectAndPeriod(Long subjectId, String period) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                "FROM Grade g WHERE g.subject.id = :subjectId AND g.period = :period",
-                Grade.class)
-                .setParameter("subjectId", subjectId)
-                .setParameter("period", period)
-                .list();
-        }
-    }
-}
\ No newline at end of file
@@ -1,78 +0,0 @@
-package com.school.dao;
-
-import com.school.model.Student;
-import com.school.util.HibernateUtil;
-import org.hibernate.Session;
-import org.hibernate.Transaction;
-import java.util.List;
-
-public class StudentDAO {
-    public void save(Student student) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.persist(student);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw e;
-        }
-    }
-
-    public void update(Student student) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.merge(student);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw e;
-        }
-    }
-
-    public void delete(Long id) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            Student student = session.get(Student.class, id);
-            if (student != null) {
-                session.remove(student);
-            }
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw e;
-        }
-    }
-
-    public Student findById(Long id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.get(Student.class, id);
-        }
-    }
-
-    public List<Student> findAll() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery("FROM Student", Student.class).list();
-        }
-    }
-
-    public List<Student> search(String query) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                "FROM Student s WHERE LOWER(s.name) LIKE LOWER(:query) " +
-                "OR LOWER(s.email) LIKE LOWER(:query) " +
-                "OR LOWER(s.registration) LIKE LOWER(:query)",
-                Student.class)
-                .setParameter("query", "%" + query + "%")
-                .list();
-        }
-    }
-}
\ No newline at end of file
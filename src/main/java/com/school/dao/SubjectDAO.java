@@ -1,86 +0,0 @@
-package com.school.dao;
-
-import com.school.model.Subject;
-import com.school.util.HibernateUtil;
-import org.hibernate.Session;
-import org.hibernate.Transaction;
-import java.util.List;
-
-public class SubjectDAO {
-    public void save(Subject subject) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.persist(subject);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw e;
-        }
-    }
-
-    public void update(Subject subject) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.merge(subject);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw e;
-        }
-    }
-
-    public void delete(Long id) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            Subject subject = session.get(Subject.class, id);
-            if (subject != null) {
-                session.remove(subject);
-            }
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw e;
-        }
-    }
-
-    public Subject findById(Long id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.get(Subject.class, id);
-        }
-    }
-
-    public List<Subject> findAll() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery("FROM Subject", Subject.class).list();
-        }
-    }
-
-    public List<Subject> findByTeacher(Long teacherId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                "FROM Subject s WHERE s.teacher.id = :teacherId",
-                Subject.class)
-                .setParameter("teacherId", teacherId)
-                .list();
-        }
-    }
-
-    public List<Subject> search(String query) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                "FROM Subject s WHERE LOWER(s.name) LIKE LOWER(:query)",
-                Subject.class)
-                .setParameter("query", "%" + query + "%")
-                .list();
-        }
-    }
-}
\ No newline at end of file
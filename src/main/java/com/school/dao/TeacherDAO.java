@@ -1,78 +0,0 @@
-package com.school.dao;
-
-import com.school.model.Teacher;
-import com.school.util.HibernateUtil;
-import org.hibernate.Session;
-import org.hibernate.Transaction;
-import java.util.List;
-
-public class TeacherDAO {
-    public void save(Teacher teacher) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.persist(teacher);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw e;
-        }
-    }
-
-    public void update(Teacher teacher) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.merge(teacher);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw e;
-        }
-    }
-
-    public void delete(Long id) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            Teacher teacher = session.get(Teacher.class, id);
-            if (teacher != null) {
-                session.remove(teacher);
-            }
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw e;
-        }
-    }
-
-    public Teacher findById(Long id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.get(Teacher.class, id);
-        }
-    }
-
-    public List<Teacher> findAll() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery("FROM Teacher", Teacher.class).list();
-        }
-    }
-
-    public List<Teacher> search(String query) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                "FROM Teacher t WHERE LOWER(t.name) LIKE LOWER(:query) " +
-                "OR LOWER(t.email) LIKE LOWER(:query) " +
-                "OR LOWER(t.department) LIKE LOWER(:query)",
-                Teacher.class)
-                .setParameter("query", "%" + query + "%")
-                .list();
-        }
-    }
-}
\ No newline at end of file
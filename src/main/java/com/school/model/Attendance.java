@@ -1,28 +0,0 @@
-package com.school.model;
-
-import jakarta.persistence.*;
-import lombok.Data;
-import java.time.LocalDate;
-
-@Data
-@Entity
-@Table(name = "attendance")
-public class Attendance {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @ManyToOne
-    @JoinColumn(name = "student_id", nullable = false)
-    private Student student;
-
-    @ManyToOne
-    @JoinColumn(name = "subject_id", nullable = false)
-    private Subject subject;
-
-    @Column(nullable = false)
-    private LocalDate date;
-
-    @Column(nullable = false)
-    private Boolean present;
-}
\ No newline at end of file
@@ -1,26 +0,0 @@
-package com.school.model;
-
-import jakarta.persistence.*;
-import lombok.Data;
-import java.util.Set;
-
-@Data
-@Entity
-@Table(name = "teachers")
-public class Teacher {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @Column(nullable = false)
-    private String name;
-
-    @Column(nullable = false, unique = true)
-    private String email;
-
-    @Column(nullable = false)
-    private String department;
-
-    @OneToMany(mappedBy = "teacher")
-    private Set<Subject> subjects;
-}
\ No newline at end of file